@@ -0,0 +1,44 @@
+package site.auberginewly.todolist.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import site.auberginewly.todolist.constant.AppConstants;
+import site.auberginewly.todolist.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 缓存中的用户快照
+ * 不可变对象，只保存认证热路径需要的字段
+ */
+@Getter
+@AllArgsConstructor
+public final class CachedUser {
+
+    private final Long id;
+    private final String username;
+
+    /**
+     * 密码哈希，每次修改密码都会变化，同时充当密码版本
+     */
+    private final String passwordHash;
+
+    private final List<String> authorities;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+
+    /**
+     * 从User实体创建快照
+     */
+    public static CachedUser fromUser(User user) {
+        return new CachedUser(
+            user.getId(),
+            user.getUsername(),
+            user.getPassword(),
+            List.of(AppConstants.Auth.DEFAULT_ROLE),
+            user.getCreatedAt(),
+            user.getUpdatedAt()
+        );
+    }
+}
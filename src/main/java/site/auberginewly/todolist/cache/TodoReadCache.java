@@ -0,0 +1,158 @@
+package site.auberginewly.todolist.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import site.auberginewly.todolist.dto.CursorPage;
+import site.auberginewly.todolist.dto.TodoResponse;
+import site.auberginewly.todolist.event.TodoChangedEvent;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 待办事项读缓存
+ * 按用户缓存最常被重复加载的只读结果：列表第一页（每种排序一份）和已过期列表，
+ * 容量按缓存的待办事项条数计算，并有过期时间；用户的任何写操作提交后清除该用户的全部条目。
+ * 条目记录加载时的数据版本，调用方传入读取时的版本，缓存中的版本更旧时重新加载：
+ * 提交与清除之间读到新版本的请求不会拿到旧内容（ETag 依赖这一点）。
+ * 命中、未命中、加载耗时和淘汰指标通过 actuator 的 metrics 端点暴露（cache=todos）
+ */
+@Component
+public class TodoReadCache {
+
+    private static final String CACHE_NAME = "todos";
+    private static final String FIRST_PAGE = "page:";
+    private static final String OVERDUE = "overdue:";
+
+    /**
+     * 缓存键：用户ID + 视图
+     */
+    private record Key(Long userId, String view) {
+    }
+
+    /**
+     * 缓存值：加载前读取的数据版本 + 内容，内容至少与该版本一样新
+     */
+    private record Versioned(long version, Object value) {
+    }
+
+    private final Cache<Key, Versioned> cache;
+    private final Counter invalidations;
+    private final Set<String> firstPageViews = ConcurrentHashMap.newKeySet(); // 出现过的第一页视图，清除时逐个生成键
+
+    public TodoReadCache(MeterRegistry meterRegistry,
+                         @Value("${app.cache.todos.maximum-weight:100000}") long maximumWeight,
+                         @Value("${app.cache.todos.ttl:5m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((Key key, Versioned value) -> Math.max(1, itemCount(value.value())))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.invalidations = Counter.builder("cache.invalidations")
+                .description("Per-user invalidations of cached todo reads")
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 获取列表第一页，未命中或缓存的版本比 version 旧时加载
+     * 返回的是缓存内容的副本，调用方可以修改（例如设置总数）
+     *
+     * @param userId 用户ID
+     * @param version 调用方在读取前获取的数据版本
+     * @param sort 排序方式
+     * @param loader 加载第一页
+     * @return 第一页
+     */
+    @SuppressWarnings("unchecked")
+    public CursorPage<TodoResponse> getFirstPage(Long userId, long version, String sort,
+                                                 Supplier<CursorPage<TodoResponse>> loader) {
+        String view = FIRST_PAGE + sort;
+        firstPageViews.add(view);
+        CursorPage<TodoResponse> page = (CursorPage<TodoResponse>) get(new Key(userId, view), version, () -> {
+            CursorPage<TodoResponse> loaded = loader.get();
+            return new CursorPage<>(List.copyOf(loaded.getItems()), loaded.getNextCursor(), loaded.isHasMore());
+        });
+        return new CursorPage<>(page.getItems(), page.getNextCursor(), page.isHasMore());
+    }
+
+    /**
+     * 获取已过期列表，未命中或缓存的版本比 version 旧时加载
+     * 键中包含日期，跨天后自然读取新的条目
+     *
+     * @param userId 用户ID
+     * @param version 调用方在读取前获取的数据版本
+     * @param today 当前日期
+     * @param loader 加载已过期列表
+     * @return 不可修改的已过期列表
+     */
+    @SuppressWarnings("unchecked")
+    public List<TodoResponse> getOverdue(Long userId, long version, LocalDate today,
+                                         Supplier<List<TodoResponse>> loader) {
+        return (List<TodoResponse>) get(new Key(userId, OVERDUE + today), version, () -> List.copyOf(loader.get()));
+    }
+
+    /**
+     * 读取不旧于 version 的条目
+     * 常见情况走 Caffeine 的原子加载（同一键只加载一次并记录命中率）；写操作已提交而清除尚未执行时，
+     * 缓存中的版本更旧，在同一键上原子地替换为新加载的内容，比 version 更新的条目直接使用
+     */
+    private Object get(Key key, long version, Supplier<Object> loader) {
+        Versioned cached = cache.get(key, k -> new Versioned(version, loader.get()));
+        if (cached.version() < version) {
+            cached = cache.asMap().compute(key, (k, current) -> current != null && current.version() >= version
+                    ? current
+                    : new Versioned(version, loader.get()));
+        }
+        return cached.value();
+    }
+
+    /**
+     * 写事务提交后清除该用户的缓存
+     * Caffeine 在同一个键上的加载与清除互斥：清除前已开始的加载会在完成后被清除，
+     * 清除后开始的加载在提交之后读取，不会把旧数据重新放回缓存；条目中的版本保证了提交到清除之间的读取
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTodoChanged(TodoChangedEvent event) {
+        evictUser(event.getUserId());
+    }
+
+    /**
+     * 清除用户的全部缓存条目
+     *
+     * @param userId 用户ID
+     */
+    public void evictUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        List<Key> keys = new ArrayList<>();
+        for (String view : firstPageViews) {
+            keys.add(new Key(userId, view));
+        }
+        keys.add(new Key(userId, OVERDUE + LocalDate.now()));
+        cache.invalidateAll(keys);
+        invalidations.increment();
+    }
+
+    private static int itemCount(Object value) {
+        if (value instanceof CursorPage<?> page) {
+            return page.getItems().size();
+        }
+        return ((List<?>) value).size();
+    }
+}
@@ -0,0 +1,74 @@
+package site.auberginewly.todolist.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import site.auberginewly.todolist.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * 用户缓存
+ * 以用户名为键，在 UserRepository 前提供容量和过期时间受限的进程内缓存，
+ * 命中、未命中和淘汰计数通过 actuator 的 metrics 端点暴露（cache=users）
+ */
+@Component
+public class UserCache {
+
+    private static final String CACHE_NAME = "users";
+
+    private final UserRepository userRepository;
+    private final Cache<String, CachedUser> cache;
+    private final Counter invalidations;
+
+    public UserCache(UserRepository userRepository,
+                     MeterRegistry meterRegistry,
+                     @Value("${app.cache.users.maximum-size:10000}") long maximumSize,
+                     @Value("${app.cache.users.ttl:10m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.invalidations = Counter.builder("cache.invalidations")
+                .description("Explicit invalidations of cached users")
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 根据用户名获取用户快照，未命中时查询数据库
+     * 不存在的用户不会被缓存
+     *
+     * @param username 用户名
+     * @return 用户快照，如果不存在则返回空
+     */
+    public Optional<CachedUser> get(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(cache.get(username, key ->
+                userRepository.findByUsername(key).map(CachedUser::fromUser).orElse(null)));
+    }
+
+    /**
+     * 使指定用户名的缓存失效
+     * 用户名或密码发生变化时必须调用
+     *
+     * @param username 用户名
+     */
+    public void evict(String username) {
+        if (username == null) {
+            return;
+        }
+        cache.invalidate(username);
+        invalidations.increment();
+    }
+}
@@ -0,0 +1,17 @@
+package site.auberginewly.todolist.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * 异步任务配置类
+ * 启用 @Async 注解；执行器由 Spring Boot 提供（applicationTaskExecutor），MVC 异步请求（导出）也使用它，
+ * spring.threads.virtual.enabled=true 时每个任务使用一个虚拟线程。
+ * 不要在这里声明其他 Executor 类型的 Bean，否则 Spring Boot 不再创建 applicationTaskExecutor；
+ * 需要专用线程池的组件（密码哈希、密码重新哈希）各自在内部持有线程池
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+    // 配置类，启用异步任务
+}
@@ -0,0 +1,15 @@
+package site.auberginewly.todolist.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 定时任务配置类
+ * 启用 @Scheduled 注解，用于限流表清理等后台任务；
+ * spring.threads.virtual.enabled=true 时每次执行使用一个虚拟线程，各任务不再共用单个调度线程
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+    // 配置类，启用定时任务
+}
@@ -14,6 +14,7 @@ public class AppConstants {
         public static final String TOKEN_HEADER = "Authorization";
         public static final int MIN_PASSWORD_LENGTH = 6;
         public static final int MAX_USERNAME_LENGTH = 50;
+        public static final String DEFAULT_ROLE = "ROLE_USER";
     }
     
     /**
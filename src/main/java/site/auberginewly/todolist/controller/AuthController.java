@@ -5,20 +5,26 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import site.auberginewly.todolist.constant.AppConstants;
 import site.auberginewly.todolist.entity.User;
+import site.auberginewly.todolist.security.AuthenticatedUser;
 import site.auberginewly.todolist.security.JwtTokenProvider;
+import site.auberginewly.todolist.security.RevokedTokenRegistry;
 import site.auberginewly.todolist.service.AuthService;
+import site.auberginewly.todolist.service.RefreshTokenService;
 import site.auberginewly.todolist.exception.ApiResponse;
+import site.auberginewly.todolist.exception.UnauthorizedException;
 import site.auberginewly.todolist.dto.RegisterRequest;
 import site.auberginewly.todolist.dto.LoginRequest;
 import site.auberginewly.todolist.dto.ChangePasswordRequest;
+import site.auberginewly.todolist.dto.RefreshTokenRequest;
 import site.auberginewly.todolist.dto.UserResponse;
 
 import java.security.Principal;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -33,6 +39,8 @@ public class AuthController {
     private final AuthService authService;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider tokenProvider;
+    private final RefreshTokenService refreshTokenService;
+    private final RevokedTokenRegistry revokedTokenRegistry;
 
     /**
      * 用户注册
@@ -47,31 +55,64 @@ public class AuthController {
 
     /**
      * 用户登录
-     * @param body 包含 username 和 password
-     * @return 登录成功的 JWT Token
+     * @param request 包含 username 和 password
+     * @return 短期访问令牌和刷新令牌
      */
     @PostMapping("/login")
     public ApiResponse<Map<String, String>> login(@RequestBody LoginRequest request) {
         User user = authService.login(request);
-        // 创建认证对象
-        Authentication authentication = new UsernamePasswordAuthenticationToken(
-            user.getUsername(), null, null);
-        // 生成JWT token
-        String token = tokenProvider.generateToken(authentication);
-        Map<String, String> data = new HashMap<>();
-        data.put("token", token);
-        return new ApiResponse<>(200, "登录成功", data);
+        return new ApiResponse<>(200, "登录成功", issueTokens(user.getId(), user.getUsername()));
+    }
+
+    /**
+     * 刷新访问令牌
+     * 刷新令牌只能使用一次，每次刷新都会返回新的刷新令牌
+     * @param request 包含 refreshToken
+     * @return 新的访问令牌和刷新令牌
+     */
+    @PostMapping("/refresh")
+    public ApiResponse<Map<String, String>> refresh(@RequestBody RefreshTokenRequest request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+        User user = authService.getUserById(rotation.getUserId())
+                .orElseThrow(() -> new UnauthorizedException("用户不存在"));
+        Map<String, String> data = accessToken(user.getId(), user.getUsername());
+        data.put("refreshToken", rotation.getRefreshToken());
+        return new ApiResponse<>(200, "刷新成功", data);
+    }
+
+    /**
+     * 注销
+     * 吊销当前访问令牌，以及请求体中的刷新令牌（如有）
+     * @param request 可选，包含 refreshToken
+     * @param user 当前登录用户
+     */
+    @PostMapping("/logout")
+    public ApiResponse<Void> logout(@RequestBody(required = false) RefreshTokenRequest request,
+                                    @AuthenticationPrincipal AuthenticatedUser user) {
+        if (user != null && user.getTokenId() != null) {
+            revokedTokenRegistry.revoke(user.getTokenId(), user.getTokenExpiresAt());
+        }
+        if (request != null) {
+            refreshTokenService.revoke(request.getRefreshToken());
+        }
+        return new ApiResponse<>(200, "注销成功", null);
     }
 
     /**
      * 修改密码
-     * @param body 包含 oldPassword 和 newPassword
-     * @param principal 当前登录用户
-     * @return 修改后的用户信息
+     * 修改成功后吊销该用户的所有刷新令牌
+     * @param request 包含 oldPassword 和 newPassword
+     * @param user 当前登录用户
+     * @return 修改结果
      */
     @PutMapping("/password")
-    public ApiResponse<Void> changePassword(@RequestBody ChangePasswordRequest request, Principal principal) {
-        authService.changePassword(request, principal);
+    public ApiResponse<Void> changePassword(@RequestBody ChangePasswordRequest request,
+                                            @AuthenticationPrincipal AuthenticatedUser user) {
+        if (user == null) {
+            throw new UnauthorizedException("用户未登录");
+        }
+        authService.changePassword(request, user);
+        refreshTokenService.revokeAll(user.getId());
         return new ApiResponse<>(200, "密码修改成功", null);
     }
 
@@ -81,8 +122,29 @@ public class AuthController {
      * @return 用户信息
      */
     @GetMapping("/me")
-    public ApiResponse<User> getCurrentUser(Principal principal) {
-        User user = authService.getCurrentUser(principal);
+    public ApiResponse<UserResponse> getCurrentUser(Principal principal) {
+        UserResponse user = authService.getCurrentUser(principal);
         return new ApiResponse<>(200, "获取成功", user);
     }
-} 
\ No newline at end of file
+
+    /**
+     * 签发访问令牌和刷新令牌
+     */
+    private Map<String, String> issueTokens(Long userId, String username) {
+        Map<String, String> data = accessToken(userId, username);
+        data.put("refreshToken", refreshTokenService.issue(userId));
+        return data;
+    }
+
+    /**
+     * 签发访问令牌，用户ID和角色写入 Token
+     */
+    private Map<String, String> accessToken(Long userId, String username) {
+        AuthenticatedUser principal = AuthenticatedUser.of(
+            userId, username, List.of(AppConstants.Auth.DEFAULT_ROLE));
+        Map<String, String> data = new HashMap<>();
+        data.put("token", tokenProvider.generateToken(principal));
+        data.put("expiresIn", String.valueOf(tokenProvider.getExpirationSeconds()));
+        return data;
+    }
+}
@@ -1,22 +1,50 @@
 package site.auberginewly.todolist.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import site.auberginewly.todolist.constant.AppConstants;
 import site.auberginewly.todolist.entity.Todo;
+import site.auberginewly.todolist.security.AuthenticatedUser;
+import site.auberginewly.todolist.service.TodoExportService;
+import site.auberginewly.todolist.service.TodoFileFormat;
+import site.auberginewly.todolist.service.TodoImportService;
 import site.auberginewly.todolist.service.TodoService;
+import site.auberginewly.todolist.service.TodoStatsService;
+import site.auberginewly.todolist.stream.TodoEventHub;
 import site.auberginewly.todolist.exception.ApiResponse;
+import site.auberginewly.todolist.dto.CursorPage;
+import site.auberginewly.todolist.dto.SliceResponse;
+import site.auberginewly.todolist.dto.TodoBatchOperation;
+import site.auberginewly.todolist.dto.TodoBatchResult;
+import site.auberginewly.todolist.dto.TodoChangesResponse;
+import site.auberginewly.todolist.dto.TodoFilterRequest;
+import site.auberginewly.todolist.dto.TodoImportResult;
 import site.auberginewly.todolist.dto.TodoRequest;
+import site.auberginewly.todolist.dto.TodoResponse;
+import site.auberginewly.todolist.dto.TodoStatsResponse;
 
-import java.security.Principal;
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 
 /**
  * 待办事项控制器
- * 处理 /api/todos 相关的 CRUD 请求，所有方法都需要认证
+ * 处理 /api/todos 相关的 CRUD 请求，所有方法都需要认证；
+ * 列表和详情接口根据用户数据版本返回强 ETag，If-None-Match 一致时直接返回 304，不加载待办事项
  */
 @RestController
 @RequestMapping("/todos")
@@ -24,32 +52,165 @@ import java.util.List;
 public class TodoController {
 
     private final TodoService todoService;
-    private final site.auberginewly.todolist.service.AuthService authService;
+    private final TodoStatsService todoStatsService;
+    private final TodoExportService todoExportService;
+    private final TodoImportService todoImportService;
+    private final TodoEventHub todoEventHub;
 
     /**
      * 创建待办事项
      */
     @PostMapping
-    public ApiResponse<Todo> createTodo(@RequestBody TodoRequest request, Principal principal) {
-        Todo todo = todoService.createTodo(request, getUserIdFromPrincipal(principal));
+    public ApiResponse<Todo> createTodo(@RequestBody TodoRequest request, @AuthenticationPrincipal AuthenticatedUser user) {
+        Todo todo = todoService.createTodo(request, getUserId(user));
         return new ApiResponse<>(200, "创建成功", todo);
     }
 
     /**
-     * 获取当前用户所有待办事项（支持分页、筛选、搜索）
+     * 游标分页获取当前用户的待办事项
+     * 第一页不传 cursor，之后传入上一页返回的 nextCursor；sort 可选 created（默认）、dueDate、priority
      */
     @GetMapping
-    public ApiResponse<List<Todo>> getTodos(Principal principal) {
-        List<Todo> todos = todoService.getTodos(getUserIdFromPrincipal(principal));
-        return new ApiResponse<>(200, "获取成功", todos);
+    public ApiResponse<CursorPage<TodoResponse>> getTodos(@RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer limit,
+                                                  @RequestParam(required = false) String sort,
+                                                  @RequestParam(defaultValue = "false") boolean includeTotal,
+                                                  @AuthenticationPrincipal AuthenticatedUser user,
+                                                  ServletWebRequest webRequest) {
+        Long userId = getUserId(user);
+        long version = todoStatsService.getDataVersion(userId);
+        if (notModified(webRequest, userId, version, null)) {
+            return null;
+        }
+        CursorPage<TodoResponse> page = todoService.getTodoPage(userId, version, sort, cursor, limit);
+        if (includeTotal) {
+            page.setTotal(todoService.getTodoTotal(userId, null, null));
+        }
+        return new ApiResponse<>(200, "获取成功", page);
+    }
+
+    /**
+     * 分片获取当前用户的待办事项（支持筛选、搜索）
+     * 不执行 COUNT 查询，适合无限滚动；需要总数时传 includeTotal=true，总数来自缓存的计数；
+     * sort 可选 created（默认，按创建时间）或 priority（按优先级从高到低，再按截止日期）
+     */
+    @GetMapping("/slice")
+    public ApiResponse<SliceResponse<TodoResponse>> getTodoSlice(@RequestParam(defaultValue = "0") int page,
+                                                         @RequestParam(defaultValue = "20") int size,
+                                                         @RequestParam(defaultValue = "all") String status,
+                                                         @RequestParam(required = false) String search,
+                                                         @RequestParam(required = false) String sort,
+                                                         @RequestParam(defaultValue = "false") boolean includeTotal,
+                                                         @AuthenticationPrincipal AuthenticatedUser user,
+                                                         ServletWebRequest webRequest) {
+        if (page < 0 || size < 1 || size > AppConstants.Pagination.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("分页参数无效");
+        }
+        Long userId = getUserId(user);
+        if (notModified(webRequest, userId, null)) {
+            return null;
+        }
+        Pageable pageable = PageRequest.of(page, size, sliceSort(sort));
+        Slice<TodoResponse> slice = todoService.getTodoSlice(userId, status, search, pageable);
+        Long total = includeTotal ? todoService.getTodoTotal(userId, status, search) : null;
+        return new ApiResponse<>(200, "获取成功",
+                new SliceResponse<>(slice.getContent(), page, size, slice.hasNext(), total));
+    }
+
+    /**
+     * 按组合条件分片获取当前用户的待办事项
+     * 状态、优先级（可多选）、截止日期范围、已过期和搜索词可任意组合，排序字段限定为白名单
+     */
+    @GetMapping("/filter")
+    public ApiResponse<SliceResponse<TodoResponse>> filterTodos(TodoFilterRequest request,
+                                                        @AuthenticationPrincipal AuthenticatedUser user,
+                                                        ServletWebRequest webRequest) {
+        Long userId = getUserId(user);
+        // 已过期条件依赖当前日期，日期变化后即使数据未变结果也可能不同
+        if (notModified(webRequest, userId, request.isOverdue() ? LocalDate.now() : null)) {
+            return null;
+        }
+        Slice<TodoResponse> slice = todoService.getTodosByFilter(userId, request);
+        return new ApiResponse<>(200, "获取成功",
+                new SliceResponse<>(slice.getContent(), request.getPage(), request.getSize(), slice.hasNext(), null));
+    }
+
+    /**
+     * 增量同步：获取 since 之后插入、更新和删除的待办事项
+     * 第一次不传 since 获取全部待办事项，之后传入上次返回的 nextToken；hasMore 为 true 时继续请求
+     */
+    @GetMapping("/changes")
+    public ApiResponse<TodoChangesResponse> getChanges(@RequestParam(required = false) String since,
+                                                       @RequestParam(required = false) Integer limit,
+                                                       @AuthenticationPrincipal AuthenticatedUser user,
+                                                       ServletWebRequest webRequest) {
+        Long userId = getUserId(user);
+        if (notModified(webRequest, userId, null)) {
+            return null;
+        }
+        TodoChangesResponse changes = todoService.getChanges(userId, since, limit);
+        return new ApiResponse<>(200, "获取成功", changes);
+    }
+
+    /**
+     * 订阅当前用户的待办事项变更（Server-Sent Events）
+     * 创建、更新、切换和删除在事务提交后推送；收到 resync 事件时说明有事件被合并，应通过 /todos/changes 补齐
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@AuthenticationPrincipal AuthenticatedUser user) {
+        return todoEventHub.subscribe(getUserId(user));
+    }
+
+    /**
+     * 导出当前用户的全部待办事项
+     * format 可选 ndjson（默认，每行一个 JSON 对象）或 csv；响应体在异步线程中边读边写，不在内存中组装
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(required = false) String format,
+                                                        @AuthenticationPrincipal AuthenticatedUser user) {
+        TodoFileFormat exportFormat = TodoFileFormat.fromParam(format);
+        Long userId = getUserId(user);
+        StreamingResponseBody body = out -> todoExportService.export(userId, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"todos." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    /**
+     * 导入待办事项
+     * Content-Type 为 application/x-ndjson 或 text/csv（首行为表头），请求体边读边解析，不在内存中缓存；
+     * 返回成功和失败的行数，单行失败不影响其他行
+     */
+    @PostMapping("/import")
+    public ApiResponse<TodoImportResult> importTodos(HttpServletRequest request,
+                                                     @AuthenticationPrincipal AuthenticatedUser user) throws IOException {
+        TodoFileFormat format = TodoFileFormat.fromContentType(request.getContentType());
+        TodoImportResult result = todoImportService.importTodos(getUserId(user), format, request.getInputStream());
+        return new ApiResponse<>(200, "导入完成", result);
+    }
+
+    /**
+     * 获取当前用户的待办事项统计
+     * 总数、完成数和各优先级数量来自计数表，与待办事项数量无关
+     */
+    @GetMapping("/stats")
+    public ApiResponse<TodoStatsResponse> getStats(@AuthenticationPrincipal AuthenticatedUser user) {
+        TodoStatsResponse stats = todoStatsService.getStats(getUserId(user));
+        return new ApiResponse<>(200, "获取成功", stats);
     }
 
     /**
      * 获取单个待办事项
      */
     @GetMapping("/{id}")
-    public ApiResponse<Todo> getTodo(@PathVariable Long id, Principal principal) {
-        Todo todo = todoService.getTodo(id, getUserIdFromPrincipal(principal));
+    public ApiResponse<Todo> getTodo(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser user,
+                                     ServletWebRequest webRequest) {
+        Long userId = getUserId(user);
+        if (notModified(webRequest, userId, null)) {
+            return null;
+        }
+        Todo todo = todoService.getTodo(id, userId);
         return new ApiResponse<>(200, "获取成功", todo);
     }
 
@@ -57,8 +218,8 @@ public class TodoController {
      * 更新待办事项
      */
     @PutMapping("/{id}")
-    public ApiResponse<Todo> updateTodo(@PathVariable Long id, @RequestBody TodoRequest request, Principal principal) {
-        Todo todo = todoService.updateTodo(id, request, getUserIdFromPrincipal(principal));
+    public ApiResponse<Todo> updateTodo(@PathVariable Long id, @RequestBody TodoRequest request, @AuthenticationPrincipal AuthenticatedUser user) {
+        Todo todo = todoService.updateTodo(id, request, getUserId(user));
         return new ApiResponse<>(200, "更新成功", todo);
     }
 
@@ -66,41 +227,97 @@ public class TodoController {
      * 删除待办事项
      */
     @DeleteMapping("/{id}")
-    public ApiResponse<Void> deleteTodo(@PathVariable Long id, Principal principal) {
-        todoService.deleteTodo(id, getUserIdFromPrincipal(principal));
+    public ApiResponse<Void> deleteTodo(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser user) {
+        todoService.deleteTodo(id, getUserId(user));
         return new ApiResponse<>(200, "删除成功", null);
     }
 
     /**
      * 切换待办事项完成状态
+     * 可选携带 version 参数，版本不一致时返回 409
      */
     @PostMapping("/{id}/toggle")
-    public ApiResponse<Todo> toggleTodo(@PathVariable Long id, Principal principal) {
-        Todo todo = todoService.toggleTodo(id, getUserIdFromPrincipal(principal));
+    public ApiResponse<Todo> toggleTodo(@PathVariable Long id,
+                                        @RequestParam(required = false) Long version,
+                                        @AuthenticationPrincipal AuthenticatedUser user) {
+        Todo todo = todoService.toggleTodo(id, getUserId(user), version);
         return new ApiResponse<>(200, "切换完成状态成功", todo);
     }
 
+    /**
+     * 批量操作待办事项
+     * 在一个事务中执行多个 CREATE/UPDATE/TOGGLE/DELETE 操作，并返回每个操作的结果
+     */
+    @PostMapping("/batch")
+    public ApiResponse<List<TodoBatchResult>> batch(@RequestBody List<TodoBatchOperation> operations,
+                                                    @AuthenticationPrincipal AuthenticatedUser user) {
+        List<TodoBatchResult> results = todoService.applyBatch(operations, getUserId(user));
+        return new ApiResponse<>(200, "批量操作完成", results);
+    }
+
     /**
      * 获取已过期待办事项
+     * 结果依赖当前日期，ETag 同时包含日期
      */
     @GetMapping("/overdue")
-    public ApiResponse<List<Todo>> getOverdueTodos(Principal principal) {
-        List<Todo> todos = todoService.getOverdueTodos(getUserIdFromPrincipal(principal));
+    public ApiResponse<List<TodoResponse>> getOverdueTodos(@AuthenticationPrincipal AuthenticatedUser user,
+                                                           ServletWebRequest webRequest) {
+        Long userId = getUserId(user);
+        long version = todoStatsService.getDataVersion(userId);
+        LocalDate today = LocalDate.now();
+        if (notModified(webRequest, userId, version, today)) {
+            return null;
+        }
+        List<TodoResponse> todos = todoService.getOverdueTodos(userId, version, today);
         return new ApiResponse<>(200, "获取成功", todos);
     }
 
     /**
-     * 从 Principal 中获取用户ID
-     * 通过用户名查找用户来获取用户ID
+     * 条件请求检查
+     * ETag 由用户ID、数据版本和可选的日期组成，同一 URL 下数据版本不变则响应内容不变；
+     * 版本在加载数据之前读取，期间提交的写操作只会让响应比 ETag 更新，下次请求版本变化后会重新获取；
+     * 读缓存的条目带有加载时的版本，提交后、清除前的请求不会从缓存拿到比 ETag 旧的内容
+     *
+     * @return true 表示 If-None-Match 命中，响应状态已设置为 304
+     */
+    private boolean notModified(ServletWebRequest webRequest, Long userId, LocalDate date) {
+        return notModified(webRequest, userId, todoStatsService.getDataVersion(userId), date);
+    }
+
+    /**
+     * 使用调用方已读取的数据版本做条件请求检查，同一个版本随后传给服务层作为读缓存的版本，不再重复查询
+     */
+    private boolean notModified(ServletWebRequest webRequest, Long userId, long version, LocalDate date) {
+        String etag = "\"u" + userId + "-v" + version + (date != null ? "-" + date : "") + "\"";
+        if (webRequest.getResponse() != null) {
+            // 允许客户端保存响应，但每次使用前都要带 If-None-Match 重新验证
+            webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL,
+                    CacheControl.noCache().cachePrivate().getHeaderValue());
+        }
+        return webRequest.checkNotModified(etag);
+    }
+
+    /**
+     * 分片列表的排序：按优先级排序时与 (user_id, priority_rank, due_date, id) 索引顺序一致
+     */
+    private Sort sliceSort(String sort) {
+        if (sort == null || sort.isBlank() || "created".equalsIgnoreCase(sort)) {
+            return Sort.by("createdAt", "id");
+        }
+        if ("priority".equalsIgnoreCase(sort)) {
+            return Sort.by("priority", "dueDate", "id");
+        }
+        throw new IllegalArgumentException("无效的排序方式: " + sort);
+    }
+
+    /**
+     * 从认证主体中获取用户ID
+     * 用户ID来自 JWT Claims，无需查询数据库
      */
-    private Long getUserIdFromPrincipal(Principal principal) {
-        if (principal == null || principal.getName() == null) {
+    private Long getUserId(AuthenticatedUser user) {
+        if (user == null || user.getId() == null) {
             throw new IllegalArgumentException("用户未登录");
         }
-        
-        // 通过用户名查找用户，获取用户ID
-        return authService.getUserByUsername(principal.getName())
-                .orElseThrow(() -> new IllegalArgumentException("用户不存在"))
-                .getId();
+        return user.getId();
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
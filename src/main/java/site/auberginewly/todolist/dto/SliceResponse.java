@@ -0,0 +1,22 @@
+package site.auberginewly.todolist.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 分片响应DTO
+ * 只返回当前页和是否有下一页，不执行 COUNT 查询；total 仅在请求 includeTotal 时返回
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SliceResponse<T> {
+    private List<T> items;
+    private int page;
+    private int size;
+    private boolean hasNext;
+    private Long total;
+}
@@ -0,0 +1,42 @@
+package site.auberginewly.todolist.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * 批量操作中的单个操作DTO
+ * CREATE 使用 title/description/priority/dueDate；UPDATE、TOGGLE、DELETE 需要 id，version 可选
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoBatchOperation {
+
+    /**
+     * 操作类型
+     */
+    public enum Type {
+        CREATE,  // 创建
+        UPDATE,  // 部分更新
+        TOGGLE,  // 切换完成状态
+        DELETE   // 删除
+    }
+
+    private Type op;
+    private Long id;
+    private Long version;
+    private String title;
+    private String description;
+    private String priority;
+    private LocalDate dueDate;
+
+    /**
+     * 转换为单条操作使用的请求DTO
+     */
+    public TodoRequest toTodoRequest() {
+        return new TodoRequest(title, description, priority, dueDate, version);
+    }
+}
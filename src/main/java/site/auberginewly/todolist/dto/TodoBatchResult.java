@@ -0,0 +1,35 @@
+package site.auberginewly.todolist.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpStatus;
+import site.auberginewly.todolist.entity.Todo;
+
+/**
+ * 批量操作中单个操作的结果DTO
+ * status 沿用 HTTP 状态码语义：200 成功，400 参数错误，404 不存在，409 版本冲突
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoBatchResult {
+    private int index;
+    private TodoBatchOperation.Type op;
+    private Long id;
+    private int status;
+    private String message;
+    private Todo todo;
+
+    public static TodoBatchResult success(int index, TodoBatchOperation.Type op, Todo todo) {
+        return new TodoBatchResult(index, op, todo.getId(), HttpStatus.OK.value(), null, todo);
+    }
+
+    public static TodoBatchResult deleted(int index, Long id) {
+        return new TodoBatchResult(index, TodoBatchOperation.Type.DELETE, id, HttpStatus.OK.value(), null, null);
+    }
+
+    public static TodoBatchResult failure(int index, TodoBatchOperation operation, HttpStatus status, String message) {
+        return new TodoBatchResult(index, operation.getOp(), operation.getId(), status.value(), message, null);
+    }
+}
@@ -0,0 +1,22 @@
+package site.auberginewly.todolist.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 增量同步响应DTO
+ * upserted 为同步位置之后插入或更新的待办事项（完整内容），deleted 为之后删除的待办事项ID；
+ * nextToken 为不透明字符串，保存后作为下一次请求的 since；hasMore 为 true 时应立即继续请求
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoChangesResponse {
+    private List<TodoResponse> upserted;
+    private List<Long> deleted;
+    private String nextToken;
+    private boolean hasMore;
+}
@@ -0,0 +1,29 @@
+package site.auberginewly.todolist.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 待办事项组合筛选请求DTO
+ * 绑定 GET /todos/filter 的查询参数，所有条件可任意组合
+ */
+@Data
+@NoArgsConstructor
+public class TodoFilterRequest {
+    private String status = "all";     // all、completed、incomplete
+    private List<String> priority;     // 可多选，如 priority=HIGH&priority=MEDIUM
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dueFrom;         // 截止日期下限（含）
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dueTo;           // 截止日期上限（含）
+    private boolean overdue;           // 只返回已过期（未完成且截止日期早于今天）的
+    private String q;                  // 在标题和描述中搜索
+    private String sort = "created";   // created、updated、dueDate、priority、title
+    private String direction = "asc";  // asc、desc
+    private int page = 0;
+    private int size = 20;
+}
@@ -0,0 +1,31 @@
+package site.auberginewly.todolist.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 导入结果DTO
+ * accepted/rejected 为成功和失败的行数；errors 列出失败的行及原因，最多返回配置的条数
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoImportResult {
+    private long accepted;
+    private long rejected;
+    private List<LineError> errors;
+
+    /**
+     * 单行错误，line 为记录在文件中的起始行号（从 1 开始，CSV 的表头是第 1 行，空行和单元格内的换行都计入）
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LineError {
+        private long line;
+        private String message;
+    }
+}
@@ -0,0 +1,19 @@
+package site.auberginewly.todolist.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 导入的一行待办事项
+ * 所有字段按字符串读取，格式错误作为该行的校验错误返回，而不是中止整个导入；
+ * 其他字段（例如导出文件中的 id、createdAt）忽略
+ */
+@Data
+@NoArgsConstructor
+public class TodoImportRow {
+    private String title;
+    private String description;
+    private String priority;
+    private String dueDate;
+    private String completed;
+}
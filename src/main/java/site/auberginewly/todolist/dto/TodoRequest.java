@@ -3,8 +3,6 @@ package site.auberginewly.todolist.dto;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import site.auberginewly.todolist.entity.Todo;
-
 import java.time.LocalDate;
 
 /**
@@ -16,6 +14,7 @@ import java.time.LocalDate;
 public class TodoRequest {
     private String title;
     private String description;
-    private String priority = Todo.Priority.MEDIUM.name();
+    private String priority;
     private LocalDate dueDate;
+    private Long version; // 可选，客户端持有的版本号，不一致时返回 409
 } 
\ No newline at end of file
@@ -1,8 +1,7 @@
 package site.auberginewly.todolist.dto;
 
 import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.Getter;
 import site.auberginewly.todolist.entity.Todo;
 
 import java.time.LocalDate;
@@ -10,21 +9,36 @@ import java.time.LocalDateTime;
 
 /**
  * 待办事项响应DTO
- * 用于返回待办事项信息
+ * 用于返回待办事项信息；不可变的只读模型，列表查询通过 JPQL 构造表达式直接投影为该类型，
+ * 不经过托管实体，列表中的 description 只包含前 {@link #LIST_DESCRIPTION_LENGTH} 个字符
  */
-@Data
-@NoArgsConstructor
+@Getter
 @AllArgsConstructor
 public class TodoResponse {
-    private Long id;
-    private String title;
-    private String description;
-    private Boolean completed;
-    private String priority;
-    private LocalDate dueDate;
-    private Long userId;
-    private LocalDateTime createdAt;
-    private LocalDateTime updatedAt;
+
+    /**
+     * 列表视图中描述的最大长度，完整描述通过 GET /todos/{id} 获取
+     */
+    public static final int LIST_DESCRIPTION_LENGTH = 200;
+
+    private final Long id;
+    private final String title;
+    private final String description;
+    private final Boolean completed;
+    private final String priority;
+    private final LocalDate dueDate;
+    private final Long userId;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    private final Long version;
+
+    /**
+     * JPQL 构造表达式使用的构造函数
+     */
+    public TodoResponse(Long id, String title, String description, Boolean completed, Todo.Priority priority,
+                        LocalDate dueDate, Long userId, LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+        this(id, title, description, completed, priority.name(), dueDate, userId, createdAt, updatedAt, version);
+    }
 
     /**
      * 从Todo实体转换为TodoResponse
@@ -35,11 +49,12 @@ public class TodoResponse {
             todo.getTitle(),
             todo.getDescription(),
             todo.getCompleted(),
-            todo.getPriority().name(),
+            todo.getPriority(),
             todo.getDueDate(),
             todo.getUserId(),
             todo.getCreatedAt(),
-            todo.getUpdatedAt()
+            todo.getUpdatedAt(),
+            todo.getVersion()
         );
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,19 @@
+package site.auberginewly.todolist.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * 待办事项统计响应DTO
+ */
+@Getter
+@AllArgsConstructor
+public class TodoStatsResponse {
+    private final long total;
+    private final long completed;
+    private final long incomplete;
+    private final long overdue;
+    private final Map<String, Long> byPriority;
+}
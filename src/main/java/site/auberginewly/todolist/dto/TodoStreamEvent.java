@@ -0,0 +1,38 @@
+package site.auberginewly.todolist.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import site.auberginewly.todolist.entity.Todo;
+import site.auberginewly.todolist.event.TodoChange;
+
+import java.util.Locale;
+
+/**
+ * 待办事项推送事件DTO
+ * 通过 GET /todos/stream 推送给客户端，只包含变更本身携带的字段：
+ * 标题仅在创建或标题变化时返回，删除事件只有 todoId；需要完整内容时通过增量同步获取
+ */
+@Getter
+@AllArgsConstructor
+public class TodoStreamEvent {
+
+    private final String type;
+    private final Long todoId;
+    private final String title;
+    private final String priority;
+    private final Boolean completed;
+
+    /**
+     * 从待办事项变更转换，type 为小写的变更类型（created、updated、toggled、deleted）
+     */
+    public static TodoStreamEvent from(TodoChange change) {
+        Todo.Priority priority = change.getPriorityAfter();
+        return new TodoStreamEvent(
+            change.getType().name().toLowerCase(Locale.ROOT),
+            change.getTodoId(),
+            change.getTitle(),
+            priority != null ? priority.name() : null,
+            change.getCompletedAfter()
+        );
+    }
+}
@@ -0,0 +1,22 @@
+package site.auberginewly.todolist.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * 优先级与数字等级的转换器
+ * HIGH=1、MEDIUM=2、LOW=3，存储为 SMALLINT；JPQL 中按优先级比较和排序时直接使用等级
+ */
+@Converter
+public class PriorityRankConverter implements AttributeConverter<Todo.Priority, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(Todo.Priority priority) {
+        return priority == null ? null : priority.getRank();
+    }
+
+    @Override
+    public Todo.Priority convertToEntityAttribute(Short rank) {
+        return rank == null ? null : Todo.Priority.fromRank(rank);
+    }
+}
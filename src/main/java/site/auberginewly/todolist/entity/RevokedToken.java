@@ -0,0 +1,39 @@
+package site.auberginewly.todolist.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * RevokedToken 已吊销的访问令牌
+ * 记录被吊销的 JWT ID，令牌本身过期后即可清理
+ */
+@Entity
+@Table(name = "revoked_tokens")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+
+    /**
+     * JWT ID（jti）
+     */
+    @Id
+    @Column(length = 36)
+    private String jti;
+
+    /**
+     * 对应访问令牌的过期时间
+     */
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    /**
+     * 吊销时间，其他实例据此增量同步
+     */
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -14,9 +15,19 @@ import java.time.LocalDateTime;
 /**
  * Todo 待办事项实体类
  * 用于存储用户的待办事项信息
+ * 使用 @DynamicUpdate，UPDATE 语句只包含实际变更的列
+ * 表结构和索引由 Flyway 迁移脚本（db/migration）创建，这里声明的索引与迁移保持一致
  */
 @Entity
-@Table(name = "todos")
+@Table(name = "todos", indexes = {
+        @Index(name = "idx_todos_user_created", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_todos_user_due", columnList = "user_id, due_date, id"),
+        @Index(name = "idx_todos_user_completed_due", columnList = "user_id, completed, due_date"),
+        @Index(name = "idx_todos_user_completed_created", columnList = "user_id, completed, created_at, id"),
+        @Index(name = "idx_todos_user_priority_due", columnList = "user_id, priority_rank, due_date, id"),
+        @Index(name = "idx_todos_user_change", columnList = "user_id, change_seq, id")
+})
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -24,10 +35,12 @@ import java.time.LocalDateTime;
 public class Todo {
 
     /**
-     * 主键ID，自动生成
+     * 主键ID，由序列生成
+     * 每次从序列预取 50 个ID（与 hibernate.jdbc.batch_size 一致），插入无需等待数据库返回主键，可按批次发送
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todos_seq")
+    @SequenceGenerator(name = "todos_seq", sequenceName = "todos_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -50,9 +63,10 @@ public class Todo {
 
     /**
      * 优先级枚举：HIGH（高）、MEDIUM（中）、LOW（低）
+     * 以数字等级存储在 priority_rank 列（1 最高），按该列排序即为优先级从高到低
      */
-    @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
+    @Convert(converter = PriorityRankConverter.class)
+    @Column(name = "priority_rank", nullable = false)
     private Priority priority = Priority.MEDIUM;
 
     /**
@@ -82,12 +96,50 @@ public class Todo {
     private LocalDateTime updatedAt;
 
     /**
-     * 优先级枚举
+     * 乐观锁版本号，每次更新自增，客户端可据此检测并发修改
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    /**
+     * 最后一次写入时的变更序号，取自该用户的数据版本，只增不减
+     * 增量同步按 (user_id, change_seq, id) 读取某个序号之后插入或更新的待办事项
+     */
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq = 0L;
+
+    /**
+     * 优先级枚举，声明顺序即等级顺序
      */
     public enum Priority {
-        HIGH,   // 高优先级
-        MEDIUM, // 中优先级
-        LOW     // 低优先级
+        HIGH(1),   // 高优先级
+        MEDIUM(2), // 中优先级
+        LOW(3);    // 低优先级
+
+        private final short rank;
+
+        Priority(int rank) {
+            this.rank = (short) rank;
+        }
+
+        public short getRank() {
+            return rank;
+        }
+
+        /**
+         * 根据等级获取优先级
+         *
+         * @throws IllegalArgumentException 如果等级无效
+         */
+        public static Priority fromRank(short rank) {
+            for (Priority priority : values()) {
+                if (priority.rank == rank) {
+                    return priority;
+                }
+            }
+            throw new IllegalArgumentException("无效的优先级等级: " + rank);
+        }
     }
 
     /**
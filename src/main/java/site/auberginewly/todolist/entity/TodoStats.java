@@ -0,0 +1,62 @@
+package site.auberginewly.todolist.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * TodoStats 用户待办事项统计实体类
+ * 每个用户一行计数，随待办事项的写操作在同一事务中增量更新，并由定时任务校正；
+ * 同一行还保存用户的数据版本，用于列表和详情响应的 ETag
+ */
+@Entity
+@Table(name = "todo_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoStats {
+
+    /**
+     * 用户ID，主键
+     */
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    /**
+     * 待办事项总数
+     */
+    @Column(nullable = false)
+    private long total;
+
+    /**
+     * 已完成数量
+     */
+    @Column(nullable = false)
+    private long completed;
+
+    /**
+     * 高优先级数量
+     */
+    @Column(name = "high_count", nullable = false)
+    private long highCount;
+
+    /**
+     * 中优先级数量
+     */
+    @Column(name = "medium_count", nullable = false)
+    private long mediumCount;
+
+    /**
+     * 低优先级数量
+     */
+    @Column(name = "low_count", nullable = false)
+    private long lowCount;
+
+    /**
+     * 数据版本，每次待办事项写操作加一，只增不减
+     */
+    @Column(name = "data_version", nullable = false)
+    private long dataVersion;
+}
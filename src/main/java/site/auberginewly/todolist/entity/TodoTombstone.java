@@ -0,0 +1,63 @@
+package site.auberginewly.todolist.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * TodoTombstone 待办事项删除记录实体类
+ * 待办事项被物理删除后留下一行记录，增量同步据此把删除通知给离线客户端；
+ * 与 todos.change_seq 共用同一个用户内的变更序号
+ */
+@Entity
+@Table(name = "todo_tombstones", indexes = {
+        @Index(name = "idx_todo_tombstones_user_change", columnList = "user_id, change_seq, todo_id"),
+        @Index(name = "idx_todo_tombstones_deleted", columnList = "deleted_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoTombstone implements Persistable<Long> {
+
+    /**
+     * 被删除的待办事项ID，主键（待办事项ID由序列生成，不会被复用）
+     */
+    @Id
+    @Column(name = "todo_id")
+    private Long todoId;
+
+    /**
+     * 用户ID
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * 删除时的变更序号
+     */
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
+
+    /**
+     * 删除时间
+     */
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    @Override
+    public Long getId() {
+        return todoId;
+    }
+
+    /**
+     * 每个待办事项只会被删除一次，保存时直接 INSERT，不先 SELECT 判断是否存在
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,71 @@
+package site.auberginewly.todolist.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+
+/**
+ * TodoTrigram 待办事项搜索索引实体类
+ * 每行记录某个用户的一个三字符片段出现在哪条待办事项的标题或描述中，
+ * 主键 (user_id, trigram, todo_id) 即倒排索引：按用户和片段定位到包含它的待办事项
+ */
+@Entity
+@Table(name = "todo_trigrams", indexes = {
+        @Index(name = "idx_todo_trigrams_todo", columnList = "todo_id")
+})
+@IdClass(TodoTrigram.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoTrigram implements Persistable<TodoTrigram.Key> {
+
+    /**
+     * 用户ID
+     */
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    /**
+     * 三字符片段（已转为小写）
+     */
+    @Id
+    @Column(length = 12)
+    private String trigram;
+
+    /**
+     * 待办事项ID
+     */
+    @Id
+    @Column(name = "todo_id")
+    private Long todoId;
+
+    @Override
+    public Key getId() {
+        return new Key(userId, trigram, todoId);
+    }
+
+    /**
+     * 索引行只会整体删除后重新插入，保存时直接 INSERT，不先 SELECT 判断是否存在
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+
+    /**
+     * 复合主键
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private String trigram;
+        private Long todoId;
+    }
+}
@@ -0,0 +1,64 @@
+package site.auberginewly.todolist.event;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import site.auberginewly.todolist.entity.Todo;
+
+/**
+ * 单个待办事项的变更
+ * 记录变更前后影响统计的字段（优先级、完成状态）；创建时没有变更前状态，删除时没有变更后状态。
+ * 标题或描述发生变化时同时携带变更后的文本，供搜索索引使用
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class TodoChange {
+
+    /**
+     * 变更类型
+     */
+    public enum Type {
+        CREATED,  // 创建
+        UPDATED,  // 字段更新
+        TOGGLED,  // 切换完成状态
+        DELETED   // 删除
+    }
+
+    private final Type type;
+    private final Long todoId;
+    private final Todo.Priority priorityBefore;
+    private final Boolean completedBefore;
+    private final Todo.Priority priorityAfter;
+    private final Boolean completedAfter;
+    private final boolean textChanged;
+    private final String title;
+    private final String description;
+
+    public static TodoChange created(Todo todo) {
+        return new TodoChange(Type.CREATED, todo.getId(), null, null, todo.getPriority(), todo.getCompleted(),
+                true, todo.getTitle(), todo.getDescription());
+    }
+
+    public static TodoChange updated(Todo todo, Todo.Priority priorityBefore, boolean textChanged) {
+        return new TodoChange(Type.UPDATED, todo.getId(), priorityBefore, todo.getCompleted(),
+                todo.getPriority(), todo.getCompleted(), textChanged,
+                textChanged ? todo.getTitle() : null, textChanged ? todo.getDescription() : null);
+    }
+
+    public static TodoChange toggled(Todo todo) {
+        return new TodoChange(Type.TOGGLED, todo.getId(), todo.getPriority(), !todo.getCompleted(),
+                todo.getPriority(), todo.getCompleted(), false, null, null);
+    }
+
+    public static TodoChange deleted(Long todoId, Todo.Priority priority, Boolean completed) {
+        return new TodoChange(Type.DELETED, todoId, priority, completed, null, null, true, null, null);
+    }
+
+    public boolean hasBefore() {
+        return priorityBefore != null;
+    }
+
+    public boolean hasAfter() {
+        return priorityAfter != null;
+    }
+}
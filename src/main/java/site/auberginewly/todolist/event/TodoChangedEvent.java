@@ -0,0 +1,18 @@
+package site.auberginewly.todolist.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 待办事项变更事件
+ * 由 TodoService 在写事务内发布，一次请求（包括批量操作）对应一个事件；
+ * 同步监听器在同一事务中执行，需要在提交后执行的监听器使用 @TransactionalEventListener
+ */
+@Getter
+@AllArgsConstructor
+public class TodoChangedEvent {
+    private final Long userId;
+    private final List<TodoChange> changes;
+}
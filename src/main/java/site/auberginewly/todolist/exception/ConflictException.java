@@ -0,0 +1,16 @@
+package site.auberginewly.todolist.exception;
+
+/**
+ * 冲突异常
+ * 当客户端提交的版本号与服务端当前版本不一致时抛出此异常
+ */
+public class ConflictException extends RuntimeException {
+    
+    public ConflictException(String message) {
+        super(message);
+    }
+    
+    public ConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,16 @@
+package site.auberginewly.todolist.exception;
+
+/**
+ * 服务繁忙异常
+ * 当服务过载、请求被准入控制拒绝时抛出此异常
+ */
+public class ServiceUnavailableException extends RuntimeException {
+    
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+    
+    public ServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,12 @@
+package site.auberginewly.todolist.exception;
+
+/**
+ * 同步位置过期异常
+ * 增量同步的位置早于删除记录的保留期限，之后的删除可能已被清理，客户端需要全量同步
+ */
+public class SyncExpiredException extends RuntimeException {
+
+    public SyncExpiredException(String message) {
+        super(message);
+    }
+}
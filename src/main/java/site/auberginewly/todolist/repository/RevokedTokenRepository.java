@@ -0,0 +1,40 @@
+package site.auberginewly.todolist.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import site.auberginewly.todolist.entity.RevokedToken;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * RevokedToken 数据访问层接口
+ * 负责已吊销访问令牌的存储
+ */
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    /**
+     * 查询尚未过期的已吊销令牌ID，用于重建内存中的吊销过滤器
+     */
+    @Query("SELECT r.jti FROM RevokedToken r WHERE r.expiresAt > :now")
+    List<String> findActiveJtis(@Param("now") LocalDateTime now);
+
+    /**
+     * 查询指定时间之后吊销且尚未过期的令牌ID，用于把其他实例的吊销同步到本实例的过滤器
+     */
+    @Query("SELECT r.jti FROM RevokedToken r WHERE r.revokedAt >= :since AND r.expiresAt > :now")
+    List<String> findJtisRevokedSince(@Param("since") LocalDateTime since, @Param("now") LocalDateTime now);
+
+    /**
+     * 删除已过期的吊销记录
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,25 @@
+package site.auberginewly.todolist.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import site.auberginewly.todolist.entity.Todo;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * 待办事项组合筛选条件
+ * 为 null 或空集合的条件不参与筛选；参与筛选的条件组合（不含具体取值）和排序共同决定查询的形态
+ */
+@Getter
+@AllArgsConstructor
+public class TodoFilter {
+    private final Long userId;
+    private final Boolean completed;            // 完成状态
+    private final Set<Todo.Priority> priorities; // 优先级
+    private final LocalDate dueFrom;            // 截止日期下限（含）
+    private final LocalDate dueTo;              // 截止日期上限（含）
+    private final LocalDate overdueBefore;      // 未完成且截止日期早于该日期
+    private final Collection<Long> ids;         // 限定在搜索命中的待办事项中
+}
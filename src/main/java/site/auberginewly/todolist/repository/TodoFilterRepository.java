@@ -0,0 +1,21 @@
+package site.auberginewly.todolist.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import site.auberginewly.todolist.dto.TodoResponse;
+
+/**
+ * 待办事项组合筛选查询
+ * 由 TodoRepository 继承，实现见 {@link TodoFilterRepositoryImpl}
+ */
+public interface TodoFilterRepository {
+
+    /**
+     * 按组合条件分片查询待办事项摘要，只多取一条判断是否有下一页，不执行 COUNT 查询
+     *
+     * @param filter 筛选条件
+     * @param pageable 分页和排序，排序字段需由调用方限定在白名单内
+     * @return 当前分片
+     */
+    Slice<TodoResponse> findByFilter(TodoFilter filter, Pageable pageable);
+}
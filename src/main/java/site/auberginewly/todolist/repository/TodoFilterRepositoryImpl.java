@@ -0,0 +1,130 @@
+package site.auberginewly.todolist.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import site.auberginewly.todolist.dto.TodoResponse;
+
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * 待办事项组合筛选查询实现
+ * 每种查询形态（参与筛选的条件 + 排序）只拼接一次 JPQL，条件取值全部通过参数绑定；
+ * 之后同一形态的请求复用同一个字符串，Hibernate 的查询计划缓存（hibernate.query.plan_cache_enabled，默认开启）
+ * 按字符串复用解析结果和生成的 SQL。缓存的是不可变的字符串而不是 Criteria 查询树：查询树是可变对象，
+ * 多个线程同时用它创建查询并不安全。条件组合和排序白名单都是有限的，缓存的形态数量有上限
+ */
+public class TodoFilterRepositoryImpl implements TodoFilterRepository {
+
+    private static final String USER_ID = "userId";
+    private static final String COMPLETED = "completed";
+    private static final String PRIORITIES = "priorities";
+    private static final String DUE_FROM = "dueFrom";
+    private static final String DUE_TO = "dueTo";
+    private static final String OVERDUE_BEFORE = "overdueBefore";
+    private static final String IDS = "ids";
+
+    /**
+     * 排序字段直接写入 JPQL，只接受简单的属性名
+     */
+    private static final Pattern PROPERTY = Pattern.compile("[A-Za-z][A-Za-z0-9]*");
+
+    /**
+     * 查询形态，不包含具体的条件取值
+     */
+    private record Shape(boolean completed, boolean priorities, boolean dueFrom, boolean dueTo,
+                         boolean overdue, boolean ids, Sort sort) {
+
+        static Shape of(TodoFilter filter, Sort sort) {
+            return new Shape(filter.getCompleted() != null,
+                    filter.getPriorities() != null && !filter.getPriorities().isEmpty(),
+                    filter.getDueFrom() != null, filter.getDueTo() != null,
+                    filter.getOverdueBefore() != null, filter.getIds() != null, sort);
+        }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final Map<Shape, String> queries = new ConcurrentHashMap<>();
+
+    @Override
+    public Slice<TodoResponse> findByFilter(TodoFilter filter, Pageable pageable) {
+        Shape shape = Shape.of(filter, pageable.getSort());
+        TypedQuery<TodoResponse> query = entityManager.createQuery(
+                queries.computeIfAbsent(shape, TodoFilterRepositoryImpl::build), TodoResponse.class);
+
+        query.setParameter(USER_ID, filter.getUserId());
+        if (shape.completed()) {
+            query.setParameter(COMPLETED, filter.getCompleted());
+        }
+        if (shape.priorities()) {
+            query.setParameter(PRIORITIES, filter.getPriorities());
+        }
+        if (shape.dueFrom()) {
+            query.setParameter(DUE_FROM, filter.getDueFrom());
+        }
+        if (shape.dueTo()) {
+            query.setParameter(DUE_TO, filter.getDueTo());
+        }
+        if (shape.overdue()) {
+            query.setParameter(OVERDUE_BEFORE, filter.getOverdueBefore());
+        }
+        if (shape.ids()) {
+            query.setParameter(IDS, filter.getIds());
+        }
+
+        // 多取一条用于判断是否还有下一页
+        int size = pageable.getPageSize();
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(size + 1);
+        List<TodoResponse> rows = query.getResultList();
+        boolean hasNext = rows.size() > size;
+        return new SliceImpl<>(hasNext ? rows.subList(0, size) : rows, pageable, hasNext);
+    }
+
+    /**
+     * 拼接某一形态的 JPQL，投影直接使用 TodoRepository.SUMMARY_SELECT
+     *
+     * @throws IllegalArgumentException 如果排序字段不是简单的属性名
+     */
+    private static String build(Shape shape) {
+        StringBuilder jpql = new StringBuilder(TodoRepository.SUMMARY_SELECT)
+                .append("WHERE t.userId = :").append(USER_ID);
+        if (shape.completed()) {
+            jpql.append(" AND t.completed = :").append(COMPLETED);
+        }
+        if (shape.priorities()) {
+            jpql.append(" AND t.priority IN :").append(PRIORITIES);
+        }
+        if (shape.dueFrom()) {
+            jpql.append(" AND t.dueDate >= :").append(DUE_FROM);
+        }
+        if (shape.dueTo()) {
+            jpql.append(" AND t.dueDate <= :").append(DUE_TO);
+        }
+        if (shape.overdue()) {
+            jpql.append(" AND t.completed = false AND t.dueDate < :").append(OVERDUE_BEFORE);
+        }
+        if (shape.ids()) {
+            jpql.append(" AND t.id IN :").append(IDS);
+        }
+
+        StringJoiner orders = new StringJoiner(", ", " ORDER BY ", "").setEmptyValue("");
+        for (Sort.Order order : shape.sort()) {
+            if (!PROPERTY.matcher(order.getProperty()).matches()) {
+                throw new IllegalArgumentException("无效的排序字段: " + order.getProperty());
+            }
+            orders.add("t." + order.getProperty() + (order.isAscending() ? " ASC" : " DESC"));
+        }
+        return jpql.append(orders).toString();
+    }
+}
@@ -1,28 +1,207 @@
 package site.auberginewly.todolist.repository;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import site.auberginewly.todolist.dto.TodoResponse;
 import site.auberginewly.todolist.entity.Todo;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 /**
  * Todo 数据访问层接口
  * 负责待办事项相关的数据库操作
  */
 @Repository
-public interface TodoRepository extends JpaRepository<Todo, Long> {
+public interface TodoRepository extends JpaRepository<Todo, Long>, TodoFilterRepository {
+
+    /**
+     * 列表查询的投影：直接构造只读的 TodoResponse，不创建托管实体，描述只截取前若干字符
+     */
+    String SUMMARY_SELECT = "SELECT new site.auberginewly.todolist.dto.TodoResponse(" +
+            "t.id, t.title, SUBSTRING(t.description, 1, " + TodoResponse.LIST_DESCRIPTION_LENGTH + "), " +
+            "t.completed, t.priority, t.dueDate, t.userId, t.createdAt, t.updatedAt, t.version) FROM Todo t ";
+
+    /**
+     * 根据ID和用户ID查找待办事项
+     * 归属校验在同一条 SQL 中完成，不属于该用户时与不存在一样返回空
+     */
+    Optional<Todo> findByIdAndUserId(Long id, Long userId);
+
+    /**
+     * 只包含统计所需字段的投影
+     */
+    interface StateView {
+        Todo.Priority getPriority();
+        Boolean getCompleted();
+    }
+
+    /**
+     * 根据ID和用户ID读取优先级和完成状态
+     * 删除前用于计算统计的变化，不加载整行
+     */
+    Optional<StateView> findStateByIdAndUserId(Long id, Long userId);
+
+    /**
+     * 根据一组ID批量查找属于该用户的待办事项
+     * 用于批量操作时一次性加载所有目标
+     */
+    List<Todo> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
+
+    /**
+     * 根据ID和用户ID删除待办事项
+     * 单条 DELETE 语句，无需先加载实体
+     *
+     * @return 受影响的行数，0 表示不存在或不属于该用户
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Todo t WHERE t.id = :id AND t.userId = :userId")
+    int deleteByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    /**
+     * 判断待办事项是否存在且属于该用户
+     */
+    boolean existsByIdAndUserId(Long id, Long userId);
+
+    /**
+     * 原子切换完成状态
+     * 在 SQL 中取反并递增版本号，同时写入变更序号，并发切换不会丢失更新
+     *
+     * @return 受影响的行数，0 表示不存在或不属于该用户
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Todo t SET t.completed = CASE WHEN t.completed = true THEN false ELSE true END, " +
+           "t.updatedAt = :now, t.version = t.version + 1, t.changeSeq = :changeSeq " +
+           "WHERE t.id = :id AND t.userId = :userId")
+    int toggleCompleted(@Param("id") Long id, @Param("userId") Long userId, @Param("now") LocalDateTime now,
+                        @Param("changeSeq") long changeSeq);
+
+    /**
+     * 原子切换完成状态，仅当版本号与客户端持有的一致时生效
+     *
+     * @return 受影响的行数，0 表示不存在、不属于该用户或版本不一致
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Todo t SET t.completed = CASE WHEN t.completed = true THEN false ELSE true END, " +
+           "t.updatedAt = :now, t.version = t.version + 1, t.changeSeq = :changeSeq " +
+           "WHERE t.id = :id AND t.userId = :userId AND t.version = :version")
+    int toggleCompletedIfVersion(@Param("id") Long id, @Param("userId") Long userId,
+                                 @Param("version") Long version, @Param("now") LocalDateTime now,
+                                 @Param("changeSeq") long changeSeq);
 
     /**
      * 根据用户ID查找该用户的所有待办事项
      */
     List<Todo> findByUserId(Long userId);
 
+    /**
+     * 导出：按 (createdAt, id) 排序的第一页，返回完整的实体（描述不截断），实体以只读方式加载
+     */
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    @Query("SELECT t FROM Todo t WHERE t.userId = :userId ORDER BY t.createdAt ASC, t.id ASC")
+    List<Todo> findExportPageByCreatedAt(@Param("userId") Long userId, Limit limit);
+
+    /**
+     * 导出：按 (createdAt, id) 排序，从上一页最后一行之后继续读取
+     * 每页是一次独立的短查询，两页之间不占用数据库连接
+     */
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    @Query("SELECT t FROM Todo t WHERE t.userId = :userId AND t.createdAt >= :createdAt " +
+           "AND (t.createdAt > :createdAt OR t.id > :id) ORDER BY t.createdAt ASC, t.id ASC")
+    List<Todo> findExportPageByCreatedAtAfter(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Long id, Limit limit);
+
+    /**
+     * 增量同步：按 (changeSeq, id) 排序，读取同步位置之后、上限序号之内插入或更新的待办事项
+     * 返回完整的实体（描述不截断），读取的行数只与变更数量有关，与列表大小无关
+     */
+    @Query("SELECT t FROM Todo t WHERE t.userId = :userId AND t.changeSeq >= :changeSeq " +
+           "AND t.changeSeq <= :upTo AND (t.changeSeq > :changeSeq OR t.id > :id) " +
+           "ORDER BY t.changeSeq ASC, t.id ASC")
+    List<Todo> findChangesAfter(@Param("userId") Long userId, @Param("changeSeq") long changeSeq,
+                                @Param("id") long id, @Param("upTo") long upTo, Limit limit);
+
+    /**
+     * 游标分页：按 (createdAt, id) 排序的第一页
+     */
+    @Query(SUMMARY_SELECT + "WHERE t.userId = :userId ORDER BY t.createdAt ASC, t.id ASC")
+    List<TodoResponse> findFirstPageByCreatedAt(@Param("userId") Long userId, Limit limit);
+
+    /**
+     * 游标分页：按 (createdAt, id) 排序，从游标位置之后继续读取
+     * 冗余的 createdAt >= 条件让数据库直接在 (user_id, created_at, id) 索引上定位起点
+     */
+    @Query(SUMMARY_SELECT + "WHERE t.userId = :userId AND t.createdAt >= :createdAt " +
+           "AND (t.createdAt > :createdAt OR t.id > :id) ORDER BY t.createdAt ASC, t.id ASC")
+    List<TodoResponse> findPageByCreatedAtAfter(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") Long id, Limit limit);
+
+    /**
+     * 游标分页：按 (dueDate, id) 排序的第一页（仅包含有截止日期的待办事项）
+     */
+    @Query(SUMMARY_SELECT + "WHERE t.userId = :userId AND t.dueDate IS NOT NULL ORDER BY t.dueDate ASC, t.id ASC")
+    List<TodoResponse> findFirstPageByDueDate(@Param("userId") Long userId, Limit limit);
+
+    /**
+     * 游标分页：按 (dueDate, id) 排序，从游标位置之后继续读取
+     */
+    @Query(SUMMARY_SELECT + "WHERE t.userId = :userId AND t.dueDate >= :dueDate " +
+           "AND (t.dueDate > :dueDate OR t.id > :id) ORDER BY t.dueDate ASC, t.id ASC")
+    List<TodoResponse> findPageByDueDateAfter(@Param("userId") Long userId, @Param("dueDate") LocalDate dueDate,
+                                              @Param("id") Long id, Limit limit);
+
+    /**
+     * 游标分页：没有截止日期的待办事项，按 id 排序，排在有截止日期的之后
+     */
+    @Query(SUMMARY_SELECT + "WHERE t.userId = :userId AND t.dueDate IS NULL AND t.id > :id ORDER BY t.id ASC")
+    List<TodoResponse> findPageWithoutDueDateAfter(@Param("userId") Long userId, @Param("id") Long id, Limit limit);
+
+    /**
+     * 按优先级排序的游标分页：某一优先级中有截止日期部分的第一页
+     * 以下三个查询都在 (user_id, priority_rank, due_date, id) 索引上做范围扫描
+     */
+    @Query(SUMMARY_SELECT + "WHERE t.userId = :userId AND t.priority = :priority AND t.dueDate IS NOT NULL " +
+           "ORDER BY t.dueDate ASC, t.id ASC")
+    List<TodoResponse> findFirstPageByPriorityAndDueDate(@Param("userId") Long userId,
+                                                         @Param("priority") Todo.Priority priority, Limit limit);
+
+    /**
+     * 按优先级排序的游标分页：某一优先级中有截止日期部分，(due_date, id) 大于游标位置的记录
+     */
+    @Query(SUMMARY_SELECT + "WHERE t.userId = :userId AND t.priority = :priority AND t.dueDate >= :dueDate " +
+           "AND (t.dueDate > :dueDate OR t.id > :id) ORDER BY t.dueDate ASC, t.id ASC")
+    List<TodoResponse> findPageByPriorityAndDueDateAfter(@Param("userId") Long userId,
+                                                         @Param("priority") Todo.Priority priority,
+                                                         @Param("dueDate") LocalDate dueDate,
+                                                         @Param("id") Long id, Limit limit);
+
+    /**
+     * 按优先级排序的游标分页：某一优先级中没有截止日期、id 大于游标位置的记录
+     */
+    @Query(SUMMARY_SELECT + "WHERE t.userId = :userId AND t.priority = :priority AND t.dueDate IS NULL " +
+           "AND t.id > :id ORDER BY t.id ASC")
+    List<TodoResponse> findPageByPriorityWithoutDueDateAfter(@Param("userId") Long userId,
+                                                             @Param("priority") Todo.Priority priority,
+                                                             @Param("id") Long id, Limit limit);
+
     /**
      * 根据用户ID和完成状态查找待办事项
      */
@@ -38,6 +217,72 @@ public interface TodoRepository extends JpaRepository<Todo, Long> {
      */
     Page<Todo> findByUserId(Long userId, Pageable pageable);
 
+    /**
+     * 根据用户ID查找待办事项（分片，不执行 COUNT 查询）
+     */
+    @Query(SUMMARY_SELECT + "WHERE t.userId = :userId")
+    Slice<TodoResponse> findSliceByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * 根据用户ID和完成状态查找待办事项（分片，不执行 COUNT 查询）
+     */
+    @Query(SUMMARY_SELECT + "WHERE t.userId = :userId AND t.completed = :completed")
+    Slice<TodoResponse> findSliceByUserIdAndCompleted(@Param("userId") Long userId, @Param("completed") Boolean completed,
+                                                      Pageable pageable);
+
+    /**
+     * 搜索标题或描述包含搜索词的待办事项ID，标题命中的排在前面
+     * 候选是索引中包含全部片段的待办事项（每个片段一次索引范围扫描），LIKE 校验在同一条 SQL 中按主键逐行完成，
+     * 不预先截断候选，匹配的行不会因为候选过多而丢失
+     *
+     * @param count 片段数量，候选必须全部命中
+     * @param pattern 已转为小写并转义（反斜杠）的 LIKE 模式
+     */
+    @Query("SELECT t.id FROM Todo t WHERE t.userId = :userId AND t.id IN (" +
+           "SELECT g.todoId FROM TodoTrigram g WHERE g.userId = :userId AND g.trigram IN :trigrams " +
+           "GROUP BY g.todoId HAVING COUNT(g.todoId) = :count) " +
+           "AND (LOWER(t.title) LIKE :pattern ESCAPE '\\' OR LOWER(t.description) LIKE :pattern ESCAPE '\\') " +
+           "ORDER BY CASE WHEN LOWER(t.title) LIKE :pattern ESCAPE '\\' THEN 0 ELSE 1 END, t.id DESC")
+    List<Long> searchIdsByTrigrams(@Param("userId") Long userId, @Param("trigrams") Collection<String> trigrams,
+                                   @Param("count") long count, @Param("pattern") String pattern, Limit limit);
+
+    /**
+     * 不足三个字符的搜索词：候选是存在以给定前缀开头的片段的待办事项，其余同 {@link #searchIdsByTrigrams}
+     *
+     * @param prefix 片段前缀的 LIKE 模式
+     */
+    @Query("SELECT t.id FROM Todo t WHERE t.userId = :userId AND t.id IN (" +
+           "SELECT g.todoId FROM TodoTrigram g WHERE g.userId = :userId AND g.trigram LIKE :prefix ESCAPE '\\') " +
+           "AND (LOWER(t.title) LIKE :pattern ESCAPE '\\' OR LOWER(t.description) LIKE :pattern ESCAPE '\\') " +
+           "ORDER BY CASE WHEN LOWER(t.title) LIKE :pattern ESCAPE '\\' THEN 0 ELSE 1 END, t.id DESC")
+    List<Long> searchIdsByTrigramPrefix(@Param("userId") Long userId, @Param("prefix") String prefix,
+                                        @Param("pattern") String pattern, Limit limit);
+
+    /**
+     * 搜索索引回填使用的投影：只包含切分片段所需的字段
+     */
+    interface TextView {
+        Long getId();
+        Long getUserId();
+        String getTitle();
+        String getDescription();
+    }
+
+    /**
+     * 按ID顺序读取一批还没有任何索引行的待办事项
+     * 用于回填启用片段索引之前已存在的数据，按主键范围扫描，索引行的存在性通过 todo_id 索引判断
+     */
+    @Query("SELECT t.id AS id, t.userId AS userId, t.title AS title, t.description AS description FROM Todo t " +
+           "WHERE t.id > :afterId AND NOT EXISTS (SELECT g.todoId FROM TodoTrigram g WHERE g.todoId = t.id) " +
+           "ORDER BY t.id")
+    List<TextView> findUnindexedAfter(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * 根据一组ID读取属于该用户的待办事项摘要
+     */
+    @Query(SUMMARY_SELECT + "WHERE t.userId = :userId AND t.id IN :ids")
+    List<TodoResponse> findSummariesByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
     /**
      * 根据用户ID和标题模糊搜索待办事项（忽略大小写）
      */
@@ -50,6 +295,7 @@ public interface TodoRepository extends JpaRepository<Todo, Long> {
 
     /**
      * 根据用户ID和优先级查找待办事项
+     * 优先级以数字等级存储，条件落在 (user_id, priority_rank, due_date, id) 索引上
      */
     List<Todo> findByUserIdAndPriority(Long userId, Todo.Priority priority);
 
@@ -64,6 +310,27 @@ public interface TodoRepository extends JpaRepository<Todo, Long> {
     @Query("SELECT t FROM Todo t WHERE t.userId = :userId AND t.completed = false AND t.dueDate < :today")
     List<Todo> findOverdueTodos(@Param("userId") Long userId, @Param("today") LocalDate today);
 
+    /**
+     * 查找用户的所有已过期待办事项（列表投影）
+     */
+    @Query(SUMMARY_SELECT + "WHERE t.userId = :userId AND t.completed = false AND t.dueDate < :today " +
+           "ORDER BY t.dueDate ASC, t.id ASC")
+    List<TodoResponse> findOverdueTodoSummaries(@Param("userId") Long userId, @Param("today") LocalDate today);
+
+    /**
+     * 统计用户已过期的待办事项数量
+     * 由 (user_id, completed, due_date) 索引的范围扫描完成
+     */
+    long countByUserIdAndCompletedFalseAndDueDateBefore(Long userId, LocalDate today);
+
+    /**
+     * 按优先级和完成状态分组统计，一次查询得到所有计数
+     *
+     * @return 每行为 [priority, completed, count]
+     */
+    @Query("SELECT t.priority, t.completed, COUNT(t) FROM Todo t WHERE t.userId = :userId GROUP BY t.priority, t.completed")
+    List<Object[]> countByPriorityAndCompleted(@Param("userId") Long userId);
+
     /**
      * 统计用户的所有待办事项数量
      */
@@ -0,0 +1,62 @@
+package site.auberginewly.todolist.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import site.auberginewly.todolist.entity.TodoStats;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * TodoStats 数据访问层接口
+ * 负责用户待办事项计数的增量更新和校正
+ */
+@Repository
+public interface TodoStatsRepository extends JpaRepository<TodoStats, Long> {
+
+    /**
+     * 增量更新计数，单条 UPDATE 语句
+     *
+     * @return 受影响的行数，0 表示该用户还没有计数行
+     */
+    @Modifying
+    @Query("UPDATE TodoStats s SET s.total = s.total + :total, s.completed = s.completed + :completed, " +
+           "s.highCount = s.highCount + :high, s.mediumCount = s.mediumCount + :medium, s.lowCount = s.lowCount + :low " +
+           "WHERE s.userId = :userId")
+    int applyDelta(@Param("userId") Long userId, @Param("total") long total, @Param("completed") long completed,
+                   @Param("high") long high, @Param("medium") long medium, @Param("low") long low);
+
+    /**
+     * 递增数据版本，同时锁定计数行直到事务结束
+     *
+     * @return 受影响的行数，0 表示该用户还没有计数行
+     */
+    @Modifying
+    @Query("UPDATE TodoStats s SET s.dataVersion = s.dataVersion + 1 WHERE s.userId = :userId")
+    int incrementDataVersion(@Param("userId") Long userId);
+
+    /**
+     * 按主键只读取数据版本，不加载计数行
+     */
+    @Query("SELECT s.dataVersion FROM TodoStats s WHERE s.userId = :userId")
+    Optional<Long> findDataVersion(@Param("userId") Long userId);
+
+    /**
+     * 加锁读取计数行，校正期间阻塞并发的增量更新
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM TodoStats s WHERE s.userId = :userId")
+    Optional<TodoStats> findForUpdate(@Param("userId") Long userId);
+
+    /**
+     * 按用户ID顺序分批读取需要校正的用户
+     */
+    @Query("SELECT s.userId FROM TodoStats s WHERE s.userId > :afterUserId ORDER BY s.userId ASC")
+    List<Long> findUserIdsAfter(@Param("afterUserId") Long afterUserId, Limit limit);
+}
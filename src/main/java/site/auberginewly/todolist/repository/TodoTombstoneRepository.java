@@ -0,0 +1,39 @@
+package site.auberginewly.todolist.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import site.auberginewly.todolist.entity.TodoTombstone;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * TodoTombstone 数据访问层接口
+ * 负责记录和读取已删除的待办事项，供增量同步使用
+ */
+@Repository
+public interface TodoTombstoneRepository extends JpaRepository<TodoTombstone, Long> {
+
+    /**
+     * 增量同步：按 (changeSeq, todoId) 排序，读取同步位置之后、上限序号之内的删除记录
+     * 冗余的 changeSeq >= 条件让数据库直接在 (user_id, change_seq, todo_id) 索引上定位起点
+     */
+    @Query("SELECT d FROM TodoTombstone d WHERE d.userId = :userId AND d.changeSeq >= :changeSeq " +
+           "AND d.changeSeq <= :upTo AND (d.changeSeq > :changeSeq OR d.todoId > :id) " +
+           "ORDER BY d.changeSeq ASC, d.todoId ASC")
+    List<TodoTombstone> findChangesAfter(@Param("userId") Long userId, @Param("changeSeq") long changeSeq,
+                                         @Param("id") long id, @Param("upTo") long upTo, Limit limit);
+
+    /**
+     * 删除早于指定时间的删除记录
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TodoTombstone d WHERE d.deletedAt < :cutoff")
+    int deleteDeletedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
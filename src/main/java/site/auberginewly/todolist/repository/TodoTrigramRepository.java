@@ -0,0 +1,25 @@
+package site.auberginewly.todolist.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import site.auberginewly.todolist.entity.TodoTrigram;
+
+import java.util.Collection;
+
+/**
+ * TodoTrigram 数据访问层接口
+ * 负责搜索索引的维护；按索引搜索的查询见 TodoRepository
+ */
+@Repository
+public interface TodoTrigramRepository extends JpaRepository<TodoTrigram, TodoTrigram.Key> {
+
+    /**
+     * 删除待办事项的全部索引行
+     */
+    @Modifying
+    @Query("DELETE FROM TodoTrigram g WHERE g.todoId IN :todoIds")
+    int deleteByTodoIdIn(@Param("todoIds") Collection<Long> todoIds);
+}
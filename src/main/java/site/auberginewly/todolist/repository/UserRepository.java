@@ -1,9 +1,14 @@
 package site.auberginewly.todolist.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import site.auberginewly.todolist.entity.User;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 /**
@@ -30,4 +35,32 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return true 如果用户名存在，false 如果不存在
      */
     boolean existsByUsername(String username);
-} 
\ No newline at end of file
+
+    /**
+     * 更新用户密码
+     * 只更新密码和更新时间两列，无需先加载实体
+     *
+     * @param id 用户ID
+     * @param password 加密后的新密码
+     * @param updatedAt 更新时间
+     * @return 受影响的行数
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE User u SET u.password = :password, u.updatedAt = :updatedAt WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password, @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * 重新哈希后更新密码
+     * 仅当当前哈希未被修改时才更新，不改变更新时间
+     *
+     * @param id 用户ID
+     * @param currentHash 当前哈希
+     * @param newHash 新哈希
+     * @return 受影响的行数
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :id AND u.password = :currentHash")
+    int updatePasswordIfUnchanged(@Param("id") Long id, @Param("currentHash") String currentHash, @Param("newHash") String newHash);
+}
@@ -0,0 +1,25 @@
+package site.auberginewly.todolist.search;
+
+import org.springframework.context.annotation.Conditional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 仅当 app.todos.search.engine 解析为指定的搜索引擎时注册该组件
+ * 未配置或配置为 auto 时按数据源决定，见 {@link OnSearchEngineCondition}
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Conditional(OnSearchEngineCondition.class)
+public @interface ConditionalOnSearchEngine {
+
+    /**
+     * 搜索引擎名称：trigram 或 postgres
+     */
+    String value();
+}
@@ -0,0 +1,53 @@
+package site.auberginewly.todolist.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+import java.util.Map;
+
+/**
+ * 搜索引擎选择条件
+ * app.todos.search.engine 显式配置为 trigram 或 postgres 时按配置选择；
+ * 未配置或配置为 auto 时，数据源是 PostgreSQL 则使用 postgres（迁移脚本已经在该数据库上建好 pg_trgm 索引），
+ * 否则使用 trigram。这样 PostgreSQL 上不会在 GIN 索引之外再维护一份片段索引表，也不会启动回填
+ */
+class OnSearchEngineCondition extends SpringBootCondition {
+
+    static final String PROPERTY = "app.todos.search.engine";
+    static final String TRIGRAM = "trigram";
+    static final String POSTGRES = "postgres";
+    static final String AUTO = "auto";
+
+    @Override
+    public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        Map<String, Object> attributes = metadata.getAnnotationAttributes(ConditionalOnSearchEngine.class.getName());
+        String required = (String) attributes.get("value");
+        String resolved = resolve(context.getEnvironment());
+        return resolved.equals(required)
+                ? ConditionOutcome.match("search engine is " + resolved)
+                : ConditionOutcome.noMatch("search engine is " + resolved + ", not " + required);
+    }
+
+    /**
+     * 解析实际使用的搜索引擎
+     *
+     * @throws IllegalArgumentException 如果配置值不是 trigram、postgres 或 auto
+     */
+    static String resolve(Environment environment) {
+        String engine = environment.getProperty(PROPERTY, AUTO).trim().toLowerCase();
+        return switch (engine) {
+            case TRIGRAM, POSTGRES -> engine;
+            case AUTO -> isPostgres(environment.getProperty("spring.datasource.url")) ? POSTGRES : TRIGRAM;
+            default -> throw new IllegalArgumentException(
+                    PROPERTY + " 只能是 trigram、postgres 或 auto，当前为 " + engine);
+        };
+    }
+
+    private static boolean isPostgres(String url) {
+        return url != null && DatabaseDriver.fromJdbcUrl(url) == DatabaseDriver.POSTGRESQL;
+    }
+}
@@ -0,0 +1,32 @@
+package site.auberginewly.todolist.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 基于 PostgreSQL pg_trgm 的搜索引擎
+ * 标题和描述上的 GIN 三字符片段索引（见迁移脚本 db/migration/postgresql）可以直接服务 LIKE '%词%'，
+ * 由数据库维护，写操作无需额外处理；
+ * 结果按标题命中、标题相似度排序
+ */
+@Component
+@ConditionalOnSearchEngine("postgres")
+@RequiredArgsConstructor
+public class PostgresTrigramSearchEngine implements TodoSearchEngine {
+
+    private static final String SEARCH_SQL =
+            "SELECT id FROM todos WHERE user_id = ? AND (lower(title) LIKE ? OR lower(description) LIKE ?) " +
+            "ORDER BY (lower(title) LIKE ?) DESC, similarity(lower(title), ?) DESC, id DESC LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Long> search(Long userId, String term, int limit) {
+        String normalized = Trigrams.normalize(term);
+        String pattern = Trigrams.containsPattern(normalized);
+        return jdbcTemplate.queryForList(SEARCH_SQL, Long.class, userId, pattern, pattern, pattern, normalized, limit);
+    }
+}
@@ -0,0 +1,22 @@
+package site.auberginewly.todolist.search;
+
+import java.util.List;
+
+/**
+ * 待办事项全文搜索引擎
+ * 在标题和描述中按子串（忽略大小写）搜索，由 app.todos.search.engine 选择实现：
+ * trigram（任意数据库上由应用维护的三字符片段索引）或 postgres（PostgreSQL 的 pg_trgm GIN 索引），
+ * 默认 auto：数据源是 PostgreSQL 时使用 postgres，否则使用 trigram
+ */
+public interface TodoSearchEngine {
+
+    /**
+     * 搜索用户的待办事项
+     *
+     * @param userId 用户ID
+     * @param term 搜索词（已去除首尾空白）
+     * @param limit 最多返回的数量
+     * @return 匹配的待办事项ID，按相关度排序：标题命中的排在仅描述命中的之前，其次按ID倒序
+     */
+    List<Long> search(Long userId, String term, int limit);
+}
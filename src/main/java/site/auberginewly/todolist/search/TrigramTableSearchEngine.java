@@ -0,0 +1,165 @@
+package site.auberginewly.todolist.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import site.auberginewly.todolist.entity.TodoTrigram;
+import site.auberginewly.todolist.event.TodoChange;
+import site.auberginewly.todolist.event.TodoChangedEvent;
+import site.auberginewly.todolist.repository.TodoRepository;
+import site.auberginewly.todolist.repository.TodoTrigramRepository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 基于三字符片段表的搜索引擎
+ * 写操作发布的 TodoChangedEvent 在同一事务中更新 todo_trigrams；搜索时按片段索引找出候选，
+ * 并在同一条 SQL 中只对候选行做 LIKE 校验和排序，开销与候选数量有关，而与用户的待办事项总数无关。
+ * 启动时为还没有索引行的待办事项（启用片段索引之前的数据）回填索引
+ */
+@Component
+@ConditionalOnSearchEngine("trigram")
+@Slf4j
+public class TrigramTableSearchEngine implements TodoSearchEngine {
+
+    private static final int BACKFILL_ATTEMPTS = 3;
+
+    private final TodoTrigramRepository todoTrigramRepository;
+    private final TodoRepository todoRepository;
+    private final TransactionTemplate transaction;
+
+    @Value("${app.todos.search.backfill-batch-size:500}")
+    private int backfillBatchSize;
+
+    public TrigramTableSearchEngine(TodoTrigramRepository todoTrigramRepository,
+                                    TodoRepository todoRepository,
+                                    PlatformTransactionManager transactionManager) {
+        this.todoTrigramRepository = todoTrigramRepository;
+        this.todoRepository = todoRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> search(Long userId, String term, int limit) {
+        String normalized = Trigrams.normalize(term);
+        Set<String> trigrams = Trigrams.query(normalized);
+        String pattern = Trigrams.containsPattern(normalized);
+
+        // 片段全部命中是子串匹配的必要条件；不足三个字符的搜索词按片段前缀查找
+        return trigrams.isEmpty()
+                ? todoRepository.searchIdsByTrigramPrefix(userId, Trigrams.prefixPattern(normalized), pattern,
+                        Limit.of(limit))
+                : todoRepository.searchIdsByTrigrams(userId, trigrams, trigrams.size(), pattern, Limit.of(limit));
+    }
+
+    /**
+     * 启动完成后回填索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        backfill();
+    }
+
+    /**
+     * 为没有任何索引行的待办事项建立索引，按ID顺序分批、每批一个事务
+     * 与并发写入撞上同一待办事项时该批主键冲突回滚，重新读取后已被写入方索引的行不再出现；
+     * 回填读到旧文本而写入方随后修改时，多出的片段只会增加候选，LIKE 校验会把它过滤掉
+     *
+     * @return 回填的待办事项数量
+     */
+    public long backfill() {
+        long indexed = 0;
+        long afterId = 0;
+        int failures = 0;
+        while (true) {
+            long from = afterId;
+            List<TodoRepository.TextView> batch;
+            try {
+                batch = transaction.execute(status -> indexBatch(from));
+            } catch (DataIntegrityViolationException ex) {
+                if (++failures >= BACKFILL_ATTEMPTS) {
+                    log.warn("Trigram backfill aborted after id {}: {}", from, ex.getMessage());
+                    break;
+                }
+                continue;
+            }
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            failures = 0;
+            indexed += batch.size();
+            afterId = batch.get(batch.size() - 1).getId();
+        }
+        if (indexed > 0) {
+            log.info("Trigram index backfilled for {} todos", indexed);
+        }
+        return indexed;
+    }
+
+    /**
+     * 读取一批未索引的待办事项并写入索引行
+     */
+    private List<TodoRepository.TextView> indexBatch(long afterId) {
+        List<TodoRepository.TextView> batch = todoRepository.findUnindexedAfter(afterId, Limit.of(backfillBatchSize));
+        if (batch.isEmpty()) {
+            return batch;
+        }
+        List<TodoTrigram> rows = new ArrayList<>();
+        for (TodoRepository.TextView todo : batch) {
+            for (String trigram : Trigrams.index(todo.getTitle(), todo.getDescription())) {
+                rows.add(new TodoTrigram(todo.getUserId(), trigram, todo.getId()));
+            }
+        }
+        todoTrigramRepository.saveAll(rows);
+        todoTrigramRepository.flush();
+        return batch;
+    }
+
+    /**
+     * 在写事务中同步更新索引：标题或描述变化的待办事项先删除旧片段再写入新片段，删除的待办事项只删除片段
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onTodoChanged(TodoChangedEvent event) {
+        // 同一批次中同一待办事项可能有多次变更，只有最后一次决定索引内容
+        Map<Long, TodoChange> latest = new LinkedHashMap<>();
+        for (TodoChange change : event.getChanges()) {
+            if (change.isTextChanged()) {
+                latest.put(change.getTodoId(), change);
+            }
+        }
+        if (latest.isEmpty()) {
+            return;
+        }
+
+        List<Long> stale = new ArrayList<>();
+        List<TodoTrigram> rows = new ArrayList<>();
+        for (TodoChange change : latest.values()) {
+            if (change.getType() != TodoChange.Type.CREATED) {
+                stale.add(change.getTodoId());
+            }
+            if (change.hasAfter()) {
+                for (String trigram : Trigrams.index(change.getTitle(), change.getDescription())) {
+                    rows.add(new TodoTrigram(event.getUserId(), trigram, change.getTodoId()));
+                }
+            }
+        }
+        if (!stale.isEmpty()) {
+            todoTrigramRepository.deleteByTodoIdIn(stale);
+        }
+        todoTrigramRepository.saveAll(rows);
+    }
+}
@@ -0,0 +1,74 @@
+package site.auberginewly.todolist.search;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 三字符片段工具类
+ * 文本先转为小写，按 Unicode 码点切分；索引时在末尾补两个填充字符，
+ * 使得文本中任意长度为 1~3 的子串都是某个片段的前缀，短搜索词可以按前缀查找
+ */
+final class Trigrams {
+
+    static final int SIZE = 3;
+    static final String PADDING = "\u0001\u0001";
+
+    private Trigrams() {
+    }
+
+    static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 提取待办事项标题和描述的索引片段，两个字段分别切分，不产生跨字段的片段
+     */
+    static Set<String> index(String title, String description) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        addPadded(trigrams, title);
+        addPadded(trigrams, description);
+        return trigrams;
+    }
+
+    /**
+     * 提取搜索词的片段，不足三个字符时返回空集合
+     */
+    static Set<String> query(String normalizedTerm) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        addWindows(trigrams, normalizedTerm);
+        return trigrams;
+    }
+
+    /**
+     * 包含搜索词的 LIKE 模式，使用反斜杠转义
+     */
+    static String containsPattern(String normalizedTerm) {
+        return "%" + escape(normalizedTerm) + "%";
+    }
+
+    /**
+     * 以搜索词开头的 LIKE 模式，使用反斜杠转义
+     */
+    static String prefixPattern(String normalizedTerm) {
+        return escape(normalizedTerm) + "%";
+    }
+
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static void addPadded(Set<String> trigrams, String text) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        addWindows(trigrams, normalize(text) + PADDING);
+    }
+
+    private static void addWindows(Set<String> trigrams, String text) {
+        int[] codePoints = text.codePoints().toArray();
+        for (int i = 0; i + SIZE <= codePoints.length; i++) {
+            trigrams.add(new String(codePoints, i, SIZE));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package site.auberginewly.todolist.security;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 轻量级认证主体
+ * 直接由 JWT Claims 构建，携带用户ID、用户名和权限，认证过程无需查询数据库
+ */
+@Getter
+public final class AuthenticatedUser implements Principal {
+
+    private final Long id;
+    private final String username;
+    private final List<GrantedAuthority> authorities;
+
+    /**
+     * 当前访问令牌的 ID 和过期时间，用于注销时吊销令牌；未经令牌认证时为空
+     */
+    private final String tokenId;
+    private final Instant tokenExpiresAt;
+
+    public AuthenticatedUser(Long id, String username, Collection<? extends GrantedAuthority> authorities) {
+        this(id, username, authorities, null, null);
+    }
+
+    public AuthenticatedUser(Long id, String username, Collection<? extends GrantedAuthority> authorities,
+                             String tokenId, Instant tokenExpiresAt) {
+        this.id = id;
+        this.username = username;
+        this.authorities = Collections.unmodifiableList(new ArrayList<>(authorities));
+        this.tokenId = tokenId;
+        this.tokenExpiresAt = tokenExpiresAt;
+    }
+
+    /**
+     * 由角色名列表构建认证主体
+     */
+    public static AuthenticatedUser of(Long id, String username, Collection<String> roles) {
+        return new AuthenticatedUser(id, username, toAuthorities(roles));
+    }
+
+    /**
+     * 由角色名列表和令牌信息构建认证主体
+     */
+    public static AuthenticatedUser of(Long id, String username, Collection<String> roles,
+                                       String tokenId, Instant tokenExpiresAt) {
+        return new AuthenticatedUser(id, username, toAuthorities(roles), tokenId, tokenExpiresAt);
+    }
+
+    private static List<GrantedAuthority> toAuthorities(Collection<String> roles) {
+        List<GrantedAuthority> authorities = new ArrayList<>(roles.size());
+        for (String role : roles) {
+            authorities.add(new SimpleGrantedAuthority(role));
+        }
+        return authorities;
+    }
+
+    /**
+     * 权限名列表，用于写入 JWT
+     */
+    public List<String> getRoles() {
+        List<String> roles = new ArrayList<>(authorities.size());
+        for (GrantedAuthority authority : authorities) {
+            roles.add(authority.getAuthority());
+        }
+        return roles;
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    @Override
+    public String toString() {
+        return username;
+    }
+}
@@ -0,0 +1,81 @@
+package site.auberginewly.todolist.security;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 按目标耗时校准的 BCrypt 编码器
+ * 启动时测量本机哈希耗时并选出不超过目标耗时的最大 cost；
+ * 存储的 cost 低于当前 cost 时判定为需要重新哈希；更高的 cost 保持不变，
+ * 避免在较慢的机器上重新校准后把已有的强哈希降级
+ */
+@Slf4j
+public class CalibratedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("\\A\\$2([ayb])?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+
+    /**
+     * 校准时使用的样例密码
+     */
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+
+    @Getter
+    private final int strength;
+
+    public CalibratedBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    /**
+     * 校准 BCrypt cost
+     * cost 每加 1 耗时翻倍：从最小 cost 开始测量，预计下一级仍不超过目标耗时时才继续上调
+     *
+     * @param targetLatency 单次哈希的目标耗时
+     * @param minStrength 最小 cost（安全下限）
+     * @param maxStrength 最大 cost
+     * @return 校准后的编码器
+     */
+    public static CalibratedBCryptPasswordEncoder calibrate(Duration targetLatency, int minStrength, int maxStrength) {
+        long targetNanos = targetLatency.toNanos();
+        // 预热一次，避免首次调用的类加载和 JIT 干扰测量
+        new BCryptPasswordEncoder(4).encode(SAMPLE_PASSWORD);
+
+        int strength = minStrength;
+        long elapsed = measure(strength);
+        while (strength < maxStrength && elapsed * 2 <= targetNanos) {
+            strength++;
+            elapsed = measure(strength);
+        }
+        log.info("BCrypt cost calibrated to {} ({} ms per hash, target {} ms)",
+                strength, elapsed / 1_000_000, targetLatency.toMillis());
+        return new CalibratedBCryptPasswordEncoder(strength);
+    }
+
+    /**
+     * 存储的 cost 低于当前 cost 时需要重新哈希
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        if (!matcher.matches()) {
+            return false;
+        }
+        return Integer.parseInt(matcher.group(2)) < strength;
+    }
+
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long start = System.nanoTime();
+        encoder.encode(SAMPLE_PASSWORD);
+        return System.nanoTime() - start;
+    }
+}
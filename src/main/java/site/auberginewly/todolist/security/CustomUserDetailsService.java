@@ -7,9 +7,8 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import site.auberginewly.todolist.repository.UserRepository;
-
-import java.util.Collections;
+import site.auberginewly.todolist.cache.CachedUser;
+import site.auberginewly.todolist.cache.UserCache;
 
 /**
  * 自定义 UserDetailsService
@@ -19,17 +18,17 @@ import java.util.Collections;
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
-    private final UserRepository userRepository;
+    private final UserCache userCache;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        site.auberginewly.todolist.entity.User user = userRepository.findByUsername(username)
+        CachedUser user = userCache.get(username)
                 .orElseThrow(() -> new UsernameNotFoundException("用户不存在: " + username));
 
         return new User(
                 user.getUsername(),
-                user.getPassword(),
-                Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))
+                user.getPasswordHash(),
+                user.getAuthorities().stream().map(SimpleGrantedAuthority::new).toList()
         );
     }
 } 
\ No newline at end of file
@@ -2,15 +2,20 @@ package site.auberginewly.todolist.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
 
 /**
  * JWT Token 提供者
@@ -20,46 +25,129 @@ import java.util.Date;
 @Slf4j
 public class JwtTokenProvider {
 
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLES = "roles";
+
     @Value("${app.jwt.secret:defaultSecretKey}")
     private String jwtSecret;
 
-    @Value("${app.jwt.expiration:86400000}")
-    private int jwtExpirationMs; // 默认24小时
+    @Value("${app.jwt.expiration:900000}")
+    private int jwtExpirationMs; // 默认15分钟，过期后使用刷新令牌换取新令牌
+
+    /**
+     * 签名密钥，启动时构建一次
+     */
+    private SecretKey signingKey;
+
+    /**
+     * 预构建的解析器，JwtParser 不可变且线程安全，可在所有请求间共享
+     */
+    private JwtParser jwtParser;
+
+    /**
+     * 初始化签名密钥和解析器
+     */
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
 
     /**
      * 生成 JWT Token
+     * 用户ID和权限作为 Claims 写入 Token，后续请求可直接由 Token 构建认证主体
      * 
-     * @param authentication Spring Security 认证对象
+     * @param user 认证主体
      * @return JWT Token 字符串
      */
-    public String generateToken(Authentication authentication) {
-        UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
-        
+    public String generateToken(AuthenticatedUser user) {
         Instant now = Instant.now();
         Instant expiryDate = now.plusMillis(jwtExpirationMs);
         
         return Jwts.builder()
-                .setSubject(userPrincipal.getUsername())
-                .setIssuedAt(Date.from(now))
-                .setExpiration(Date.from(expiryDate))
-                .signWith(getSigningKey())
+                .id(UUID.randomUUID().toString())
+                .subject(user.getUsername())
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_ROLES, user.getRoles())
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(expiryDate))
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * 访问令牌有效期（秒）
+     */
+    public long getExpirationSeconds() {
+        return jwtExpirationMs / 1000L;
+    }
+
+    /**
+     * 由已验证的 Claims 构建认证主体
+     *
+     * @param claims 已验证的 Claims
+     * @return 认证主体，Claims 缺少用户ID时（旧版 Token）返回 null
+     */
+    public AuthenticatedUser toAuthenticatedUser(Claims claims) {
+        Object userId = claims.get(CLAIM_USER_ID);
+        if (!(userId instanceof Number)) {
+            return null;
+        }
+        List<String> roles = new ArrayList<>();
+        Object rawRoles = claims.get(CLAIM_ROLES);
+        if (rawRoles instanceof Collection<?>) {
+            for (Object role : (Collection<?>) rawRoles) {
+                roles.add(String.valueOf(role));
+            }
+        }
+        Date expiration = claims.getExpiration();
+        return AuthenticatedUser.of(((Number) userId).longValue(), claims.getSubject(), roles,
+                claims.getId(), expiration != null ? expiration.toInstant() : null);
+    }
+
+    /**
+     * 解析并验证 JWT Token
+     * 每个 Token 只解析、验签一次，成功返回 Claims，失败返回失败原因
+     *
+     * @param token JWT Token
+     * @return 校验结果
+     */
+    public TokenValidationResult parseAndValidate(String token) {
+        if (!StringUtils.hasText(token)) {
+            return TokenValidationResult.invalid(TokenValidationResult.Failure.EMPTY);
+        }
+        try {
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            return TokenValidationResult.valid(claims);
+        } catch (ExpiredJwtException ex) {
+            log.debug("Expired JWT token");
+            return TokenValidationResult.invalid(TokenValidationResult.Failure.EXPIRED);
+        } catch (io.jsonwebtoken.security.SecurityException ex) {
+            log.warn("Invalid JWT signature");
+            return TokenValidationResult.invalid(TokenValidationResult.Failure.INVALID_SIGNATURE);
+        } catch (MalformedJwtException ex) {
+            log.warn("Invalid JWT token");
+            return TokenValidationResult.invalid(TokenValidationResult.Failure.MALFORMED);
+        } catch (UnsupportedJwtException ex) {
+            log.warn("Unsupported JWT token");
+            return TokenValidationResult.invalid(TokenValidationResult.Failure.UNSUPPORTED);
+        } catch (JwtException | IllegalArgumentException ex) {
+            log.warn("JWT token could not be parsed: {}", ex.getMessage());
+            return TokenValidationResult.invalid(TokenValidationResult.Failure.MALFORMED);
+        }
+    }
+
     /**
      * 从 Token 中获取用户名
      * 
      * @param token JWT Token
-     * @return 用户名
+     * @return 用户名，Token 无效时返回 null
      */
     public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        
-        return claims.getSubject();
+        TokenValidationResult result = parseAndValidate(token);
+        return result.isValid() ? result.getClaims().getSubject() : null;
     }
 
     /**
@@ -69,52 +157,16 @@ public class JwtTokenProvider {
      * @return true 如果 Token 有效，false 如果无效
      */
     public boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (SecurityException ex) {
-            log.error("Invalid JWT signature");
-        } catch (MalformedJwtException ex) {
-            log.error("Invalid JWT token");
-        } catch (ExpiredJwtException ex) {
-            log.error("Expired JWT token");
-        } catch (UnsupportedJwtException ex) {
-            log.error("Unsupported JWT token");
-        } catch (IllegalArgumentException ex) {
-            log.error("JWT claims string is empty");
-        }
-        return false;
+        return parseAndValidate(token).isValid();
     }
 
     /**
      * 检查 Token 是否过期
      * 
      * @param token JWT Token
-     * @return true 如果已过期，false 如果未过期
+     * @return true 如果已过期或无效，false 如果未过期
      */
     public boolean isTokenExpired(String token) {
-        try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-            
-            return claims.getExpiration().before(Date.from(Instant.now()));
-        } catch (Exception e) {
-            return true;
-        }
-    }
-
-    /**
-     * 获取签名密钥
-     * 
-     * @return 签名密钥
-     */
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        return !parseAndValidate(token).isValid();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,246 @@
+package site.auberginewly.todolist.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import site.auberginewly.todolist.exception.ErrorResponse;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 登录限流过滤器
+ * 在 /auth/login 之前按 IP 和用户名分别做令牌桶限流，
+ * 被拒绝的请求直接返回 429，不会触发任何数据库查询或 BCrypt 计算。
+ * IP 取 getRemoteAddr()：直连时是对端地址；部署在反向代理之后时需要开启 server.forward-headers-strategy=native，
+ * 由 Tomcat 只对来自受信任代理（server.tomcat.remoteip.internal-proxies）的请求按 X-Forwarded-For 还原客户端地址，
+ * 否则所有客户端共用代理地址的同一个桶；不信任的对端伪造的转发头会被忽略
+ */
+@Component
+@Slf4j
+public class LoginThrottleFilter extends OncePerRequestFilter {
+
+    static final String LOGIN_PATH = "/auth/login";
+
+    /**
+     * 登录请求体上限，正常的登录请求远小于此值
+     */
+    private static final int MAX_BODY_BYTES = 8 * 1024;
+
+    private final TokenBucketStore ipBuckets;
+    private final TokenBucketStore usernameBuckets;
+    private final ObjectMapper objectMapper;
+    private final Counter rejectedByIp;
+    private final Counter rejectedByUsername;
+
+    public LoginThrottleFilter(ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.security.login-throttle.ip.capacity:20}") int ipCapacity,
+                               @Value("${app.security.login-throttle.ip.refill-period:3s}") Duration ipRefillPeriod,
+                               @Value("${app.security.login-throttle.username.capacity:5}") int usernameCapacity,
+                               @Value("${app.security.login-throttle.username.refill-period:1m}") Duration usernameRefillPeriod,
+                               @Value("${app.security.login-throttle.max-keys:100000}") int maxKeys,
+                               @Value("${app.security.login-throttle.stripes:16}") int stripes) {
+        this.objectMapper = objectMapper;
+        this.ipBuckets = new TokenBucketStore(ipCapacity, ipRefillPeriod, maxKeys, stripes);
+        this.usernameBuckets = new TokenBucketStore(usernameCapacity, usernameRefillPeriod, maxKeys, stripes);
+        this.rejectedByIp = Counter.builder("login.throttle.rejected")
+                .tag("key", "ip")
+                .register(meterRegistry);
+        this.rejectedByUsername = Counter.builder("login.throttle.rejected")
+                .tag("key", "username")
+                .register(meterRegistry);
+        Gauge.builder("login.throttle.keys", ipBuckets, TokenBucketStore::size)
+                .tag("key", "ip")
+                .register(meterRegistry);
+        Gauge.builder("login.throttle.keys", usernameBuckets, TokenBucketStore::size)
+                .tag("key", "username")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !(HttpMethod.POST.matches(request.getMethod()) && LOGIN_PATH.equals(request.getServletPath()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        // 经过受信任代理时已由 Tomcat 替换为客户端地址，见类注释
+        long waitNanos = ipBuckets.tryAcquire(request.getRemoteAddr());
+        if (waitNanos > 0) {
+            rejectedByIp.increment();
+            reject(request, response, waitNanos);
+            return;
+        }
+
+        // 缓存请求体以读取用户名，下游仍可正常读取
+        byte[] body = readBody(request);
+        if (body == null) {
+            response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value());
+            return;
+        }
+
+        String username = extractUsername(body);
+        if (username != null) {
+            waitNanos = usernameBuckets.tryAcquire(username);
+            if (waitNanos > 0) {
+                rejectedByUsername.increment();
+                reject(request, response, waitNanos);
+                return;
+            }
+        }
+
+        filterChain.doFilter(new CachedBodyRequest(request, body), response);
+    }
+
+    /**
+     * 定期清理令牌已补满的键，保证内存有界
+     */
+    @Scheduled(fixedDelayString = "${app.security.login-throttle.eviction-interval:60000}")
+    public void evictIdleBuckets() {
+        int removed = ipBuckets.evictIdle() + usernameBuckets.evictIdle();
+        if (removed > 0) {
+            log.debug("Evicted {} idle login throttle buckets", removed);
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Too Many Requests",
+                "登录尝试过于频繁，请稍后重试",
+                "uri=" + request.getRequestURI()
+        );
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+
+    /**
+     * 读取请求体，超过上限时返回 null
+     */
+    private static byte[] readBody(HttpServletRequest request) throws IOException {
+        InputStream in = request.getInputStream();
+        byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+        return body.length > MAX_BODY_BYTES ? null : body;
+    }
+
+    /**
+     * 从 JSON 请求体中提取用户名，解析失败时返回 null（交给控制器返回参数错误）
+     */
+    private String extractUsername(byte[] body) {
+        try {
+            JsonNode username = objectMapper.readTree(body).path("username");
+            if (!username.isTextual() || username.asText().isBlank()) {
+                return null;
+            }
+            return username.asText().trim().toLowerCase(Locale.ROOT);
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * 可重复读取请求体的请求包装类
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * 请求体已全部缓存在内存中，注册时立即通知数据可读，读完后通知读取结束
+                 */
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    if (readListener == null) {
+                        throw new NullPointerException("readListener");
+                    }
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            readListener.onAllDataRead();
+                        }
+                    } catch (IOException | RuntimeException ex) {
+                        readListener.onError(ex);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package site.auberginewly.todolist.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import site.auberginewly.todolist.entity.RevokedToken;
+import site.auberginewly.todolist.repository.RevokedTokenRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 已吊销访问令牌登记处
+ * 吊销记录持久化到数据库，内存中维护一个布隆过滤器：绝大多数令牌在过滤器中直接判定为"未吊销"，
+ * 只有命中过滤器时才查询数据库确认。启动时和定期从数据库重建过滤器，顺带清理过期记录。
+ * 多实例部署时，其他实例的吊销每隔 sync-interval 从数据库增量同步到本实例的过滤器，
+ * 吊销在所有实例上生效的延迟不超过一个同步间隔
+ */
+@Component
+@Slf4j
+public class RevokedTokenRegistry {
+
+    /**
+     * 增量同步时向前多读的时间，覆盖各实例之间的时钟偏差和吊销记录提交的延迟；重复加入过滤器没有影响
+     */
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final int expectedInsertions;
+    private final double falsePositiveRate;
+
+    private volatile TokenBloomFilter filter;
+
+    /**
+     * 重建期间新增的吊销同时写入正在构建的过滤器，避免丢失
+     */
+    private volatile TokenBloomFilter building;
+
+    /**
+     * 上次从数据库读取吊销记录的时间，在 rebuildLock 内读写
+     */
+    private LocalDateTime lastSyncedAt;
+
+    /**
+     * 串行化重建和增量同步；两者都会访问数据库，使用 ReentrantLock 而不是 synchronized，
+     * 虚拟线程在等待数据库时可以让出载体线程
+     */
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public RevokedTokenRegistry(RevokedTokenRepository revokedTokenRepository,
+                                @Value("${app.security.revocation.expected-insertions:100000}") int expectedInsertions,
+                                @Value("${app.security.revocation.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new TokenBloomFilter(expectedInsertions, falsePositiveRate);
+    }
+
+    /**
+     * 判断令牌是否已被吊销
+     * 热路径只做一次布隆过滤器查询；命中时才回查数据库排除误判
+     *
+     * @param jti JWT ID
+     * @return true 如果已吊销
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        return revokedTokenRepository.existsById(jti);
+    }
+
+    /**
+     * 吊销访问令牌
+     *
+     * @param jti JWT ID
+     * @param expiresAt 令牌过期时间
+     */
+    public void revoke(String jti, Instant expiresAt) {
+        if (jti == null) {
+            return;
+        }
+        revokedTokenRepository.save(new RevokedToken(jti, LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()),
+                LocalDateTime.now()));
+        add(jti);
+    }
+
+    /**
+     * 启动完成后从数据库重建过滤器
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * 定期读取上次同步之后吊销的令牌（包括其他实例吊销的）加入过滤器
+     * 查询走 revoked_at 索引，只返回最近吊销的少量记录
+     */
+    @Scheduled(fixedDelayString = "${app.security.revocation.sync-interval:5000}",
+               initialDelayString = "${app.security.revocation.sync-interval:5000}")
+    public void sync() {
+        rebuildLock.lock();
+        try {
+            if (lastSyncedAt == null) {
+                // 尚未完成首次重建
+                return;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            List<String> recent = revokedTokenRepository.findJtisRevokedSince(lastSyncedAt.minus(SYNC_OVERLAP), now);
+            for (String jti : recent) {
+                filter.add(jti);
+            }
+            lastSyncedAt = now;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * 定期清理过期记录并重建过滤器，使过滤器只包含未过期的令牌
+     */
+    @Scheduled(fixedDelayString = "${app.security.revocation.rebuild-interval:900000}",
+               initialDelayString = "${app.security.revocation.rebuild-interval:900000}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            TokenBloomFilter fresh = new TokenBloomFilter(expectedInsertions, falsePositiveRate);
+            building = fresh;
+            try {
+                int purged = revokedTokenRepository.deleteExpired(now);
+                List<String> active = revokedTokenRepository.findActiveJtis(now);
+                for (String jti : active) {
+                    fresh.add(jti);
+                }
+                filter = fresh;
+                lastSyncedAt = now;
+                log.info("Revocation filter rebuilt: {} active entries, {} expired entries purged", active.size(), purged);
+            } finally {
+                building = null;
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * 先写正在构建的过滤器，再写当前过滤器：无论重建进行到哪一步，新过滤器都不会漏掉这条记录
+     */
+    private void add(String jti) {
+        TokenBloomFilter pending = building;
+        if (pending != null) {
+            pending.add(jti);
+        }
+        filter.add(jti);
+    }
+}
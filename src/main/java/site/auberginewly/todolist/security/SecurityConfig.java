@@ -1,6 +1,9 @@
 package site.auberginewly.todolist.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -9,11 +12,12 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+
 /**
  * Spring Security 配置类
  * 配置安全策略、认证方式和权限控制
@@ -24,8 +28,15 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthFilter;
+    private final LoginThrottleFilter loginThrottleFilter;
     private final CustomUserDetailsService userDetailsService;
 
+    /**
+     * 独立的管理端口，-1 表示 actuator 与应用共用端口
+     */
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     /**
      * 配置安全过滤器链
      * 
@@ -46,16 +57,25 @@ public class SecurityConfig {
             
             // 配置请求授权
             .authorizeHttpRequests(auth -> auth
+                // 异步分发（SSE 连接结束时）属于已经通过认证的原始请求，JWT 过滤器不会再次执行
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // 允许访问的公开接口
                 .requestMatchers("/test/**").permitAll()
                 .requestMatchers("/auth/**").permitAll()
                 .requestMatchers("/h2-console/**").permitAll()
-                .requestMatchers("/actuator/**").permitAll()
+                // 健康检查公开；metrics 等其余端点只在独立的管理端口（仅内网可达）上开放，在应用端口上需要认证
+                .requestMatchers("/actuator/health/**", "/actuator/info").permitAll()
+                .requestMatchers(request -> managementPort > 0 && request.getLocalPort() == managementPort).permitAll()
+                .requestMatchers("/actuator/**").authenticated()
                 
                 // 其他所有请求需要认证
                 .anyRequest().authenticated()
             )
             
+            // 添加登录限流过滤器（在任何认证逻辑之前拒绝过量的登录尝试）
+            .addFilterBefore(loginThrottleFilter, UsernamePasswordAuthenticationFilter.class)
+            
             // 添加 JWT 认证过滤器
             .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
             
@@ -79,11 +99,32 @@ public class SecurityConfig {
 
     /**
      * 配置密码编码器
+     * BCrypt cost 在启动时按目标耗时校准（也可固定配置），
+     * 计算在专用的有界线程池中执行，线程数默认等于 CPU 核数
      * 
+     * @param meterRegistry 指标注册器
+     * @param strength 固定的 BCrypt cost，0 表示启动时校准
+     * @param targetLatency 校准的目标耗时
+     * @param minStrength 校准的最小 cost
+     * @param maxStrength 校准的最大 cost
+     * @param threads 哈希线程数，0 表示使用 CPU 核数
+     * @param queueCapacity 等待队列容量
+     * @param maxWait 最长等待时间
      * @return PasswordEncoder 密码编码器
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${app.security.bcrypt.strength:0}") int strength,
+                                           @Value("${app.security.bcrypt.target-latency:100ms}") Duration targetLatency,
+                                           @Value("${app.security.bcrypt.min-strength:10}") int minStrength,
+                                           @Value("${app.security.bcrypt.max-strength:16}") int maxStrength,
+                                           @Value("${app.security.password-hash.threads:0}") int threads,
+                                           @Value("${app.security.password-hash.queue-capacity:64}") int queueCapacity,
+                                           @Value("${app.security.password-hash.max-wait:5s}") Duration maxWait) {
+        CalibratedBCryptPasswordEncoder bcrypt = strength > 0
+                ? new CalibratedBCryptPasswordEncoder(strength)
+                : CalibratedBCryptPasswordEncoder.calibrate(targetLatency, minStrength, maxStrength);
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(bcrypt, poolSize, queueCapacity, maxWait, meterRegistry);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,203 @@
+package site.auberginewly.todolist.security;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 令牌桶表
+ * 以 GCRA（通用信元速率算法）实现令牌桶：每个键只保存一个"理论到达时间"，
+ * 取令牌是一次 CAS，无锁且不分配对象。键按哈希分散到多个分段，
+ * 每个分段容量独立受限，闲置（令牌已满）的键会被定期清理。
+ * 分段已满时只检查最早加入的几个键，能腾出位置才接纳新键，否则拒绝新键（失败即关闭），
+ * 仍在限流中的键不会被挤出，攻击者无法靠制造大量新键重置已被限流的键
+ */
+public class TokenBucketStore {
+
+    /**
+     * 分段已满时最多检查的最早键数量，保证新键的处理是常数时间
+     */
+    private static final int EVICTION_PROBES = 4;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final int maxKeysPerStripe;
+
+    /**
+     * 每个令牌的补充间隔（纳秒）
+     */
+    private final long emissionIntervalNanos;
+
+    /**
+     * 突发容忍度：桶满时允许连续取出 capacity 个令牌
+     */
+    private final long burstToleranceNanos;
+
+    private final LongAdder overflows = new LongAdder();
+
+    /**
+     * @param capacity 桶容量（允许的突发请求数）
+     * @param refillPeriod 补充一个令牌所需时间
+     * @param maxKeys 最多跟踪的键数量
+     * @param stripeCount 分段数，向上取整为 2 的幂
+     */
+    public TokenBucketStore(int capacity, Duration refillPeriod, int maxKeys, int stripeCount) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("令牌桶容量必须大于0");
+        }
+        int stripesSize = Integer.highestOneBit(Math.max(1, stripeCount - 1) << 1);
+        this.stripes = new Stripe[stripesSize];
+        for (int i = 0; i < stripesSize; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeMask = stripesSize - 1;
+        this.maxKeysPerStripe = Math.max(1, maxKeys / stripesSize);
+        this.emissionIntervalNanos = refillPeriod.toNanos();
+        this.burstToleranceNanos = emissionIntervalNanos * capacity;
+    }
+
+    /**
+     * 尝试为指定键取一个令牌
+     *
+     * @param key 限流键（IP、用户名等）
+     * @return 0 表示放行，否则为需要等待的纳秒数
+     */
+    public long tryAcquire(String key) {
+        return tryAcquire(key, System.nanoTime());
+    }
+
+    long tryAcquire(String key, long now) {
+        AtomicLong tat = bucketFor(key, now);
+        if (tat == null) {
+            // 表已满且最早的键仍在限流中时拒绝，等待一个补充间隔后重试
+            overflows.increment();
+            return emissionIntervalNanos;
+        }
+        while (true) {
+            long current = tat.get();
+            long newTat = Math.max(current, now) + emissionIntervalNanos;
+            long waitNanos = newTat - now - burstToleranceNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (tat.compareAndSet(current, newTat)) {
+                return 0L;
+            }
+        }
+    }
+
+    /**
+     * 清理闲置的键：理论到达时间早于当前时间，说明令牌已经补满
+     *
+     * @return 清理的键数量
+     */
+    public int evictIdle() {
+        return evictIdle(System.nanoTime());
+    }
+
+    int evictIdle(long now) {
+        int removed = 0;
+        for (Stripe stripe : stripes) {
+            removed += stripe.evictIdle(now);
+        }
+        return removed;
+    }
+
+    /**
+     * 当前跟踪的键数量
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.buckets.size();
+        }
+        return size;
+    }
+
+    /**
+     * 因表满而拒绝的次数
+     */
+    public long overflowCount() {
+        return overflows.sum();
+    }
+
+    private AtomicLong bucketFor(String key, long now) {
+        Stripe stripe = stripes[spread(key.hashCode()) & stripeMask];
+        AtomicLong tat = stripe.buckets.get(key);
+        if (tat != null) {
+            return tat;
+        }
+        if (stripe.buckets.size() >= maxKeysPerStripe && !stripe.evictOldestIdle(now)) {
+            return null;
+        }
+        // 新键的理论到达时间为"很久以前"，即桶是满的
+        return stripe.buckets.computeIfAbsent(key, k -> {
+            AtomicLong created = new AtomicLong(now - burstToleranceNanos);
+            stripe.insertionOrder.add(new Entry(k, created));
+            return created;
+        });
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private record Entry(String key, AtomicLong tat) {
+
+        boolean isIdle(long now) {
+            return tat.get() - now <= 0;
+        }
+    }
+
+    /**
+     * 分段
+     * 除键到桶的映射外，按加入顺序记录键，用于表满时常数时间地找到最早的键
+     */
+    private static final class Stripe {
+
+        private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final ConcurrentLinkedQueue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+
+        /**
+         * 从最早加入的键开始检查至多 EVICTION_PROBES 个，清理第一个闲置的键；
+         * 仍在限流中的键放回队尾
+         *
+         * @return 是否腾出了位置
+         */
+        boolean evictOldestIdle(long now) {
+            for (int i = 0; i < EVICTION_PROBES; i++) {
+                Entry oldest = insertionOrder.poll();
+                if (oldest == null) {
+                    return false;
+                }
+                if (buckets.get(oldest.key()) != oldest.tat()) {
+                    // 已被定期清理
+                    continue;
+                }
+                if (oldest.isIdle(now) && buckets.remove(oldest.key(), oldest.tat())) {
+                    return true;
+                }
+                insertionOrder.add(oldest);
+            }
+            return false;
+        }
+
+        int evictIdle(long now) {
+            int removed = 0;
+            Iterator<Entry> iterator = insertionOrder.iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (buckets.get(entry.key()) != entry.tat()) {
+                    iterator.remove();
+                } else if (entry.isIdle(now) && buckets.remove(entry.key(), entry.tat())) {
+                    iterator.remove();
+                    removed++;
+                }
+            }
+            return removed;
+        }
+    }
+}
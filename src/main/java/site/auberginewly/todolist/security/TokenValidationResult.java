@@ -0,0 +1,61 @@
+package site.auberginewly.todolist.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * JWT 校验结果
+ * 校验成功时携带已验证的 Claims，失败时携带失败原因
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class TokenValidationResult {
+
+    /**
+     * 校验失败原因
+     */
+    public enum Failure {
+        EMPTY,              // Token 为空
+        MALFORMED,          // 格式错误
+        INVALID_SIGNATURE,  // 签名无效
+        EXPIRED,            // 已过期
+        UNSUPPORTED         // 不支持的 Token 类型
+    }
+
+    private static final TokenValidationResult EMPTY = new TokenValidationResult(null, Failure.EMPTY);
+    private static final TokenValidationResult MALFORMED = new TokenValidationResult(null, Failure.MALFORMED);
+    private static final TokenValidationResult INVALID_SIGNATURE = new TokenValidationResult(null, Failure.INVALID_SIGNATURE);
+    private static final TokenValidationResult EXPIRED = new TokenValidationResult(null, Failure.EXPIRED);
+    private static final TokenValidationResult UNSUPPORTED = new TokenValidationResult(null, Failure.UNSUPPORTED);
+
+    private final Claims claims;
+    private final Failure failure;
+
+    public static TokenValidationResult valid(Claims claims) {
+        return new TokenValidationResult(claims, null);
+    }
+
+    /**
+     * 失败结果不携带数据，直接复用单例
+     */
+    public static TokenValidationResult invalid(Failure failure) {
+        switch (failure) {
+            case EMPTY:
+                return EMPTY;
+            case MALFORMED:
+                return MALFORMED;
+            case INVALID_SIGNATURE:
+                return INVALID_SIGNATURE;
+            case EXPIRED:
+                return EXPIRED;
+            default:
+                return UNSUPPORTED;
+        }
+    }
+
+    public boolean isValid() {
+        return failure == null;
+    }
+}
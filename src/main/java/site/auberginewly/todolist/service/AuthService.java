@@ -4,9 +4,12 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import site.auberginewly.todolist.cache.CachedUser;
+import site.auberginewly.todolist.cache.UserCache;
 import site.auberginewly.todolist.dto.ChangePasswordRequest;
 import site.auberginewly.todolist.dto.LoginRequest;
 import site.auberginewly.todolist.dto.RegisterRequest;
+import site.auberginewly.todolist.dto.UserResponse;
 import site.auberginewly.todolist.entity.User;
 import site.auberginewly.todolist.repository.UserRepository;
 
@@ -24,6 +27,8 @@ public class AuthService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserCache userCache;
+    private final PasswordUpgradeService passwordUpgradeService;
 
     /**
      * 用户注册
@@ -57,7 +62,9 @@ public class AuthService {
         user.setUpdatedAt(LocalDateTime.now());
 
         // 保存用户
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userCache.evict(saved.getUsername());
+        return saved;
     }
 
     /**
@@ -89,6 +96,11 @@ public class AuthService {
             throw new BadCredentialsException("用户名或密码错误");
         }
 
+        // 哈希 cost 低于当前配置时，后台重新哈希
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            passwordUpgradeService.upgrade(user.getId(), user.getUsername(), user.getPassword(), request.getPassword());
+        }
+
         return user;
     }
 
@@ -111,39 +123,31 @@ public class AuthService {
 
         // 从principal获取用户名
         String username = principal.getName();
-        Optional<User> userOptional = userRepository.findByUsername(username);
-        if (userOptional.isEmpty()) {
-            throw new IllegalArgumentException("用户不存在");
-        }
-
-        User user = userOptional.get();
+        CachedUser user = userCache.get(username)
+                .orElseThrow(() -> new IllegalArgumentException("用户不存在"));
 
         // 验证旧密码
-        if (!passwordEncoder.matches(request.getOldPassword(), user.getPassword())) {
+        if (!passwordEncoder.matches(request.getOldPassword(), user.getPasswordHash())) {
             throw new BadCredentialsException("旧密码错误");
         }
 
-        // 更新密码
-        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
-        user.setUpdatedAt(LocalDateTime.now());
-
-        userRepository.save(user);
+        // 更新密码（只更新密码列），并使缓存失效
+        userRepository.updatePassword(user.getId(), passwordEncoder.encode(request.getNewPassword()), LocalDateTime.now());
+        userCache.evict(username);
     }
 
     /**
      * 获取当前用户信息
      * 
      * @param principal 当前用户主体
-     * @return 用户信息
+     * @return 用户信息（不包含密码）
      * @throws IllegalArgumentException 如果用户不存在
      */
-    public User getCurrentUser(Principal principal) {
+    public UserResponse getCurrentUser(Principal principal) {
         String username = principal.getName();
-        Optional<User> userOptional = userRepository.findByUsername(username);
-        if (userOptional.isEmpty()) {
-            throw new IllegalArgumentException("用户不存在");
-        }
-        return userOptional.get();
+        CachedUser user = userCache.get(username)
+                .orElseThrow(() -> new IllegalArgumentException("用户不存在"));
+        return new UserResponse(user.getId(), user.getUsername(), user.getCreatedAt(), user.getUpdatedAt());
     }
 
     /**
@@ -156,6 +160,16 @@ public class AuthService {
         return userRepository.findByUsername(username);
     }
 
+    /**
+     * 根据用户ID获取用户信息
+     * 
+     * @param userId 用户ID
+     * @return 用户信息，如果不存在则返回空
+     */
+    public Optional<User> getUserById(Long userId) {
+        return userRepository.findById(userId);
+    }
+
     /**
      * 检查用户名是否已存在
      * 
@@ -0,0 +1,94 @@
+package site.auberginewly.todolist.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import site.auberginewly.todolist.cache.UserCache;
+import site.auberginewly.todolist.exception.ServiceUnavailableException;
+import site.auberginewly.todolist.repository.UserRepository;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 密码升级服务
+ * 登录成功后，若存储的哈希 cost 低于当前配置，则在后台用当前 cost 重新哈希；
+ * 任务在服务内部的有界线程池中执行，队列已满时直接丢弃。
+ * 线程池不注册为 Bean：容器中出现 Executor 类型的 Bean 会让 Spring Boot 不再创建默认的 applicationTaskExecutor
+ */
+@Service
+@Slf4j
+public class PasswordUpgradeService implements DisposableBean {
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final UserCache userCache;
+    private final ThreadPoolExecutor executor;
+
+    public PasswordUpgradeService(UserRepository userRepository,
+                                  PasswordEncoder passwordEncoder,
+                                  UserCache userCache,
+                                  @Value("${app.security.password-upgrade.threads:1}") int threads,
+                                  @Value("${app.security.password-upgrade.queue-capacity:100}") int queueCapacity) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.userCache = userCache;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new UpgradeThreadFactory(),
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    /**
+     * 在后台重新哈希用户密码，立即返回
+     * 只有当数据库中的哈希仍是 currentHash 时才会更新，避免覆盖并发的密码修改；
+     * 线程池队列已满时任务被丢弃，下次登录会再次尝试
+     *
+     * @param userId 用户ID
+     * @param username 用户名
+     * @param currentHash 登录时校验通过的哈希
+     * @param rawPassword 明文密码
+     */
+    public void upgrade(Long userId, String username, String currentHash, String rawPassword) {
+        executor.execute(() -> rehash(userId, username, currentHash, rawPassword));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private void rehash(Long userId, String username, String currentHash, String rawPassword) {
+        try {
+            String newHash = passwordEncoder.encode(rawPassword);
+            if (userRepository.updatePasswordIfUnchanged(userId, currentHash, newHash) > 0) {
+                userCache.evict(username);
+                log.debug("Rehashed password for user {}", userId);
+            }
+        } catch (ServiceUnavailableException ex) {
+            // 哈希线程池繁忙时跳过，下次登录会再次尝试
+            log.debug("Skipped password rehash for user {}: {}", userId, ex.getMessage());
+        } catch (RuntimeException ex) {
+            log.warn("Password rehash failed for user {}", userId, ex);
+        }
+    }
+
+    /**
+     * 重新哈希线程工厂，线程命名便于排查
+     */
+    private static final class UpgradeThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-upgrade-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package site.auberginewly.todolist.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import site.auberginewly.todolist.entity.RefreshToken;
+import site.auberginewly.todolist.exception.UnauthorizedException;
+import site.auberginewly.todolist.repository.RefreshTokenRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * 刷新令牌服务类
+ * 负责刷新令牌的签发、轮换和吊销；数据库中只保存令牌的 SHA-256 哈希
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${app.jwt.refresh-expiration:2592000000}")
+    private long refreshExpirationMs; // 默认30天
+
+    /**
+     * 为用户签发新的刷新令牌
+     *
+     * @param userId 用户ID
+     * @return 刷新令牌明文（只返回给客户端一次）
+     */
+    @Transactional
+    public String issue(Long userId) {
+        String rawToken = generateRawToken();
+        RefreshToken token = new RefreshToken();
+        token.setUserId(userId);
+        token.setTokenHash(hash(rawToken));
+        token.setExpiresAt(LocalDateTime.now().plusNanos(refreshExpirationMs * 1_000_000L));
+        refreshTokenRepository.save(token);
+        return rawToken;
+    }
+
+    /**
+     * 轮换刷新令牌：吊销旧令牌并签发新令牌
+     * 已吊销的令牌被再次使用说明可能泄露，此时吊销该用户的全部刷新令牌
+     *
+     * @param rawToken 刷新令牌明文
+     * @return 轮换结果
+     * @throws UnauthorizedException 如果令牌无效、过期或已被使用
+     */
+    @Transactional(noRollbackFor = UnauthorizedException.class)
+    public Rotation rotate(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            throw new UnauthorizedException("刷新令牌不能为空");
+        }
+        RefreshToken token = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(() -> new UnauthorizedException("刷新令牌无效"));
+
+        LocalDateTime now = LocalDateTime.now();
+        if (token.getExpiresAt().isBefore(now)) {
+            throw new UnauthorizedException("刷新令牌已过期");
+        }
+        if (token.getRevokedAt() != null || refreshTokenRepository.revokeIfActive(token.getId(), now) == 0) {
+            log.warn("Refresh token reuse detected for user {}, revoking all sessions", token.getUserId());
+            refreshTokenRepository.revokeAllByUserId(token.getUserId(), now);
+            throw new UnauthorizedException("刷新令牌已失效，请重新登录");
+        }
+
+        return new Rotation(token.getUserId(), issue(token.getUserId()));
+    }
+
+    /**
+     * 吊销单个刷新令牌
+     *
+     * @param rawToken 刷新令牌明文
+     */
+    @Transactional
+    public void revoke(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            return;
+        }
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeIfActive(token.getId(), LocalDateTime.now()));
+    }
+
+    /**
+     * 吊销用户的所有刷新令牌（如修改密码后）
+     *
+     * @param userId 用户ID
+     */
+    @Transactional
+    public void revokeAll(Long userId) {
+        refreshTokenRepository.revokeAllByUserId(userId, LocalDateTime.now());
+    }
+
+    /**
+     * 定期清理已过期的刷新令牌
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.refresh-cleanup-interval:3600000}")
+    public void purgeExpired() {
+        int purged = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Purged {} expired refresh tokens", purged);
+        }
+    }
+
+    private static String generateRawToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    /**
+     * 轮换结果
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Rotation {
+        private final Long userId;
+        private final String refreshToken;
+    }
+}
@@ -0,0 +1,74 @@
+package site.auberginewly.todolist.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import site.auberginewly.todolist.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 增量同步的位置
+ * 记录客户端已同步的最后一条变更 (变更序号, 待办事项ID)，编码为 URL 安全的 Base64 字符串；
+ * 同一批次的变更共用一个序号，加上 ID 才能在一页中途截断后从正确的位置继续。
+ * syncedAt 是客户端最近一次追上全部变更的时间（纪元秒），用于判断之后的删除记录是否可能已被清理
+ */
+@Getter
+@RequiredArgsConstructor
+final class TodoChangeToken {
+
+    private static final String SEPARATOR = "|";
+
+    private final long changeSeq;
+    private final long id;
+    private final long syncedAt;
+
+    /**
+     * 从头同步：迁移前已存在的待办事项序号为 0，ID 从 1 开始，都在该位置之后
+     *
+     * @param syncedAt 本次全量同步开始的时间
+     */
+    static TodoChangeToken start(long syncedAt) {
+        return new TodoChangeToken(0L, 0L, syncedAt);
+    }
+
+    /**
+     * 比较两条变更的先后顺序
+     */
+    static int compare(long changeSeq, long id, long otherChangeSeq, long otherId) {
+        int bySeq = Long.compare(changeSeq, otherChangeSeq);
+        return bySeq != 0 ? bySeq : Long.compare(id, otherId);
+    }
+
+    String encode() {
+        String raw = changeSeq + SEPARATOR + id + SEPARATOR + syncedAt;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析同步位置
+     * 早期版本的位置不带同步时间，解析为时间 0，按已过期处理
+     *
+     * @throws BadRequestException 如果格式错误
+     */
+    static TodoChangeToken decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 2 && parts.length != 3) {
+                throw new BadRequestException("无效的同步位置");
+            }
+            long changeSeq = Long.parseLong(parts[0]);
+            long id = Long.parseLong(parts[1]);
+            long syncedAt = parts.length == 3 ? Long.parseLong(parts[2]) : 0L;
+            if (changeSeq < 0 || id < 0 || syncedAt < 0) {
+                throw new BadRequestException("无效的同步位置");
+            }
+            return new TodoChangeToken(changeSeq, id, syncedAt);
+        } catch (BadRequestException ex) {
+            throw ex;
+        } catch (RuntimeException ex) {
+            throw new BadRequestException("无效的同步位置", ex);
+        }
+    }
+}
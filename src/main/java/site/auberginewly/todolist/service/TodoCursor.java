@@ -0,0 +1,133 @@
+package site.auberginewly.todolist.service;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import site.auberginewly.todolist.dto.TodoResponse;
+import site.auberginewly.todolist.entity.Todo;
+import site.auberginewly.todolist.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 待办事项列表的分页游标
+ * 记录上一页最后一条记录的排序键 (排序值, id)，编码为 URL 安全的 Base64 字符串，
+ * 下一页通过索引定位到该位置之后继续读取，而不是跳过前面的 OFFSET 行
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+final class TodoCursor {
+
+    /**
+     * 排序方式
+     */
+    enum Sort {
+        CREATED("c"),  // 按 (created_at, id) 升序
+        DUE("d"),      // 按 (due_date, id) 升序，无截止日期的排在最后
+        PRIORITY("p"); // 按 (priority_rank, due_date, id) 升序，同一优先级中无截止日期的排在最后
+
+        private final String code;
+
+        Sort(String code) {
+            this.code = code;
+        }
+
+        /**
+         * 解析请求参数，null 时默认按创建时间排序
+         *
+         * @throws IllegalArgumentException 如果排序方式无效
+         */
+        static Sort fromParam(String value) {
+            if (value == null || value.isBlank() || "created".equalsIgnoreCase(value)) {
+                return CREATED;
+            }
+            if ("dueDate".equalsIgnoreCase(value) || "due".equalsIgnoreCase(value)) {
+                return DUE;
+            }
+            if ("priority".equalsIgnoreCase(value)) {
+                return PRIORITY;
+            }
+            throw new IllegalArgumentException("无效的排序方式: " + value);
+        }
+    }
+
+    private static final String SEPARATOR = "|";
+    private static final String PRIORITY_SEPARATOR = ":";
+
+    private final Sort sort;
+    private final LocalDateTime createdAt;
+    private final LocalDate dueDate;
+    private final Todo.Priority priority;
+    private final long id;
+
+    /**
+     * 根据当前页最后一条记录生成游标
+     */
+    static TodoCursor after(Sort sort, TodoResponse last) {
+        switch (sort) {
+            case CREATED:
+                return new TodoCursor(sort, last.getCreatedAt(), null, null, last.getId());
+            case DUE:
+                return new TodoCursor(sort, null, last.getDueDate(), null, last.getId());
+            default:
+                return new TodoCursor(sort, null, last.getDueDate(), Todo.Priority.valueOf(last.getPriority()), last.getId());
+        }
+    }
+
+    String encode() {
+        String date = dueDate == null ? "" : dueDate.toString();
+        String value;
+        switch (sort) {
+            case CREATED:
+                value = createdAt.toString();
+                break;
+            case DUE:
+                value = date;
+                break;
+            default:
+                value = priority.getRank() + PRIORITY_SEPARATOR + date;
+        }
+        String raw = sort.code + SEPARATOR + value + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标，并校验其排序方式与本次请求一致
+     *
+     * @throws BadRequestException 如果游标格式错误或与排序方式不匹配
+     */
+    static TodoCursor decode(String cursor, Sort expected) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3 || !expected.code.equals(parts[0])) {
+                throw new BadRequestException("无效的分页游标");
+            }
+            long id = Long.parseLong(parts[2]);
+            switch (expected) {
+                case CREATED:
+                    return new TodoCursor(expected, LocalDateTime.parse(parts[1]), null, null, id);
+                case DUE:
+                    return new TodoCursor(expected, null, parseDate(parts[1]), null, id);
+                default:
+                    String[] value = parts[1].split(PRIORITY_SEPARATOR, -1);
+                    if (value.length != 2) {
+                        throw new BadRequestException("无效的分页游标");
+                    }
+                    Todo.Priority priority = Todo.Priority.fromRank(Short.parseShort(value[0]));
+                    return new TodoCursor(expected, null, parseDate(value[1]), priority, id);
+            }
+        } catch (BadRequestException ex) {
+            throw ex;
+        } catch (RuntimeException ex) {
+            throw new BadRequestException("无效的分页游标", ex);
+        }
+    }
+
+    private static LocalDate parseDate(String value) {
+        return value.isEmpty() ? null : LocalDate.parse(value);
+    }
+}
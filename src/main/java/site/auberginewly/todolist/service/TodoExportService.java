@@ -0,0 +1,112 @@
+package site.auberginewly.todolist.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import site.auberginewly.todolist.dto.TodoResponse;
+import site.auberginewly.todolist.entity.Todo;
+import site.auberginewly.todolist.repository.TodoRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 待办事项导出服务类
+ * 按 (createdAt, id) 键集分页读取，每页在各自的短事务中查询，写出期间不占用数据库连接：
+ * 客户端下载得再慢也不会长时间占住连接池，任意时刻内存中只有一页数据，与用户的待办事项数量无关
+ */
+@Service
+@RequiredArgsConstructor
+public class TodoExportService {
+
+    /**
+     * CSV 表头，与 {@link #writeCsv} 的列顺序一致
+     */
+    static final String CSV_HEADER = "id,title,description,completed,priority,dueDate,createdAt,updatedAt";
+
+    private final TodoRepository todoRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.todos.export.page-size:500}")
+    private int pageSize;
+
+    /**
+     * 导出用户的全部待办事项
+     * 不在事务中执行：每页查询结束即归还连接，之后才写出该页。
+     * 各页不是同一时刻的快照，导出期间新建的待办事项会出现在末尾，删除的不再出现
+     *
+     * @param userId 用户ID
+     * @param format 导出格式
+     * @param out 输出流，由调用方负责关闭
+     * @throws IOException 如果写入失败（通常是客户端断开）
+     */
+    public void export(Long userId, TodoFileFormat format, OutputStream out) throws IOException {
+        if (userId == null) {
+            throw new IllegalArgumentException("用户ID不能为空");
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == TodoFileFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write("\r\n");
+        }
+        List<Todo> page = todoRepository.findExportPageByCreatedAt(userId, Limit.of(pageSize));
+        while (true) {
+            for (Todo todo : page) {
+                if (format == TodoFileFormat.CSV) {
+                    writeCsv(writer, todo);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(TodoResponse.fromTodo(todo)));
+                    writer.write('\n');
+                }
+            }
+            if (page.size() < pageSize) {
+                break;
+            }
+            Todo last = page.get(page.size() - 1);
+            page = todoRepository.findExportPageByCreatedAtAfter(userId, last.getCreatedAt(), last.getId(),
+                    Limit.of(pageSize));
+        }
+        writer.flush();
+    }
+
+    private static void writeCsv(Writer writer, Todo todo) throws IOException {
+        writer.write(String.valueOf(todo.getId()));
+        writer.write(',');
+        writer.write(csvField(todo.getTitle()));
+        writer.write(',');
+        writer.write(csvField(todo.getDescription()));
+        writer.write(',');
+        writer.write(String.valueOf(todo.getCompleted()));
+        writer.write(',');
+        writer.write(todo.getPriority().name());
+        writer.write(',');
+        writer.write(todo.getDueDate() != null ? todo.getDueDate().toString() : "");
+        writer.write(',');
+        writer.write(String.valueOf(todo.getCreatedAt()));
+        writer.write(',');
+        writer.write(String.valueOf(todo.getUpdatedAt()));
+        writer.write("\r\n");
+    }
+
+    /**
+     * 按 RFC 4180 转义：包含逗号、引号或换行时整体加引号，内部引号双写；null 输出为空
+     */
+    static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+}
@@ -0,0 +1,59 @@
+package site.auberginewly.todolist.service;
+
+import org.springframework.http.MediaType;
+
+/**
+ * 待办事项导入导出的文件格式
+ */
+public enum TodoFileFormat {
+    NDJSON("ndjson", MediaType.parseMediaType("application/x-ndjson")),  // 每行一个 JSON 对象
+    CSV("csv", MediaType.parseMediaType("text/csv;charset=UTF-8"));      // RFC 4180，首行为表头
+
+    private final String extension;
+    private final MediaType mediaType;
+
+    TodoFileFormat(String extension, MediaType mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * 解析请求参数，null 时默认 NDJSON
+     *
+     * @throws IllegalArgumentException 如果格式无效
+     */
+    public static TodoFileFormat fromParam(String value) {
+        if (value == null || value.isBlank() || "ndjson".equalsIgnoreCase(value)) {
+            return NDJSON;
+        }
+        if ("csv".equalsIgnoreCase(value)) {
+            return CSV;
+        }
+        throw new IllegalArgumentException("无效的文件格式: " + value);
+    }
+
+    /**
+     * 根据请求的 Content-Type 确定格式，忽略字符集等参数
+     *
+     * @throws IllegalArgumentException 如果类型为空或不支持
+     */
+    public static TodoFileFormat fromContentType(String contentType) {
+        if (contentType != null && !contentType.isBlank()) {
+            MediaType type = MediaType.parseMediaType(contentType);
+            for (TodoFileFormat format : values()) {
+                if (format.mediaType.isCompatibleWith(type) && !type.isWildcardType()) {
+                    return format;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Content-Type 必须是 application/x-ndjson 或 text/csv");
+    }
+}
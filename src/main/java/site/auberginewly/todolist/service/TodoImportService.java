@@ -0,0 +1,366 @@
+package site.auberginewly.todolist.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import site.auberginewly.todolist.dto.TodoImportResult;
+import site.auberginewly.todolist.dto.TodoImportRow;
+import site.auberginewly.todolist.dto.TodoRequest;
+import site.auberginewly.todolist.entity.Todo;
+import site.auberginewly.todolist.event.TodoChange;
+import site.auberginewly.todolist.event.TodoChangedEvent;
+import site.auberginewly.todolist.repository.TodoRepository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 待办事项导入服务类
+ * 用流式解析器逐条读取请求体，校验通过的行攒满一批后在独立事务中写入并清空持久化上下文，
+ * 内存占用只与批次大小有关，与导入的行数无关
+ */
+@Service
+@Slf4j
+public class TodoImportService {
+
+    private final TodoRepository todoRepository;
+    private final TodoStatsService todoStatsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final ObjectReader jsonReader;
+    private final ObjectReader csvReader;
+    private final TransactionTemplate transaction;
+
+    @Value("${app.todos.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.todos.import.max-rows:100000}")
+    private long maxRows;
+
+    @Value("${app.todos.import.max-errors:100}")
+    private int maxErrors;
+
+    public TodoImportService(TodoRepository todoRepository,
+                             TodoStatsService todoStatsService,
+                             ApplicationEventPublisher eventPublisher,
+                             EntityManager entityManager,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager) {
+        this.todoRepository = todoRepository;
+        this.todoStatsService = todoStatsService;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+        this.jsonReader = objectMapper.readerFor(TodoImportRow.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        // CSV 按原始单元格读取，以便统计带引号的单元格中的换行，给出准确的行号
+        this.csvReader = new CsvMapper().readerFor(String[].class)
+                .with(CsvParser.Feature.WRAP_AS_ARRAY);
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 导入待办事项
+     * 每行按与创建接口相同的规则校验，失败的行连同其在文件中的行号记入结果后继续；
+     * 请求体格式损坏时无法定位下一行，导入在此中止。
+     * 每批在各自的事务中提交，中途失败时已提交的批次会保留
+     *
+     * @param userId 用户ID
+     * @param format 请求体格式
+     * @param in 请求体，由调用方负责关闭
+     * @return 成功和失败的行数及失败原因
+     * @throws IOException 如果读取请求体失败
+     */
+    public TodoImportResult importTodos(Long userId, TodoFileFormat format, InputStream in) throws IOException {
+        if (userId == null) {
+            throw new IllegalArgumentException("用户ID不能为空");
+        }
+        TodoImportResult result = new TodoImportResult(0, 0, new ArrayList<>());
+        List<Todo> batch = new ArrayList<>(batchSize);
+        long count = 0;
+
+        try (RowCursor rows = format == TodoFileFormat.CSV
+                ? new CsvRowCursor(csvReader.readValues(in))
+                : new JsonRowCursor(jsonReader.readValues(in))) {
+            while (true) {
+                TodoImportRow row;
+                try {
+                    if (!rows.hasNext()) {
+                        break;
+                    }
+                    row = rows.next();
+                } catch (JsonMappingException ex) {
+                    // 单行字段类型不匹配，迭代器会跳过该行的剩余内容
+                    reject(result, rows.line(), "字段格式错误: " + ex.getOriginalMessage());
+                    continue;
+                } catch (JsonProcessingException ex) {
+                    reject(result, rows.errorLine(ex), "文件格式错误，导入已中止: " + ex.getOriginalMessage());
+                    break;
+                }
+                if (++count > maxRows) {
+                    reject(result, rows.line(), "超过单次导入上限 " + maxRows + " 行，之后的内容未导入");
+                    break;
+                }
+
+                try {
+                    batch.add(toTodo(row, userId));
+                } catch (IllegalArgumentException ex) {
+                    reject(result, rows.line(), ex.getMessage());
+                    continue;
+                }
+                if (batch.size() >= batchSize) {
+                    saveBatch(userId, batch, result);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            saveBatch(userId, batch, result);
+        }
+        log.info("用户 {} 导入待办事项: 成功 {} 行, 失败 {} 行", userId, result.getAccepted(), result.getRejected());
+        return result;
+    }
+
+    /**
+     * 在独立事务中写入一批待办事项
+     * 同一批共用一个变更序号和一个变更事件；flush 以 JDBC 批量发送 INSERT，随后清空持久化上下文
+     */
+    private void saveBatch(Long userId, List<Todo> batch, TodoImportResult result) {
+        transaction.executeWithoutResult(status -> {
+            long changeSeq = todoStatsService.nextChangeSeq(userId);
+            List<TodoChange> changes = new ArrayList<>(batch.size());
+            for (Todo todo : batch) {
+                todo.setChangeSeq(changeSeq);
+                changes.add(TodoChange.created(todoRepository.save(todo)));
+            }
+            eventPublisher.publishEvent(new TodoChangedEvent(userId, changes));
+            todoRepository.flush();
+            entityManager.clear();
+        });
+        result.setAccepted(result.getAccepted() + batch.size());
+        batch.clear();
+    }
+
+    /**
+     * 把一行转换为待办事项实体，CSV 的空单元格视为未填写
+     *
+     * @throws IllegalArgumentException 如果字段无效
+     */
+    static Todo toTodo(TodoImportRow row, Long userId) {
+        TodoRequest request = new TodoRequest();
+        request.setTitle(row.getTitle());
+        request.setDescription(blankToNull(row.getDescription()));
+        String priority = blankToNull(row.getPriority());
+        if (priority != null) {
+            try {
+                Todo.Priority.valueOf(priority);
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("无效的优先级: " + priority);
+            }
+        }
+        request.setPriority(priority);
+        String dueDate = blankToNull(row.getDueDate());
+        if (dueDate != null) {
+            try {
+                request.setDueDate(LocalDate.parse(dueDate));
+            } catch (DateTimeParseException ex) {
+                throw new IllegalArgumentException("无效的截止日期: " + dueDate);
+            }
+        }
+
+        Todo todo = TodoService.newTodo(request, userId);
+        String completed = blankToNull(row.getCompleted());
+        if (completed != null) {
+            if ("true".equalsIgnoreCase(completed)) {
+                todo.setCompleted(true);
+            } else if (!"false".equalsIgnoreCase(completed)) {
+                throw new IllegalArgumentException("无效的完成状态: " + completed);
+            }
+        }
+        return todo;
+    }
+
+    private void reject(TodoImportResult result, long line, String message) {
+        result.setRejected(result.getRejected() + 1);
+        if (result.getErrors().size() < maxErrors) {
+            result.getErrors().add(new TodoImportResult.LineError(line, message));
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    /**
+     * 逐条读取请求体中的记录，并给出每条记录在文件中的起始行号（物理行，从 1 开始）
+     */
+    private interface RowCursor extends Closeable {
+
+        boolean hasNext() throws IOException;
+
+        TodoImportRow next() throws IOException;
+
+        /**
+         * 当前记录的起始行号
+         */
+        long line();
+
+        /**
+         * 格式错误所在的行号
+         */
+        long errorLine(JsonProcessingException ex);
+    }
+
+    /**
+     * NDJSON 记录，行号取自解析器的位置，空行也计入行号
+     */
+    private static final class JsonRowCursor implements RowCursor {
+
+        private final MappingIterator<TodoImportRow> records;
+        private long line;
+        private boolean inRecord;
+
+        JsonRowCursor(MappingIterator<TodoImportRow> records) {
+            this.records = records;
+        }
+
+        @Override
+        public boolean hasNext() throws IOException {
+            inRecord = false;
+            boolean hasNext = records.hasNextValue();
+            if (hasNext) {
+                line = records.getParser().currentTokenLocation().getLineNr();
+                inRecord = true;
+            }
+            return hasNext;
+        }
+
+        @Override
+        public TodoImportRow next() throws IOException {
+            TodoImportRow row = records.nextValue();
+            inRecord = false;
+            return row;
+        }
+
+        @Override
+        public long line() {
+            return line;
+        }
+
+        @Override
+        public long errorLine(JsonProcessingException ex) {
+            // 记录内部的错误（例如未闭合的对象）报告记录的起始行，记录之间的错误报告出错的位置
+            if (inRecord || ex.getLocation() == null || ex.getLocation().getLineNr() <= 0) {
+                return line;
+            }
+            return ex.getLocation().getLineNr();
+        }
+
+        @Override
+        public void close() throws IOException {
+            records.close();
+        }
+    }
+
+    /**
+     * CSV 记录，首条记录为表头，按列名匹配字段，未知列忽略；
+     * 行号从表头开始累计，带引号的单元格中的换行也计入行号
+     */
+    private static final class CsvRowCursor implements RowCursor {
+
+        private final MappingIterator<String[]> records;
+        private Map<String, Integer> columns;
+        private long nextLine = 1;
+        private long line;
+
+        CsvRowCursor(MappingIterator<String[]> records) {
+            this.records = records;
+        }
+
+        @Override
+        public boolean hasNext() throws IOException {
+            if (columns == null) {
+                if (!records.hasNextValue()) {
+                    return false;
+                }
+                String[] header = records.nextValue();
+                nextLine += lineBreaks(header) + 1;
+                columns = new HashMap<>();
+                for (int i = 0; i < header.length; i++) {
+                    columns.putIfAbsent(header[i].trim(), i);
+                }
+            }
+            boolean hasNext = records.hasNextValue();
+            if (hasNext) {
+                line = nextLine;
+            }
+            return hasNext;
+        }
+
+        @Override
+        public TodoImportRow next() throws IOException {
+            String[] record = records.nextValue();
+            nextLine += lineBreaks(record) + 1;
+            TodoImportRow row = new TodoImportRow();
+            row.setTitle(cell(record, "title"));
+            row.setDescription(cell(record, "description"));
+            row.setPriority(cell(record, "priority"));
+            row.setDueDate(cell(record, "dueDate"));
+            row.setCompleted(cell(record, "completed"));
+            return row;
+        }
+
+        @Override
+        public long line() {
+            return line;
+        }
+
+        @Override
+        public long errorLine(JsonProcessingException ex) {
+            return nextLine;
+        }
+
+        @Override
+        public void close() throws IOException {
+            records.close();
+        }
+
+        private String cell(String[] record, String column) {
+            Integer index = columns.get(column);
+            return index != null && index < record.length ? record[index] : null;
+        }
+
+        /**
+         * 统计单元格中的换行数，\r\n 计为一次
+         */
+        private static int lineBreaks(String[] record) {
+            int breaks = 0;
+            for (String cell : record) {
+                for (int i = 0; i < cell.length(); i++) {
+                    char c = cell.charAt(i);
+                    if (c == '\n' || (c == '\r' && (i + 1 == cell.length() || cell.charAt(i + 1) != '\n'))) {
+                        breaks++;
+                    }
+                }
+            }
+            return breaks;
+        }
+    }
+}
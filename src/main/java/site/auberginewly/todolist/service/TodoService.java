@@ -1,26 +1,93 @@
 package site.auberginewly.todolist.service;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import site.auberginewly.todolist.cache.TodoReadCache;
+import site.auberginewly.todolist.constant.AppConstants;
+import site.auberginewly.todolist.dto.CursorPage;
+import site.auberginewly.todolist.dto.TodoBatchOperation;
+import site.auberginewly.todolist.dto.TodoBatchResult;
+import site.auberginewly.todolist.dto.TodoChangesResponse;
+import site.auberginewly.todolist.dto.TodoFilterRequest;
 import site.auberginewly.todolist.dto.TodoRequest;
+import site.auberginewly.todolist.dto.TodoResponse;
 import site.auberginewly.todolist.entity.Todo;
+import site.auberginewly.todolist.entity.TodoStats;
+import site.auberginewly.todolist.entity.TodoTombstone;
+import site.auberginewly.todolist.event.TodoChange;
+import site.auberginewly.todolist.event.TodoChangedEvent;
+import site.auberginewly.todolist.exception.ConflictException;
+import site.auberginewly.todolist.exception.SyncExpiredException;
+import site.auberginewly.todolist.repository.TodoFilter;
 import site.auberginewly.todolist.repository.TodoRepository;
+import site.auberginewly.todolist.repository.TodoTombstoneRepository;
+import site.auberginewly.todolist.search.TodoSearchEngine;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 待办事项服务类
- * 负责待办事项的业务逻辑，确保用户只能操作自己的待办事项
+ * 负责待办事项的业务逻辑，确保用户只能操作自己的待办事项；
+ * 每个写操作在修改数据之前分配一个变更序号，写入的待办事项和删除记录都带上该序号，供增量同步使用
  */
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class TodoService {
 
+    /**
+     * 标题的最大长度（按字符计），与 todos.title 列一致
+     */
+    static final int TITLE_MAX_LENGTH = 255;
+
+    /**
+     * 删除记录在保留期限之外再多保留的时间：删除时间取自事务提交之前，同步时间取自请求时刻，
+     * 宽限期覆盖两者之差、实例之间的时钟偏差和夏令时切换
+     */
+    private static final Duration TOMBSTONE_PURGE_GRACE = Duration.ofDays(1);
+
     private final TodoRepository todoRepository;
+    private final TodoStatsService todoStatsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TodoSearchEngine todoSearchEngine;
+    private final TodoReadCache todoReadCache;
+    private final TodoTombstoneRepository todoTombstoneRepository;
+
+    @Value("${app.todos.batch.max-size:500}")
+    private int maxBatchSize; // 单次批量操作的最大数量
+
+    @Value("${app.todos.search.max-results:1000}")
+    private int maxSearchResults; // 单次搜索最多返回的匹配数量
+
+    @Value("${app.todos.sync.tombstone-retention:30d}")
+    private Duration tombstoneRetention; // 删除记录的保留期限，同步位置早于该期限时需要全量同步
 
     /**
      * 创建待办事项
@@ -30,32 +97,177 @@ public class TodoService {
      * @return 创建成功的待办事项
      * @throws IllegalArgumentException 如果参数无效
      */
+    @Transactional
     public Todo createTodo(TodoRequest request, Long userId) {
         // 参数验证
+        if (userId == null) {
+            throw new IllegalArgumentException("用户ID不能为空");
+        }
+
+        Todo todo = newTodo(request, userId);
+        todo.setChangeSeq(todoStatsService.nextChangeSeq(userId));
+        Todo saved = todoRepository.save(todo);
+        publish(userId, TodoChange.created(saved));
+        return saved;
+    }
+
+    /**
+     * 批量执行创建、更新、切换和删除操作
+     * 所有操作在同一事务中执行：涉及的待办事项一次查询加载，写入在 flush 时按 JDBC 批次发送。
+     * 单个操作的参数错误、不存在或版本冲突只记录在该操作的结果中，不影响其他操作
+     *
+     * @param operations 操作列表
+     * @param userId 用户ID
+     * @return 与操作列表一一对应的结果
+     * @throws IllegalArgumentException 如果操作列表为空或超过上限
+     */
+    @Transactional
+    public List<TodoBatchResult> applyBatch(List<TodoBatchOperation> operations, Long userId) {
+        if (userId == null) {
+            throw new IllegalArgumentException("用户ID不能为空");
+        }
+        if (operations == null || operations.isEmpty()) {
+            throw new IllegalArgumentException("批量操作不能为空");
+        }
+        if (operations.size() > maxBatchSize) {
+            throw new IllegalArgumentException("批量操作数量不能超过 " + maxBatchSize);
+        }
+
+        // 一次查询加载本批次涉及的全部待办事项，归属校验在查询条件中完成
+        Set<Long> ids = new HashSet<>();
+        for (TodoBatchOperation operation : operations) {
+            if (operation != null && operation.getId() != null) {
+                ids.add(operation.getId());
+            }
+        }
+        Map<Long, Todo> todos = ids.isEmpty()
+                ? new HashMap<>()
+                : todoRepository.findByUserIdAndIdIn(userId, ids).stream()
+                        .collect(Collectors.toMap(Todo::getId, Function.identity()));
+
+        long changeSeq = todoStatsService.nextChangeSeq(userId);
+        List<TodoBatchResult> results = new ArrayList<>(operations.size());
+        List<TodoChange> changes = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            TodoBatchOperation operation = operations.get(i);
+            if (operation == null || operation.getOp() == null) {
+                TodoBatchOperation invalid = operation != null ? operation : new TodoBatchOperation();
+                results.add(TodoBatchResult.failure(i, invalid, HttpStatus.BAD_REQUEST, "操作类型不能为空"));
+                continue;
+            }
+            try {
+                results.add(applyOperation(i, operation, todos, changes, userId, changeSeq));
+            } catch (IllegalArgumentException ex) {
+                results.add(TodoBatchResult.failure(i, operation, HttpStatus.BAD_REQUEST, ex.getMessage()));
+            }
+        }
+
+        // 统一发送 INSERT/UPDATE/DELETE 批次，乐观锁冲突在此处暴露并回滚整个批次
+        todoRepository.flush();
+        if (!changes.isEmpty()) {
+            eventPublisher.publishEvent(new TodoChangedEvent(userId, changes));
+        }
+        return results;
+    }
+
+    /**
+     * 执行批量中的单个操作
+     * save/delete 只登记到持久化上下文，真正的 SQL 在 flush 时批量执行；同一批次的变更共用一个变更序号
+     */
+    private TodoBatchResult applyOperation(int index, TodoBatchOperation operation, Map<Long, Todo> todos,
+                                           List<TodoChange> changes, Long userId, long changeSeq) {
+        if (operation.getOp() == TodoBatchOperation.Type.CREATE) {
+            Todo todo = newTodo(operation.toTodoRequest(), userId);
+            todo.setChangeSeq(changeSeq);
+            Todo created = todoRepository.save(todo);
+            changes.add(TodoChange.created(created));
+            return TodoBatchResult.success(index, operation.getOp(), created);
+        }
+
+        if (operation.getId() == null) {
+            throw new IllegalArgumentException("待办事项ID不能为空");
+        }
+        Todo todo = todos.get(operation.getId());
+        if (todo == null) {
+            return TodoBatchResult.failure(index, operation, HttpStatus.NOT_FOUND, "待办事项不存在");
+        }
+        if (operation.getVersion() != null && !operation.getVersion().equals(todo.getVersion())) {
+            return TodoBatchResult.failure(index, operation, HttpStatus.CONFLICT, "待办事项已被修改，请刷新后重试");
+        }
+
+        switch (operation.getOp()) {
+            case UPDATE:
+                Todo.Priority priorityBefore = todo.getPriority();
+                boolean textChanged = applyChanges(todo, operation.toTodoRequest());
+                todo.setChangeSeq(changeSeq);
+                changes.add(TodoChange.updated(todo, priorityBefore, textChanged));
+                return TodoBatchResult.success(index, operation.getOp(), todo);
+            case TOGGLE:
+                todo.setCompleted(!todo.getCompleted());
+                todo.setChangeSeq(changeSeq);
+                changes.add(TodoChange.toggled(todo));
+                return TodoBatchResult.success(index, operation.getOp(), todo);
+            default:
+                todos.remove(todo.getId());
+                todoRepository.delete(todo);
+                todoTombstoneRepository.save(new TodoTombstone(todo.getId(), userId, changeSeq, LocalDateTime.now()));
+                changes.add(TodoChange.deleted(todo.getId(), todo.getPriority(), todo.getCompleted()));
+                return TodoBatchResult.deleted(index, todo.getId());
+        }
+    }
+
+    /**
+     * 在当前写事务中发布单个变更
+     */
+    private void publish(Long userId, TodoChange change) {
+        eventPublisher.publishEvent(new TodoChangedEvent(userId, List.of(change)));
+    }
+
+    /**
+     * 根据请求构建新的待办事项实体（未持久化）
+     * 创建、批量创建和导入共用同一套校验规则
+     *
+     * @throws IllegalArgumentException 如果参数无效
+     */
+    static Todo newTodo(TodoRequest request, Long userId) {
         if (request == null) {
             throw new IllegalArgumentException("待办事项不能为空");
         }
         if (request.getTitle() == null || request.getTitle().trim().isEmpty()) {
             throw new IllegalArgumentException("标题不能为空");
         }
-        if (userId == null) {
-            throw new IllegalArgumentException("用户ID不能为空");
-        }
+
+        String title = checkTitleLength(request.getTitle().trim());
 
         // 创建待办事项
         Todo todo = new Todo();
-        todo.setTitle(request.getTitle().trim());
+        todo.setTitle(title);
         todo.setDescription(request.getDescription());
-        todo.setPriority(Todo.Priority.valueOf(request.getPriority()));
+        todo.setPriority(request.getPriority() != null
+                ? Todo.Priority.valueOf(request.getPriority())
+                : Todo.Priority.MEDIUM);
         todo.setDueDate(request.getDueDate());
         todo.setUserId(userId);
         todo.setCompleted(false); // 新创建的待办事项默认为未完成
+        return todo;
+    }
 
-        return todoRepository.save(todo);
+    /**
+     * 校验去除首尾空白后的标题长度，超出列长度的标题在写库之前拒绝
+     *
+     * @return 传入的标题
+     * @throws IllegalArgumentException 如果标题超过最大长度
+     */
+    private static String checkTitleLength(String title) {
+        if (title.codePointCount(0, title.length()) > TITLE_MAX_LENGTH) {
+            throw new IllegalArgumentException("标题不能超过 " + TITLE_MAX_LENGTH + " 个字符");
+        }
+        return title;
     }
 
     /**
      * 获取用户的所有待办事项（支持分页、筛选、搜索）
+     * 有搜索关键词时在标题和描述中搜索，结果按相关度排序，忽略 pageable 中的排序
      * 
      * @param userId 用户ID
      * @param status 状态筛选（"all", "completed", "incomplete"）
@@ -70,7 +282,11 @@ public class TodoService {
 
         // 如果有搜索关键词，优先使用搜索功能
         if (searchTerm != null && !searchTerm.trim().isEmpty()) {
-            return todoRepository.findByUserIdAndTitleContainingIgnoreCase(userId, searchTerm.trim(), pageable);
+            List<Long> ids = todoSearchEngine.search(userId, searchTerm.trim(), maxSearchResults);
+            List<Long> pageIds = pageOf(ids, pageable);
+            Map<Long, Todo> todos = pageIds.isEmpty() ? Map.of() : todoRepository.findByUserIdAndIdIn(userId, pageIds)
+                    .stream().collect(Collectors.toMap(Todo::getId, Function.identity()));
+            return new PageImpl<>(inOrder(pageIds, todos), pageable, ids.size());
         }
 
         // 根据状态筛选
@@ -84,6 +300,289 @@ public class TodoService {
         }
     }
 
+    /**
+     * 游标分页获取用户的待办事项
+     * 每页通过索引定位到游标位置后读取 limit + 1 条，无论翻到第几页开销都相同，也不需要 COUNT 查询；
+     * 结果直接投影为只读的 TodoResponse，描述已截断；默认每页数量的第一页按用户缓存，写操作提交后失效
+     *
+     * @param userId 用户ID
+     * @param version 调用方已读取的数据版本（用于 ETag 的同一个值），作为缓存条目的版本
+     * @param sort 排序方式："created"（默认，按创建时间）、"dueDate"（按截止日期，无截止日期的排在最后）
+     *             或 "priority"（按优先级从高到低，同一优先级内按截止日期）
+     * @param cursor 上一页返回的 nextCursor，为空时获取第一页
+     * @param limit 每页数量，为空时使用默认值
+     * @return 当前页数据及下一页游标
+     * @throws IllegalArgumentException 如果排序方式或每页数量无效
+     * @throws site.auberginewly.todolist.exception.BadRequestException 如果游标无效
+     */
+    public CursorPage<TodoResponse> getTodoPage(Long userId, long version, String sort, String cursor, Integer limit) {
+        if (userId == null) {
+            throw new IllegalArgumentException("用户ID不能为空");
+        }
+        int size = limit != null ? limit : AppConstants.Pagination.DEFAULT_PAGE_SIZE;
+        if (size < 1 || size > AppConstants.Pagination.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("每页数量必须在 1 到 " + AppConstants.Pagination.MAX_PAGE_SIZE + " 之间");
+        }
+
+        TodoCursor.Sort sortKey = TodoCursor.Sort.fromParam(sort);
+        TodoCursor after = cursor == null || cursor.isBlank() ? null : TodoCursor.decode(cursor, sortKey);
+
+        // 默认每页数量的第一页是最常被重复加载的，按用户缓存
+        if (after == null && size == AppConstants.Pagination.DEFAULT_PAGE_SIZE) {
+            return todoReadCache.getFirstPage(userId, version, sortKey.name(),
+                    () -> loadTodoPage(userId, sortKey, null, size));
+        }
+        return loadTodoPage(userId, sortKey, after, size);
+    }
+
+    private CursorPage<TodoResponse> loadTodoPage(Long userId, TodoCursor.Sort sortKey, TodoCursor after, int size) {
+        // 多取一条用于判断是否还有下一页
+        int fetch = size + 1;
+        List<TodoResponse> rows;
+        switch (sortKey) {
+            case CREATED:
+                rows = fetchByCreatedAt(userId, after, fetch);
+                break;
+            case DUE:
+                rows = fetchByDueDate(userId, after, fetch);
+                break;
+            default:
+                rows = fetchByPriority(userId, after, fetch);
+        }
+
+        boolean hasMore = rows.size() > size;
+        List<TodoResponse> items = hasMore ? new ArrayList<>(rows.subList(0, size)) : rows;
+        String nextCursor = hasMore ? TodoCursor.after(sortKey, items.get(size - 1)).encode() : null;
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    private List<TodoResponse> fetchByCreatedAt(Long userId, TodoCursor after, int fetch) {
+        if (after == null) {
+            return todoRepository.findFirstPageByCreatedAt(userId, Limit.of(fetch));
+        }
+        return todoRepository.findPageByCreatedAtAfter(userId, after.getCreatedAt(), after.getId(), Limit.of(fetch));
+    }
+
+    /**
+     * 按截止日期分两段读取：先读有截止日期的，读完后接着读没有截止日期的
+     */
+    private List<TodoResponse> fetchByDueDate(Long userId, TodoCursor after, int fetch) {
+        if (after != null && after.getDueDate() == null) {
+            return todoRepository.findPageWithoutDueDateAfter(userId, after.getId(), Limit.of(fetch));
+        }
+
+        List<TodoResponse> rows = new ArrayList<>(after == null
+                ? todoRepository.findFirstPageByDueDate(userId, Limit.of(fetch))
+                : todoRepository.findPageByDueDateAfter(userId, after.getDueDate(), after.getId(), Limit.of(fetch)));
+        if (rows.size() < fetch) {
+            rows.addAll(todoRepository.findPageWithoutDueDateAfter(userId, 0L, Limit.of(fetch - rows.size())));
+        }
+        return rows;
+    }
+
+    /**
+     * 按优先级从高到低逐级读取，每一级内与按截止日期相同，先读有截止日期的，再读没有截止日期的；
+     * 每段都是 (user_id, priority_rank, due_date, id) 索引上的一次范围扫描，读满一页即停止
+     */
+    private List<TodoResponse> fetchByPriority(Long userId, TodoCursor after, int fetch) {
+        List<TodoResponse> rows = new ArrayList<>();
+        for (Todo.Priority priority : Todo.Priority.values()) {
+            if (after != null && priority.getRank() < after.getPriority().getRank()) {
+                continue;
+            }
+            boolean resume = after != null && priority == after.getPriority();
+
+            if (!resume || after.getDueDate() != null) {
+                rows.addAll(resume
+                        ? todoRepository.findPageByPriorityAndDueDateAfter(userId, priority, after.getDueDate(),
+                                after.getId(), Limit.of(fetch - rows.size()))
+                        : todoRepository.findFirstPageByPriorityAndDueDate(userId, priority, Limit.of(fetch - rows.size())));
+                if (rows.size() >= fetch) {
+                    return rows;
+                }
+            }
+
+            long afterId = resume && after.getDueDate() == null ? after.getId() : 0L;
+            rows.addAll(todoRepository.findPageByPriorityWithoutDueDateAfter(userId, priority, afterId,
+                    Limit.of(fetch - rows.size())));
+            if (rows.size() >= fetch) {
+                return rows;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 分片获取用户的待办事项（支持筛选、搜索）
+     * 与 {@link #getTodosByUserId} 相同的筛选逻辑，但只多取一条判断是否有下一页，不执行 COUNT 查询；
+     * 搜索结果同样按相关度排序
+     *
+     * @param userId 用户ID
+     * @param status 状态筛选（"all", "completed", "incomplete"）
+     * @param searchTerm 搜索关键词
+     * @param pageable 分页参数
+     * @return 当前分片
+     */
+    public Slice<TodoResponse> getTodoSlice(Long userId, String status, String searchTerm, Pageable pageable) {
+        if (userId == null) {
+            throw new IllegalArgumentException("用户ID不能为空");
+        }
+
+        if (searchTerm != null && !searchTerm.trim().isEmpty()) {
+            List<Long> ids = todoSearchEngine.search(userId, searchTerm.trim(), maxSearchResults);
+            List<Long> pageIds = pageOf(ids, pageable);
+            Map<Long, TodoResponse> todos = pageIds.isEmpty() ? Map.of() : todoRepository
+                    .findSummariesByUserIdAndIdIn(userId, pageIds)
+                    .stream().collect(Collectors.toMap(TodoResponse::getId, Function.identity()));
+            boolean hasNext = pageable.isPaged() && pageable.getOffset() + pageIds.size() < ids.size();
+            return new SliceImpl<>(inOrder(pageIds, todos), pageable, hasNext);
+        }
+        if (AppConstants.Status.COMPLETED.equals(status)) {
+            return todoRepository.findSliceByUserIdAndCompleted(userId, true, pageable);
+        } else if (AppConstants.Status.INCOMPLETE.equals(status)) {
+            return todoRepository.findSliceByUserIdAndCompleted(userId, false, pageable);
+        }
+        return todoRepository.findSliceByUserId(userId, pageable);
+    }
+
+    /**
+     * 按组合条件分片获取用户的待办事项
+     * 状态、优先级、截止日期范围、已过期和搜索词可任意组合，在一条查询中完成筛选和排序；
+     * 搜索词先由搜索引擎得到命中的待办事项，再作为条件之一参与筛选
+     *
+     * @param userId 用户ID
+     * @param request 筛选条件
+     * @return 当前分片
+     * @throws IllegalArgumentException 如果筛选条件、排序或分页参数无效
+     */
+    public Slice<TodoResponse> getTodosByFilter(Long userId, TodoFilterRequest request) {
+        if (userId == null) {
+            throw new IllegalArgumentException("用户ID不能为空");
+        }
+        if (request.getPage() < 0 || request.getSize() < 1 || request.getSize() > AppConstants.Pagination.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("分页参数无效");
+        }
+        if (request.getDueFrom() != null && request.getDueTo() != null && request.getDueFrom().isAfter(request.getDueTo())) {
+            throw new IllegalArgumentException("截止日期范围无效");
+        }
+        Pageable pageable = PageRequest.of(request.getPage(), request.getSize(),
+                filterSort(request.getSort(), request.getDirection()));
+
+        Boolean completed = null;
+        if (AppConstants.Status.COMPLETED.equals(request.getStatus())) {
+            completed = true;
+        } else if (AppConstants.Status.INCOMPLETE.equals(request.getStatus())) {
+            completed = false;
+        } else if (request.getStatus() != null && !AppConstants.Status.ALL.equals(request.getStatus())) {
+            throw new IllegalArgumentException("无效的状态: " + request.getStatus());
+        }
+
+        Set<Todo.Priority> priorities = EnumSet.noneOf(Todo.Priority.class);
+        if (request.getPriority() != null) {
+            for (String priority : request.getPriority()) {
+                try {
+                    priorities.add(Todo.Priority.valueOf(priority.trim().toUpperCase()));
+                } catch (IllegalArgumentException ex) {
+                    throw new IllegalArgumentException("无效的优先级: " + priority);
+                }
+            }
+        }
+
+        List<Long> ids = null;
+        if (request.getQ() != null && !request.getQ().trim().isEmpty()) {
+            ids = todoSearchEngine.search(userId, request.getQ().trim(), maxSearchResults);
+            if (ids.isEmpty()) {
+                return new SliceImpl<>(List.of(), pageable, false);
+            }
+        }
+
+        TodoFilter filter = new TodoFilter(userId, completed, priorities, request.getDueFrom(), request.getDueTo(),
+                request.isOverdue() ? LocalDate.now() : null, ids);
+        return todoRepository.findByFilter(filter, pageable);
+    }
+
+    /**
+     * 组合筛选的排序白名单，相同值时按ID排序保证分页稳定
+     */
+    private static Sort filterSort(String sort, String direction) {
+        Sort.Direction dir;
+        if (direction == null || "asc".equalsIgnoreCase(direction)) {
+            dir = Sort.Direction.ASC;
+        } else if ("desc".equalsIgnoreCase(direction)) {
+            dir = Sort.Direction.DESC;
+        } else {
+            throw new IllegalArgumentException("无效的排序方向: " + direction);
+        }
+
+        String key = sort == null ? "created" : sort;
+        switch (key) {
+            case "created":
+                return Sort.by(dir, "createdAt", "id");
+            case "updated":
+                return Sort.by(dir, "updatedAt", "id");
+            case "dueDate":
+                return Sort.by(dir, "dueDate", "id");
+            case "priority":
+                return Sort.by(dir, "priority", "dueDate", "id");
+            case "title":
+                return Sort.by(dir, "title", "id");
+            default:
+                throw new IllegalArgumentException("无效的排序方式: " + sort);
+        }
+    }
+
+    /**
+     * 取出按相关度排好序的搜索结果中属于当前页的部分
+     */
+    private static List<Long> pageOf(List<Long> ids, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return ids;
+        }
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + pageable.getPageSize(), ids.size());
+        return ids.subList(from, to);
+    }
+
+    /**
+     * 按搜索结果的顺序排列按ID读取的记录，跳过读取时已被删除的
+     */
+    private static <T> List<T> inOrder(List<Long> ids, Map<Long, T> byId) {
+        List<T> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            T item = byId.get(id);
+            if (item != null) {
+                ordered.add(item);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * 获取列表总数
+     * 总数来自按用户维护的计数表而不是对列表查询执行 COUNT；搜索结果没有对应的计数，返回 null
+     *
+     * @param userId 用户ID
+     * @param status 状态筛选（"all", "completed", "incomplete"）
+     * @param searchTerm 搜索关键词
+     * @return 总数，搜索时为 null
+     */
+    public Long getTodoTotal(Long userId, String status, String searchTerm) {
+        if (userId == null) {
+            throw new IllegalArgumentException("用户ID不能为空");
+        }
+        if (searchTerm != null && !searchTerm.trim().isEmpty()) {
+            return null;
+        }
+
+        TodoStats counts = todoStatsService.getCounts(userId);
+        if (AppConstants.Status.COMPLETED.equals(status)) {
+            return counts.getCompleted();
+        } else if (AppConstants.Status.INCOMPLETE.equals(status)) {
+            return counts.getTotal() - counts.getCompleted();
+        }
+        return counts.getTotal();
+    }
+
     /**
      * 获取用户的所有待办事项（不分页）
      * 
@@ -103,7 +602,7 @@ public class TodoService {
      * @param todoId 待办事项ID
      * @param userId 用户ID
      * @return 待办事项信息
-     * @throws IllegalArgumentException 如果待办事项不存在或不属于该用户
+     * @throws IllegalArgumentException 如果待办事项不存在或不属于该用户（两种情况不作区分，避免泄露其他用户的数据）
      */
     public Todo getTodo(Long todoId, Long userId) {
         if (todoId == null) {
@@ -113,28 +612,23 @@ public class TodoService {
             throw new IllegalArgumentException("用户ID不能为空");
         }
 
-        Optional<Todo> todoOptional = todoRepository.findById(todoId);
-        if (todoOptional.isEmpty()) {
-            throw new IllegalArgumentException("待办事项不存在");
-        }
-
-        Todo todo = todoOptional.get();
-        if (!todo.getUserId().equals(userId)) {
-            throw new IllegalArgumentException("无权访问此待办事项");
-        }
-
-        return todo;
+        return todoRepository.findByIdAndUserId(todoId, userId)
+                .orElseThrow(() -> new IllegalArgumentException("待办事项不存在"));
     }
 
     /**
      * 更新待办事项
+     * 只修改请求中携带的字段，由事务提交时的脏检查生成只包含变更列的 UPDATE，
+     * 并通过版本号检测并发修改
      * 
      * @param todoId 待办事项ID
      * @param request 更新的待办事项请求DTO
      * @param userId 用户ID
      * @return 更新后的待办事项
      * @throws IllegalArgumentException 如果待办事项不存在或不属于该用户
+     * @throws ConflictException 如果请求中的版本号与当前版本不一致
      */
+    @Transactional
     public Todo updateTodo(Long todoId, TodoRequest request, Long userId) {
         if (todoId == null) {
             throw new IllegalArgumentException("待办事项ID不能为空");
@@ -148,22 +642,47 @@ public class TodoService {
 
         // 获取现有的待办事项
         Todo existingTodo = getTodo(todoId, userId);
+        if (request.getVersion() != null && !request.getVersion().equals(existingTodo.getVersion())) {
+            throw new ConflictException("待办事项已被修改，请刷新后重试");
+        }
+
+        Todo.Priority priorityBefore = existingTodo.getPriority();
+        boolean textChanged = applyChanges(existingTodo, request);
+        existingTodo.setChangeSeq(todoStatsService.nextChangeSeq(userId));
+        publish(userId, TodoChange.updated(existingTodo, priorityBefore, textChanged));
+
+        // 实体处于托管状态，无需 save
+        return existingTodo;
+    }
+
+    /**
+     * 将请求中的非空字段写入实体
+     * 先校验全部字段再修改实体：校验失败时托管实体保持原样，不会在随后的 flush 中被部分写入
+     *
+     * @return 标题或描述是否发生变化
+     * @throws IllegalArgumentException 如果参数无效
+     */
+    private boolean applyChanges(Todo todo, TodoRequest request) {
+        Todo.Priority priority = request.getPriority() != null ? Todo.Priority.valueOf(request.getPriority()) : null;
+        String title = request.getTitle() != null && !request.getTitle().trim().isEmpty()
+                ? checkTitleLength(request.getTitle().trim())
+                : null;
 
-        // 更新字段（只更新非空字段）
-        if (request.getTitle() != null && !request.getTitle().trim().isEmpty()) {
-            existingTodo.setTitle(request.getTitle().trim());
+        String titleBefore = todo.getTitle();
+        String descriptionBefore = todo.getDescription();
+        if (title != null) {
+            todo.setTitle(title);
         }
         if (request.getDescription() != null) {
-            existingTodo.setDescription(request.getDescription().trim());
+            todo.setDescription(request.getDescription().trim());
         }
-        if (request.getPriority() != null) {
-            existingTodo.setPriority(Todo.Priority.valueOf(request.getPriority()));
+        if (priority != null) {
+            todo.setPriority(priority);
         }
         if (request.getDueDate() != null) {
-            existingTodo.setDueDate(request.getDueDate());
+            todo.setDueDate(request.getDueDate());
         }
-
-        return todoRepository.save(existingTodo);
+        return !Objects.equals(titleBefore, todo.getTitle()) || !Objects.equals(descriptionBefore, todo.getDescription());
     }
 
     /**
@@ -173,6 +692,7 @@ public class TodoService {
      * @param userId 用户ID
      * @throws IllegalArgumentException 如果待办事项不存在或不属于该用户
      */
+    @Transactional
     public void deleteTodo(Long todoId, Long userId) {
         if (todoId == null) {
             throw new IllegalArgumentException("待办事项ID不能为空");
@@ -181,10 +701,18 @@ public class TodoService {
             throw new IllegalArgumentException("用户ID不能为空");
         }
 
-        // 验证待办事项是否存在且属于该用户
-        getTodo(todoId, userId);
-
-        todoRepository.deleteById(todoId);
+        // 先取变更序号：它锁住该用户的统计行，与同一用户的其他写操作串行，
+        // 之后读到的状态不会被并发的切换改掉，删除事件扣减的统计才与已提交的状态一致
+        long changeSeq = todoStatsService.nextChangeSeq(userId);
+        // 只读取统计需要的两列，归属校验在查询条件中完成
+        TodoRepository.StateView state = todoRepository.findStateByIdAndUserId(todoId, userId)
+                .orElseThrow(() -> new IllegalArgumentException("待办事项不存在"));
+        if (todoRepository.deleteByIdAndUserId(todoId, userId) == 0) {
+            throw new IllegalArgumentException("待办事项不存在");
+        }
+        // 留下删除记录，增量同步据此通知客户端
+        todoTombstoneRepository.save(new TodoTombstone(todoId, userId, changeSeq, LocalDateTime.now()));
+        publish(userId, TodoChange.deleted(todoId, state.getPriority(), state.getCompleted()));
     }
 
     /**
@@ -194,23 +722,139 @@ public class TodoService {
      * @param userId 用户ID
      * @return 更新后的待办事项
      */
+    @Transactional
     public Todo toggleTodo(Long todoId, Long userId) {
+        return toggleTodo(todoId, userId, null);
+    }
+
+    /**
+     * 切换待办事项的完成状态
+     * 取反在数据库中原子完成，不经过加载-修改-保存
+     * 
+     * @param todoId 待办事项ID
+     * @param userId 用户ID
+     * @param expectedVersion 客户端持有的版本号，为空时不做版本校验
+     * @return 更新后的待办事项
+     * @throws IllegalArgumentException 如果待办事项不存在或不属于该用户
+     * @throws ConflictException 如果版本号不一致
+     */
+    @Transactional
+    public Todo toggleTodo(Long todoId, Long userId, Long expectedVersion) {
+        if (todoId == null) {
+            throw new IllegalArgumentException("待办事项ID不能为空");
+        }
+        if (userId == null) {
+            throw new IllegalArgumentException("用户ID不能为空");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        long changeSeq = todoStatsService.nextChangeSeq(userId);
+        int updated = expectedVersion == null
+                ? todoRepository.toggleCompleted(todoId, userId, now, changeSeq)
+                : todoRepository.toggleCompletedIfVersion(todoId, userId, expectedVersion, now, changeSeq);
+        if (updated == 0) {
+            // 只有失败时才需要区分不存在和版本冲突
+            if (expectedVersion != null && todoRepository.existsByIdAndUserId(todoId, userId)) {
+                throw new ConflictException("待办事项已被修改，请刷新后重试");
+            }
+            throw new IllegalArgumentException("待办事项不存在");
+        }
         Todo todo = getTodo(todoId, userId);
-        todo.setCompleted(!todo.getCompleted());
-        return todoRepository.save(todo);
+        publish(userId, TodoChange.toggled(todo));
+        return todo;
+    }
+
+    /**
+     * 增量同步：获取同步位置之后插入、更新和删除的待办事项
+     * 先读取当前数据版本作为本次的上限序号：小于等于该序号的变更都已提交，两张表分别读取也不会漏掉变更；
+     * 插入/更新和删除各自通过 (user_id, change_seq, id) 索引读取 limit + 1 条，按 (序号, ID) 合并后截取一页，
+     * 开销只与变更数量有关。返回的 nextToken 指向本页最后一条变更，没有变更时与传入的位置相同。
+     * 从头同步时客户端没有旧数据，不读取删除记录；删除记录只保留 app.todos.sync.tombstone-retention，
+     * 最近一次追上全部变更的时间早于该期限的位置可能漏掉已清理的删除，拒绝并要求全量同步
+     *
+     * @param userId 用户ID
+     * @param since 上次返回的 nextToken，为空时从头同步（返回全部待办事项）
+     * @param limit 每页变更数量，为空时使用默认值
+     * @return 本页的变更及下一次同步的位置
+     * @throws IllegalArgumentException 如果每页数量无效
+     * @throws site.auberginewly.todolist.exception.BadRequestException 如果同步位置无效
+     * @throws SyncExpiredException 如果同步位置早于删除记录的保留期限
+     */
+    @Transactional(readOnly = true)
+    public TodoChangesResponse getChanges(Long userId, String since, Integer limit) {
+        if (userId == null) {
+            throw new IllegalArgumentException("用户ID不能为空");
+        }
+        int size = limit != null ? limit : AppConstants.Pagination.DEFAULT_PAGE_SIZE;
+        if (size < 1 || size > AppConstants.Pagination.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("每页数量必须在 1 到 " + AppConstants.Pagination.MAX_PAGE_SIZE + " 之间");
+        }
+
+        // 先取时间再读数据版本：此刻之后提交的删除，其删除记录的时间不会早于它太多（见 TOMBSTONE_PURGE_GRACE）
+        long now = Instant.now().getEpochSecond();
+        boolean fromStart = since == null || since.isBlank();
+        TodoChangeToken after = fromStart ? TodoChangeToken.start(now) : TodoChangeToken.decode(since);
+        if (after.getSyncedAt() < now - tombstoneRetention.toSeconds()) {
+            throw new SyncExpiredException("同步位置已过期，请不带 since 重新全量同步");
+        }
+        long upTo = todoStatsService.getDataVersion(userId);
+        List<Todo> upserts = todoRepository.findChangesAfter(
+                userId, after.getChangeSeq(), after.getId(), upTo, Limit.of(size + 1));
+        List<TodoTombstone> tombstones = fromStart ? List.of() : todoTombstoneRepository.findChangesAfter(
+                userId, after.getChangeSeq(), after.getId(), upTo, Limit.of(size + 1));
+
+        // 两个有序列表按 (序号, ID) 归并；待办事项ID不会复用，同一个ID不会同时出现在两个列表中
+        List<TodoResponse> upserted = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        TodoChangeToken last = after;
+        int i = 0, j = 0;
+        while (upserted.size() + deleted.size() < size && (i < upserts.size() || j < tombstones.size())) {
+            Todo todo = i < upserts.size() ? upserts.get(i) : null;
+            TodoTombstone tombstone = j < tombstones.size() ? tombstones.get(j) : null;
+            if (tombstone == null || (todo != null && TodoChangeToken.compare(
+                    todo.getChangeSeq(), todo.getId(), tombstone.getChangeSeq(), tombstone.getTodoId()) < 0)) {
+                upserted.add(TodoResponse.fromTodo(todo));
+                last = new TodoChangeToken(todo.getChangeSeq(), todo.getId(), after.getSyncedAt());
+                i++;
+            } else {
+                deleted.add(tombstone.getTodoId());
+                last = new TodoChangeToken(tombstone.getChangeSeq(), tombstone.getTodoId(), after.getSyncedAt());
+                j++;
+            }
+        }
+        boolean hasMore = i < upserts.size() || j < tombstones.size();
+        // 追上全部变更后同步时间推进到本次请求；还有下一页时沿用原来的时间，剩余的删除记录可能早于本次请求
+        TodoChangeToken next = hasMore ? last : new TodoChangeToken(last.getChangeSeq(), last.getId(), now);
+        return new TodoChangesResponse(upserted, deleted, next.encode(), hasMore);
+    }
+
+    /**
+     * 定期清理超过保留期限的删除记录
+     */
+    @Scheduled(fixedDelayString = "${app.todos.sync.tombstone-cleanup-interval:3600000}")
+    public void purgeTombstones() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(tombstoneRetention).minus(TOMBSTONE_PURGE_GRACE);
+        int purged = todoTombstoneRepository.deleteDeletedBefore(cutoff);
+        if (purged > 0) {
+            log.info("Purged {} todo tombstones deleted before {}", purged, cutoff);
+        }
     }
 
     /**
      * 获取用户的已过期待办事项
+     * 结果按用户缓存，写操作提交后失效
      * 
      * @param userId 用户ID
-     * @return 已过期的待办事项列表
+     * @param version 调用方已读取的数据版本（用于 ETag 的同一个值），作为缓存条目的版本
+     * @param today 当前日期，与 ETag 中的日期一致，跨过零点时两者不会错开
+     * @return 已过期的待办事项列表（列表投影，描述已截断）
      */
-    public List<Todo> getOverdueTodos(Long userId) {
+    public List<TodoResponse> getOverdueTodos(Long userId, long version, LocalDate today) {
         if (userId == null) {
             throw new IllegalArgumentException("用户ID不能为空");
         }
-        return todoRepository.findOverdueTodos(userId, LocalDate.now());
+        return todoReadCache.getOverdue(userId, version, today,
+                () -> todoRepository.findOverdueTodoSummaries(userId, today));
     }
 
     /**
@@ -0,0 +1,256 @@
+package site.auberginewly.todolist.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import site.auberginewly.todolist.dto.TodoStatsResponse;
+import site.auberginewly.todolist.entity.Todo;
+import site.auberginewly.todolist.entity.TodoStats;
+import site.auberginewly.todolist.event.TodoChange;
+import site.auberginewly.todolist.event.TodoChangedEvent;
+import site.auberginewly.todolist.repository.TodoRepository;
+import site.auberginewly.todolist.repository.TodoStatsRepository;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 待办事项统计服务类
+ * 维护每个用户一行的计数表：写操作发布的 TodoChangedEvent 在同一事务中转换为一条增量 UPDATE，
+ * 读取统计只需按主键读取一行；定时任务重新统计并校正可能出现的偏差
+ */
+@Service
+@Slf4j
+public class TodoStatsService {
+
+    private final TodoStatsRepository todoStatsRepository;
+    private final TodoRepository todoRepository;
+    private final TransactionTemplate newTransaction;
+    private final TransactionTemplate transaction;
+
+    @Value("${app.todos.stats.reconcile-batch-size:500}")
+    private int reconcileBatchSize;
+
+    public TodoStatsService(TodoStatsRepository todoStatsRepository,
+                            TodoRepository todoRepository,
+                            PlatformTransactionManager transactionManager) {
+        this.todoStatsRepository = todoStatsRepository;
+        this.todoRepository = todoRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 获取用户的统计信息
+     * 计数来自计数表的一行；已过期数量依赖当前日期，无法增量维护，
+     * 通过 (user_id, completed, due_date) 索引的范围计数得到
+     *
+     * @param userId 用户ID
+     * @return 统计信息
+     */
+    @Transactional(readOnly = true)
+    public TodoStatsResponse getStats(Long userId) {
+        if (userId == null) {
+            throw new IllegalArgumentException("用户ID不能为空");
+        }
+        TodoStats stats = getCounts(userId);
+        long overdue = todoRepository.countByUserIdAndCompletedFalseAndDueDateBefore(userId, LocalDate.now());
+
+        Map<String, Long> byPriority = new LinkedHashMap<>();
+        byPriority.put(Todo.Priority.HIGH.name(), stats.getHighCount());
+        byPriority.put(Todo.Priority.MEDIUM.name(), stats.getMediumCount());
+        byPriority.put(Todo.Priority.LOW.name(), stats.getLowCount());
+        return new TodoStatsResponse(stats.getTotal(), stats.getCompleted(),
+                stats.getTotal() - stats.getCompleted(), overdue, byPriority);
+    }
+
+    /**
+     * 获取用户的计数行，不存在时先根据现有数据创建
+     *
+     * @param userId 用户ID
+     * @return 计数行
+     */
+    public TodoStats getCounts(Long userId) {
+        return todoStatsRepository.findById(userId).orElseGet(() -> {
+            initialize(userId);
+            return todoStatsRepository.findById(userId).orElseThrow();
+        });
+    }
+
+    /**
+     * 获取用户的数据版本，即最近一次写操作的变更序号
+     * 只按主键读取一个字段；计数行不存在说明用户还没有发生过写操作，版本为 0
+     *
+     * @param userId 用户ID
+     * @return 数据版本
+     */
+    @Transactional(readOnly = true)
+    public long getDataVersion(Long userId) {
+        if (userId == null) {
+            throw new IllegalArgumentException("用户ID不能为空");
+        }
+        return todoStatsRepository.findDataVersion(userId).orElse(0L);
+    }
+
+    /**
+     * 在写事务中分配下一个变更序号（即递增后的数据版本）
+     * 写操作在修改待办事项之前调用：递增会锁定计数行直到事务提交，同一用户的写事务因此按序号顺序提交，
+     * 读到某个数据版本时，小于等于该版本的变更都已提交，增量同步不会漏掉后提交的较小序号
+     *
+     * @param userId 用户ID
+     * @return 本次写操作的变更序号
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long nextChangeSeq(Long userId) {
+        if (todoStatsRepository.incrementDataVersion(userId) == 0) {
+            // 计数行不存在：在独立事务中按已提交的数据创建后再递增
+            initialize(userId);
+            todoStatsRepository.incrementDataVersion(userId);
+        }
+        return todoStatsRepository.findDataVersion(userId).orElseThrow();
+    }
+
+    /**
+     * 在写事务中应用待办事项变更对计数的影响
+     * 同步监听，与写操作处于同一事务，写操作回滚时计数一并回滚
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onTodoChanged(TodoChangedEvent event) {
+        long total = 0, completed = 0, high = 0, medium = 0, low = 0;
+        for (TodoChange change : event.getChanges()) {
+            if (change.hasBefore()) {
+                total--;
+                completed -= Boolean.TRUE.equals(change.getCompletedBefore()) ? 1 : 0;
+                switch (change.getPriorityBefore()) {
+                    case HIGH -> high--;
+                    case MEDIUM -> medium--;
+                    case LOW -> low--;
+                }
+            }
+            if (change.hasAfter()) {
+                total++;
+                completed += Boolean.TRUE.equals(change.getCompletedAfter()) ? 1 : 0;
+                switch (change.getPriorityAfter()) {
+                    case HIGH -> high++;
+                    case MEDIUM -> medium++;
+                    case LOW -> low++;
+                }
+            }
+        }
+        if (total == 0 && completed == 0 && high == 0 && medium == 0 && low == 0) {
+            return;
+        }
+
+        Long userId = event.getUserId();
+        if (todoStatsRepository.applyDelta(userId, total, completed, high, medium, low) == 0) {
+            // 计数行不存在：在独立事务中按已提交的数据创建，再把本次变更叠加上去
+            initialize(userId);
+            todoStatsRepository.applyDelta(userId, total, completed, high, medium, low);
+        }
+    }
+
+    /**
+     * 定期重新统计并校正所有用户的计数
+     */
+    @Scheduled(fixedDelayString = "${app.todos.stats.reconcile-interval:3600000}",
+               initialDelayString = "${app.todos.stats.reconcile-interval:3600000}")
+    public void reconcileAll() {
+        int corrected = 0;
+        long afterUserId = 0L;
+        List<Long> userIds;
+        do {
+            userIds = todoStatsRepository.findUserIdsAfter(afterUserId, Limit.of(reconcileBatchSize));
+            for (Long userId : userIds) {
+                if (reconcile(userId)) {
+                    corrected++;
+                }
+                afterUserId = userId;
+            }
+        } while (userIds.size() == reconcileBatchSize);
+
+        if (corrected > 0) {
+            log.warn("Corrected todo stats drift for {} users", corrected);
+        }
+    }
+
+    /**
+     * 校正单个用户的计数
+     * 先锁定计数行再重新统计：并发写操作的增量更新会等待校正提交后再叠加，不会丢失
+     *
+     * @param userId 用户ID
+     * @return 是否发现并修正了偏差
+     */
+    public boolean reconcile(Long userId) {
+        Boolean corrected = transaction.execute(status -> {
+            TodoStats stats = todoStatsRepository.findForUpdate(userId).orElse(null);
+            if (stats == null) {
+                return false;
+            }
+            TodoStats actual = recount(userId);
+            // 校正只修改计数，数据版本保持不变
+            actual.setDataVersion(stats.getDataVersion());
+            if (actual.equals(stats)) {
+                return false;
+            }
+            log.debug("Todo stats drift for user {}: {} -> {}", userId, stats, actual);
+            stats.setTotal(actual.getTotal());
+            stats.setCompleted(actual.getCompleted());
+            stats.setHighCount(actual.getHighCount());
+            stats.setMediumCount(actual.getMediumCount());
+            stats.setLowCount(actual.getLowCount());
+            return true;
+        });
+        return Boolean.TRUE.equals(corrected);
+    }
+
+    /**
+     * 在独立事务中根据已提交的数据创建计数行
+     * 并发创建时主键冲突说明其他事务已经创建，忽略即可
+     */
+    private void initialize(Long userId) {
+        try {
+            newTransaction.executeWithoutResult(status -> {
+                if (!todoStatsRepository.existsById(userId)) {
+                    todoStatsRepository.saveAndFlush(recount(userId));
+                }
+            });
+        } catch (DataIntegrityViolationException ex) {
+            log.debug("Todo stats row for user {} was created concurrently", userId);
+        }
+    }
+
+    /**
+     * 按 (priority, completed) 分组重新统计，一次查询得到所有计数
+     */
+    private TodoStats recount(Long userId) {
+        TodoStats stats = new TodoStats(userId, 0, 0, 0, 0, 0, 0);
+        for (Object[] row : todoRepository.countByPriorityAndCompleted(userId)) {
+            Todo.Priority priority = (Todo.Priority) row[0];
+            boolean completed = Boolean.TRUE.equals(row[1]);
+            long count = ((Number) row[2]).longValue();
+            stats.setTotal(stats.getTotal() + count);
+            if (completed) {
+                stats.setCompleted(stats.getCompleted() + count);
+            }
+            switch (priority) {
+                case HIGH -> stats.setHighCount(stats.getHighCount() + count);
+                case MEDIUM -> stats.setMediumCount(stats.getMediumCount() + count);
+                case LOW -> stats.setLowCount(stats.getLowCount() + count);
+            }
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,201 @@
+package site.auberginewly.todolist.stream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import site.auberginewly.todolist.dto.TodoStreamEvent;
+import site.auberginewly.todolist.event.TodoChange;
+import site.auberginewly.todolist.event.TodoChangedEvent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 待办事项推送中心
+ * 按用户ID维护 SSE 订阅者，写事务提交后把变更分发给该用户的所有连接。
+ * 连接使用 Servlet 异步请求，空闲时不占用线程；发布方只做非阻塞的入队，
+ * 每个订阅者的缓冲区有上限，慢客户端不会占用更多内存。
+ * 写入连接始终在虚拟线程上执行（与 spring.threads.virtual.enabled 无关）：不读取数据的客户端会让写入一直阻塞，
+ * 若使用固定大小的线程池，少数几个这样的连接就能占满所有线程，其他用户都收不到推送；
+ * 使用虚拟线程时阻塞的写入只挂起它自己的线程。单次写入超过 write-timeout 的连接在下次心跳时被移除
+ */
+@Component
+@Slf4j
+public class TodoEventHub implements DisposableBean {
+
+    private final Map<Long, Set<TodoSubscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService dispatcher;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final long writeTimeoutNanos;
+    private final Counter overflows;
+    private final Counter stalled;
+
+    public TodoEventHub(MeterRegistry meterRegistry,
+                        @Value("${app.todos.stream.buffer-size:64}") int bufferSize,
+                        @Value("${app.todos.stream.timeout:30m}") Duration timeout,
+                        @Value("${app.todos.stream.write-timeout:10s}") Duration writeTimeout) {
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        this.writeTimeoutNanos = writeTimeout.toNanos();
+        this.dispatcher = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("todo-stream-", 1).factory());
+        this.stalled = Counter.builder("todos.stream.stalled")
+                .description("Connections dropped because a single write exceeded the write timeout")
+                .register(meterRegistry);
+        this.overflows = Counter.builder("todos.stream.overflows")
+                .description("Subscriber buffers that overflowed and were coalesced into a resync event")
+                .register(meterRegistry);
+        Gauge.builder("todos.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open todo event stream connections")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 订阅当前用户的变更事件
+     *
+     * @param userId 用户ID
+     * @return 交给 Spring MVC 的 SSE 连接
+     */
+    public SseEmitter subscribe(Long userId) {
+        if (userId == null) {
+            throw new IllegalArgumentException("用户ID不能为空");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        TodoSubscriber subscriber = register(userId, emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(ex -> subscriber.close());
+        // 立即发送一次心跳，让响应头尽快发出，客户端据此确认连接已建立
+        schedule(subscriber, subscriber.requestHeartbeat());
+        return emitter;
+    }
+
+    /**
+     * 登记订阅者
+     */
+    TodoSubscriber register(Long userId, SseEmitter emitter) {
+        TodoSubscriber subscriber = new TodoSubscriber(userId, emitter, bufferSize, overflows, this::unregister);
+        subscribers.compute(userId, (key, set) -> {
+            Set<TodoSubscriber> target = set != null ? set : ConcurrentHashMap.newKeySet();
+            target.add(subscriber);
+            return target;
+        });
+        subscriberCount.incrementAndGet();
+        return subscriber;
+    }
+
+    /**
+     * 写事务提交后分发变更
+     * 在提交事务的线程中执行，只做入队，不等待任何连接的写入
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTodoChanged(TodoChangedEvent event) {
+        Set<TodoSubscriber> targets = subscribers.get(event.getUserId());
+        if (targets == null) {
+            return;
+        }
+        List<TodoStreamEvent> events = new ArrayList<>(event.getChanges().size());
+        for (TodoChange change : event.getChanges()) {
+            events.add(TodoStreamEvent.from(change));
+        }
+        for (TodoSubscriber subscriber : targets) {
+            boolean submit = false;
+            for (TodoStreamEvent streamEvent : events) {
+                submit |= subscriber.offer(streamEvent);
+            }
+            schedule(subscriber, submit);
+        }
+    }
+
+    /**
+     * 定期向所有连接发送心跳，保持代理上的空闲连接，并及时发现已断开的客户端；
+     * 写入阻塞超过 write-timeout 的连接直接移除，阻塞的写入由容器的写超时（server.tomcat.connection-timeout）结束
+     */
+    @Scheduled(fixedDelayString = "${app.todos.stream.heartbeat-interval:30000}",
+               initialDelayString = "${app.todos.stream.heartbeat-interval:30000}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        for (Set<TodoSubscriber> set : subscribers.values()) {
+            for (TodoSubscriber subscriber : set) {
+                if (subscriber.isStalled(now, writeTimeoutNanos)) {
+                    stalled.increment();
+                    drop(subscriber);
+                } else {
+                    schedule(subscriber, subscriber.requestHeartbeat());
+                }
+            }
+        }
+    }
+
+    /**
+     * 当前连接数
+     */
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @Override
+    public void destroy() {
+        dispatcher.shutdownNow();
+        for (Set<TodoSubscriber> set : subscribers.values()) {
+            for (TodoSubscriber subscriber : set) {
+                subscriber.getEmitter().complete();
+            }
+        }
+        subscribers.clear();
+    }
+
+    private void schedule(TodoSubscriber subscriber, boolean submit) {
+        if (!submit) {
+            return;
+        }
+        try {
+            dispatcher.execute(subscriber::drain);
+        } catch (RejectedExecutionException ex) {
+            // 应用正在关闭
+            subscriber.close();
+        }
+    }
+
+    /**
+     * 移除写入阻塞的订阅者
+     * complete 要等阻塞的写入结束才能执行，因此放到单独的虚拟线程中，不阻塞心跳
+     */
+    private void drop(TodoSubscriber subscriber) {
+        subscriber.close();
+        try {
+            dispatcher.execute(() -> subscriber.getEmitter().complete());
+        } catch (RejectedExecutionException ex) {
+            // 应用正在关闭，destroy 会结束所有连接
+        }
+    }
+
+    /**
+     * 移除订阅者，用户的最后一个订阅者移除后同时移除该用户
+     */
+    private void unregister(TodoSubscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.getUserId(), (key, set) -> {
+            if (set.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return set.isEmpty() ? null : set;
+        });
+    }
+}
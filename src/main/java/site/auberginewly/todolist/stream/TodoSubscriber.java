@@ -0,0 +1,151 @@
+package site.auberginewly.todolist.stream;
+
+import io.micrometer.core.instrument.Counter;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import site.auberginewly.todolist.dto.TodoStreamEvent;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 推送流的单个订阅者
+ * 发布方只把事件放入有界缓冲区，由分发任务写入连接；同一订阅者同时最多只有一个分发任务，保证事件顺序。
+ * 缓冲区满时丢弃已缓冲的事件，合并为一个 resync 事件，客户端收到后通过增量同步补齐
+ */
+final class TodoSubscriber {
+
+    static final String RESYNC = "resync";
+
+    private final Long userId;
+    private final SseEmitter emitter;
+    private final int capacity;
+    private final Counter overflows;
+    private final Consumer<TodoSubscriber> onClose;
+
+    private final Queue<TodoStreamEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();           // 队列长度，ConcurrentLinkedQueue.size() 需要遍历
+    private final AtomicBoolean scheduled = new AtomicBoolean();      // 是否已有分发任务
+    private final AtomicBoolean resyncPending = new AtomicBoolean();  // 缓冲区溢出，待发送 resync
+    private final AtomicBoolean heartbeatPending = new AtomicBoolean();
+    private volatile long writeStartedNanos;                          // 正在进行的写入开始的时间，0 表示没有写入
+    private volatile boolean closed;
+
+    TodoSubscriber(Long userId, SseEmitter emitter, int capacity, Counter overflows,
+                   Consumer<TodoSubscriber> onClose) {
+        this.userId = userId;
+        this.emitter = emitter;
+        this.capacity = capacity;
+        this.overflows = overflows;
+        this.onClose = onClose;
+    }
+
+    Long getUserId() {
+        return userId;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    /**
+     * 放入一个事件，不阻塞
+     *
+     * @return true 表示调用方需要提交分发任务
+     */
+    boolean offer(TodoStreamEvent event) {
+        if (closed) {
+            return false;
+        }
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            if (!resyncPending.getAndSet(true)) {
+                overflows.increment();
+            }
+        } else {
+            queue.offer(event);
+        }
+        return scheduled.compareAndSet(false, true);
+    }
+
+    /**
+     * 请求发送心跳，缓冲区中已有事件时心跳随事件一起发出
+     *
+     * @return true 表示调用方需要提交分发任务
+     */
+    boolean requestHeartbeat() {
+        if (closed) {
+            return false;
+        }
+        heartbeatPending.set(true);
+        return scheduled.compareAndSet(false, true);
+    }
+
+    /**
+     * 把缓冲的事件写入连接，在分发任务中执行
+     * 写入失败说明客户端已断开，关闭订阅
+     */
+    void drain() {
+        do {
+            try {
+                if (resyncPending.getAndSet(false)) {
+                    // 缓冲的事件已被 resync 覆盖，直接丢弃
+                    while (queue.poll() != null) {
+                        size.decrementAndGet();
+                    }
+                    send(SseEmitter.event().name(RESYNC).data(RESYNC));
+                }
+                TodoStreamEvent event;
+                // 发生溢出时停止发送旧事件，回到循环开头改为发送 resync
+                while (!closed && !resyncPending.get() && (event = queue.poll()) != null) {
+                    size.decrementAndGet();
+                    send(SseEmitter.event().name(event.getType()).data(event, MediaType.APPLICATION_JSON));
+                }
+                if (heartbeatPending.getAndSet(false)) {
+                    send(SseEmitter.event().comment("ping"));
+                }
+            } catch (IOException | IllegalStateException ex) {
+                close();
+                return;
+            }
+            scheduled.set(false);
+        } while (!closed && hasPending() && scheduled.compareAndSet(false, true));
+    }
+
+    /**
+     * 当前写入是否已阻塞超过指定时间
+     */
+    boolean isStalled(long now, long timeoutNanos) {
+        long started = writeStartedNanos;
+        return started != 0 && now - started > timeoutNanos;
+    }
+
+    /**
+     * 关闭订阅并释放缓冲区，可重复调用
+     */
+    void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        queue.clear();
+        onClose.accept(this);
+    }
+
+    private void send(SseEmitter.SseEventBuilder event) throws IOException {
+        writeStartedNanos = System.nanoTime();
+        try {
+            emitter.send(event);
+        } finally {
+            writeStartedNanos = 0;
+        }
+    }
+
+    private boolean hasPending() {
+        return !queue.isEmpty() || resyncPending.get() || heartbeatPending.get();
+    }
+}
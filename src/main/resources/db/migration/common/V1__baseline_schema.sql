@@ -0,0 +1,66 @@
+-- ================================
+-- 基础表结构（H2 与 PostgreSQL 通用）
+-- 列定义与实体映射保持一致，生产环境由 Hibernate validate 校验
+-- ================================
+
+-- 用户
+CREATE TABLE users (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username   VARCHAR(50)  NOT NULL,
+    password   VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
+
+-- 待办事项，主键由序列按 50 一段分配，与实体的 allocationSize 一致
+CREATE SEQUENCE todos_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE todos (
+    id          BIGINT       NOT NULL PRIMARY KEY,
+    title       VARCHAR(255) NOT NULL,
+    description TEXT,
+    completed   BOOLEAN      NOT NULL,
+    priority    VARCHAR(10)  NOT NULL,
+    due_date    DATE,
+    user_id     BIGINT       NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6) NOT NULL,
+    version     BIGINT       NOT NULL,
+    CONSTRAINT ck_todos_priority CHECK (priority IN ('HIGH', 'MEDIUM', 'LOW'))
+);
+
+-- 刷新令牌（只保存哈希）
+CREATE TABLE refresh_tokens (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id    BIGINT       NOT NULL,
+    token_hash VARCHAR(64)  NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL,
+    revoked_at TIMESTAMP(6),
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_refresh_tokens_token_hash UNIQUE (token_hash)
+);
+
+-- 已吊销的访问令牌
+CREATE TABLE revoked_tokens (
+    jti        VARCHAR(36)  NOT NULL PRIMARY KEY,
+    expires_at TIMESTAMP(6) NOT NULL
+);
+
+-- 每个用户一行的待办事项计数
+CREATE TABLE todo_stats (
+    user_id      BIGINT NOT NULL PRIMARY KEY,
+    total        BIGINT NOT NULL,
+    completed    BIGINT NOT NULL,
+    high_count   BIGINT NOT NULL,
+    medium_count BIGINT NOT NULL,
+    low_count    BIGINT NOT NULL
+);
+
+-- 搜索用的三字符片段倒排索引
+CREATE TABLE todo_trigrams (
+    user_id BIGINT      NOT NULL,
+    trigram VARCHAR(12) NOT NULL,
+    todo_id BIGINT      NOT NULL,
+    PRIMARY KEY (user_id, trigram, todo_id)
+);
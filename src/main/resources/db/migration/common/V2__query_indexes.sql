@@ -0,0 +1,34 @@
+-- ================================
+-- 仓库查询使用的索引
+-- 每个索引后注明它服务的查询；主键和唯一约束已覆盖的查询不再单独建索引：
+--   todos 主键：findByIdAndUserId、findStateByIdAndUserId、existsByIdAndUserId、deleteByIdAndUserId、
+--               toggleCompleted*、findByUserIdAndIdIn、findIdsMatching、findSummariesByUserIdAndIdIn
+--   users.username、refresh_tokens.token_hash 唯一约束；todo_stats、revoked_tokens 主键
+-- ================================
+
+-- findByUserId、按创建时间的游标分页、findSliceByUserId、countByUserId、标题搜索的用户范围
+CREATE INDEX idx_todos_user_created ON todos (user_id, created_at, id);
+
+-- 按截止日期的游标分页（含无截止日期部分）、findByUserIdAndDueDate
+CREATE INDEX idx_todos_user_due ON todos (user_id, due_date, id);
+
+-- 已过期查询和计数、countByUserIdAndCompletedTrue/False、findByUserIdAndCompleted
+CREATE INDEX idx_todos_user_completed_due ON todos (user_id, completed, due_date);
+
+-- 按完成状态筛选的分片，按创建时间排序直接由索引顺序提供
+CREATE INDEX idx_todos_user_completed_created ON todos (user_id, completed, created_at, id);
+
+-- findByUserIdAndPriority、countByPriorityAndCompleted（覆盖索引，分组无需回表）
+CREATE INDEX idx_todos_user_priority ON todos (user_id, priority, completed);
+
+-- revokeAllByUserId
+CREATE INDEX idx_refresh_tokens_user ON refresh_tokens (user_id);
+
+-- 刷新令牌过期清理
+CREATE INDEX idx_refresh_tokens_expires ON refresh_tokens (expires_at);
+
+-- findActiveJtis、已吊销令牌过期清理
+CREATE INDEX idx_revoked_tokens_expires ON revoked_tokens (expires_at);
+
+-- 重建待办事项的搜索片段时按待办事项删除
+CREATE INDEX idx_todo_trigrams_todo ON todo_trigrams (todo_id);
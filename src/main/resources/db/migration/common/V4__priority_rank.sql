@@ -0,0 +1,20 @@
+-- ================================
+-- 优先级改为数字等级存储（HIGH=1、MEDIUM=2、LOW=3）
+-- 按等级排序即为优先级顺序，(user_id, priority_rank, due_date, id) 索引直接提供"按优先级再按截止日期"的顺序
+-- ================================
+ALTER TABLE todos ADD COLUMN priority_rank SMALLINT;
+
+UPDATE todos SET priority_rank = CASE priority WHEN 'HIGH' THEN 1 WHEN 'LOW' THEN 3 ELSE 2 END;
+
+ALTER TABLE todos ALTER COLUMN priority_rank SET NOT NULL;
+
+ALTER TABLE todos ADD CONSTRAINT ck_todos_priority_rank CHECK (priority_rank BETWEEN 1 AND 3);
+
+DROP INDEX idx_todos_user_priority;
+
+ALTER TABLE todos DROP CONSTRAINT ck_todos_priority;
+
+ALTER TABLE todos DROP COLUMN priority;
+
+-- findByUserIdAndPriority、按优先级排序的游标分页和分片、countByPriorityAndCompleted
+CREATE INDEX idx_todos_user_priority_due ON todos (user_id, priority_rank, due_date, id);
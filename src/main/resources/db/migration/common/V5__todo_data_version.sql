@@ -0,0 +1,5 @@
+-- ================================
+-- 用户数据版本：每次待办事项写操作在同一条计数 UPDATE 中加一
+-- 列表和详情接口据此生成 ETag，条件请求只需按主键读取 todo_stats 一行
+-- ================================
+ALTER TABLE todo_stats ADD COLUMN data_version BIGINT DEFAULT 0 NOT NULL;
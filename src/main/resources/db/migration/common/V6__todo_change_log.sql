@@ -0,0 +1,19 @@
+-- ================================
+-- 增量同步：待办事项记录最后一次写入的变更序号，删除后留下删除记录
+-- 变更序号取自 todo_stats.data_version，已有的待办事项序号为 0，从头同步时全部返回
+-- ================================
+ALTER TABLE todos ADD COLUMN change_seq BIGINT DEFAULT 0 NOT NULL;
+
+-- findChangesAfter
+CREATE INDEX idx_todos_user_change ON todos (user_id, change_seq, id);
+
+CREATE TABLE todo_tombstones (
+    todo_id    BIGINT    NOT NULL,
+    user_id    BIGINT    NOT NULL,
+    change_seq BIGINT    NOT NULL,
+    deleted_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (todo_id)
+);
+
+-- TodoTombstoneRepository.findChangesAfter
+CREATE INDEX idx_todo_tombstones_user_change ON todo_tombstones (user_id, change_seq, todo_id);
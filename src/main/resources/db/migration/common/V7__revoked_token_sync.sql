@@ -0,0 +1,8 @@
+-- ================================
+-- 多实例吊销同步：记录吊销时间，各实例定期读取最近吊销的令牌加入自己的过滤器
+-- 已有记录的吊销时间取迁移时间
+-- ================================
+ALTER TABLE revoked_tokens ADD COLUMN revoked_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP NOT NULL;
+
+-- RevokedTokenRepository.findJtisRevokedSince
+CREATE INDEX idx_revoked_tokens_revoked ON revoked_tokens (revoked_at);
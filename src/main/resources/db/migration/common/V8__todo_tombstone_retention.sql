@@ -0,0 +1,6 @@
+-- ================================
+-- 删除记录保留期限：定期清理超过期限的删除记录
+-- ================================
+
+-- TodoTombstoneRepository.deleteDeletedBefore
+CREATE INDEX idx_todo_tombstones_deleted ON todo_tombstones (deleted_at);
@@ -0,0 +1,9 @@
+-- ================================
+-- PostgreSQL 搜索索引（app.todos.search.engine=postgres 时使用）
+-- pg_trgm 的 GIN 索引可以直接服务 LOWER(...) LIKE '%词%'；创建扩展需要相应的数据库权限
+-- ================================
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_todos_title_trgm ON todos USING gin (lower(title) gin_trgm_ops);
+
+CREATE INDEX idx_todos_description_trgm ON todos USING gin (lower(description) gin_trgm_ops);
@@ -0,0 +1,103 @@
+package site.auberginewly.todolist.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import site.auberginewly.todolist.dto.CursorPage;
+import site.auberginewly.todolist.dto.TodoResponse;
+import site.auberginewly.todolist.entity.Todo;
+import site.auberginewly.todolist.event.TodoChangedEvent;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TodoReadCache 单元测试
+ */
+class TodoReadCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TodoReadCache todoReadCache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        todoReadCache = new TodoReadCache(meterRegistry, 1000, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void getFirstPage_RepeatedReads_ShouldLoadOnceAndReturnCopies() {
+        // When
+        CursorPage<TodoResponse> first = todoReadCache.getFirstPage(1L, 0L, "CREATED", this::loadPage);
+        first.setTotal(10L);
+        CursorPage<TodoResponse> second = todoReadCache.getFirstPage(1L, 0L, "CREATED", this::loadPage);
+
+        // Then
+        assertEquals(1, loads.get());
+        assertNull(second.getTotal());
+        assertEquals(first.getItems(), second.getItems());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "todos").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void onTodoChanged_ShouldEvictOnlyThatUser() {
+        // Given
+        LocalDate today = LocalDate.now();
+        todoReadCache.getFirstPage(1L, 0L, "DUE", this::loadPage);
+        todoReadCache.getOverdue(1L, 0L, today, this::loadList);
+        todoReadCache.getOverdue(2L, 0L, today, this::loadList);
+
+        // When
+        todoReadCache.onTodoChanged(new TodoChangedEvent(1L, List.of()));
+        todoReadCache.getFirstPage(1L, 0L, "DUE", this::loadPage);
+        todoReadCache.getOverdue(1L, 0L, today, this::loadList);
+        todoReadCache.getOverdue(2L, 0L, today, this::loadList);
+
+        // Then：用户 1 的两个条目重新加载，用户 2 命中缓存
+        assertEquals(5, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.invalidations").tag("cache", "todos").counter().count());
+    }
+
+    @Test
+    void getFirstPage_NewerVersionBeforeEviction_ShouldNotReturnStaleEntry() {
+        // Given: 版本 3 时缓存了第一页
+        todoReadCache.getFirstPage(1L, 3L, "CREATED", this::loadPage);
+
+        // When: 写操作已提交（版本变为 4），提交后的清除还没执行时，读到新版本的请求到达
+        CursorPage<TodoResponse> afterCommit = todoReadCache.getFirstPage(1L, 4L, "CREATED", this::loadPage);
+        CursorPage<TodoResponse> again = todoReadCache.getFirstPage(1L, 4L, "CREATED", this::loadPage);
+        // 仍持有旧版本的请求直接使用更新的条目
+        todoReadCache.getFirstPage(1L, 3L, "CREATED", this::loadPage);
+
+        // Then: 只为新版本重新加载一次
+        assertEquals(2, loads.get());
+        assertEquals(afterCommit.getItems(), again.getItems());
+    }
+
+    @Test
+    void getOverdue_ShouldReturnUnmodifiableList() {
+        List<TodoResponse> overdue = todoReadCache.getOverdue(1L, 0L, LocalDate.now(), this::loadList);
+
+        assertThrows(UnsupportedOperationException.class, () -> overdue.add(null));
+    }
+
+    private CursorPage<TodoResponse> loadPage() {
+        return new CursorPage<>(loadList(), null, false);
+    }
+
+    private List<TodoResponse> loadList() {
+        loads.incrementAndGet();
+        List<TodoResponse> items = new ArrayList<>();
+        items.add(new TodoResponse(1L, "待办事项", null, false, Todo.Priority.HIGH, LocalDate.now().minusDays(1),
+                1L, LocalDateTime.now(), LocalDateTime.now(), 0L));
+        return items;
+    }
+}
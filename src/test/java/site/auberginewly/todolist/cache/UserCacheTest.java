@@ -0,0 +1,90 @@
+package site.auberginewly.todolist.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import site.auberginewly.todolist.entity.User;
+import site.auberginewly.todolist.repository.UserRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * UserCache 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class UserCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserCache userCache;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userCache = new UserCache(userRepository, meterRegistry, 100, Duration.ofMinutes(10));
+
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setUsername("testuser");
+        testUser.setPassword("encodedPassword");
+        testUser.setCreatedAt(LocalDateTime.now());
+        testUser.setUpdatedAt(LocalDateTime.now());
+    }
+
+    @Test
+    void get_RepeatedLookups_ShouldHitDatabaseOnce() {
+        // Given
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+        // When
+        Optional<CachedUser> first = userCache.get("testuser");
+        Optional<CachedUser> second = userCache.get("testuser");
+
+        // Then
+        assertTrue(first.isPresent());
+        assertTrue(second.isPresent());
+        assertEquals(1L, second.get().getId());
+        assertEquals("encodedPassword", second.get().getPasswordHash());
+        verify(userRepository, times(1)).findByUsername("testuser");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void get_UnknownUser_ShouldNotBeCached() {
+        // Given
+        when(userRepository.findByUsername("nobody")).thenReturn(Optional.empty());
+
+        // When
+        userCache.get("nobody");
+        userCache.get("nobody");
+
+        // Then
+        verify(userRepository, times(2)).findByUsername("nobody");
+    }
+
+    @Test
+    void evict_ShouldReloadOnNextLookup() {
+        // Given
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        userCache.get("testuser");
+
+        // When
+        userCache.evict("testuser");
+        userCache.get("testuser");
+
+        // Then
+        verify(userRepository, times(2)).findByUsername("testuser");
+        assertEquals(1.0, meterRegistry.get("cache.invalidations").counter().count());
+    }
+}
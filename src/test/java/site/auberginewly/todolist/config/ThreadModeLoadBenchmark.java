@@ -0,0 +1,164 @@
+package site.auberginewly.todolist.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+import site.auberginewly.todolist.TodoListApplication;
+import site.auberginewly.todolist.security.AuthenticatedUser;
+import site.auberginewly.todolist.security.JwtTokenProvider;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 平台线程与虚拟线程压测对比，运行方式：./gradlew benchmark
+ * 分别以 spring.threads.virtual.enabled=false/true 启动应用，在高并发下请求一个阻塞接口：
+ * 从连接池取出连接后，先等待固定时间模拟远程数据库的网络往返，再在同一连接上执行一次真实的查询，
+ * 与真实的慢查询一样在整个往返期间占用连接。
+ * 平台线程模式的吞吐受 Tomcat 线程数（默认 200）限制，虚拟线程模式受连接池大小限制，
+ * 因此连接池需大于 Tomcat 线程数才能看出差别，结果中一并输出连接池大小；
+ * 并发数、请求数和连接池大小可通过 -Dload.concurrency、-Dload.requests 和 -Dload.pool-size 调整（受文件描述符上限限制）
+ */
+@Tag("benchmark")
+class ThreadModeLoadBenchmark {
+
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 1_000);
+    private static final int REQUESTS = Integer.getInteger("load.requests", 20_000);
+    private static final int WARMUP = 2_000;
+    private static final int POOL_SIZE = Integer.getInteger("load.pool-size", 400);
+    private static final long DB_ROUND_TRIP_MILLIS = 20;
+
+    @Test
+    void virtualThreads_ShouldServeMoreBlockingRequestsThanPlatformThreads() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.printf("load x%d requests, %d concurrent, %d ms round trip holding a connection, pool size %d%n",
+                REQUESTS, CONCURRENCY, DB_ROUND_TRIP_MILLIS, POOL_SIZE);
+        System.out.println("platform threads: " + platform);
+        System.out.println("virtual threads:  " + virtual);
+        assertEquals(0, platform.errors);
+        assertEquals(0, virtual.errors);
+        assertTrue(virtual.throughput > platform.throughput,
+                "virtual threads should not be capped by the Tomcat worker pool");
+    }
+
+    private static Result run(boolean virtualThreads) throws Exception {
+        ApplicationContextInitializer<GenericApplicationContext> blockingRoute =
+                context -> context.registerBean("blockingRoute", RouterFunction.class,
+                        () -> blockingRoute(context.getBeanProvider(JdbcTemplate.class)));
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TodoListApplication.class)
+                .profiles("test")
+                .properties("server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.datasource.url=jdbc:h2:mem:threadmode-" + virtualThreads + ";DB_CLOSE_DELAY=-1",
+                        "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE)
+                .initializers(blockingRoute)
+                .run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String token = context.getBean(JwtTokenProvider.class)
+                    .generateToken(AuthenticatedUser.of(1L, "load-bench", List.of("USER")));
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/bench/blocking"))
+                    .header("Authorization", "Bearer " + token)
+                    .build();
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+            load(client, request, WARMUP, new long[WARMUP]);
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            threads.resetPeakThreadCount();
+            long[] latencies = new long[REQUESTS];
+            long start = System.nanoTime();
+            int errors = load(client, request, REQUESTS, latencies);
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+            Arrays.sort(latencies);
+            return new Result(REQUESTS / seconds, latencies[REQUESTS / 2] / 1_000_000.0,
+                    latencies[(int) (REQUESTS * 0.99)] / 1_000_000.0, threads.getPeakThreadCount(),
+                    context.getBean(HikariDataSource.class).getMaximumPoolSize(), errors);
+        }
+    }
+
+    /**
+     * 保持 CONCURRENCY 个请求同时在途，记录每个请求的耗时，返回非 200 响应和失败的数量
+     */
+    private static int load(HttpClient client, HttpRequest request, int count, long[] latencies)
+            throws InterruptedException {
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        CountDownLatch done = new CountDownLatch(count);
+        AtomicInteger errors = new AtomicInteger();
+        for (int i = 0; i < count; i++) {
+            inFlight.acquire();
+            int index = i;
+            long sentAt = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, ex) -> {
+                latencies[index] = System.nanoTime() - sentAt;
+                if (ex != null || response.statusCode() != 200) {
+                    errors.incrementAndGet();
+                }
+                inFlight.release();
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(5, TimeUnit.MINUTES), "load run should finish");
+        return errors.get();
+    }
+
+    /**
+     * 阻塞接口：持有一个连接等待模拟的数据库往返，再在该连接上执行一次查询，期间一直占用处理请求的线程和连接
+     */
+    private static RouterFunction<ServerResponse> blockingRoute(ObjectProvider<JdbcTemplate> jdbcTemplate) {
+        return RouterFunctions.route()
+                .GET("/bench/blocking", request -> {
+                    Long count = jdbcTemplate.getObject().execute((ConnectionCallback<Long>) connection -> {
+                        try {
+                            Thread.sleep(DB_ROUND_TRIP_MILLIS);
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                            throw new IllegalStateException(ex);
+                        }
+                        try (Statement statement = connection.createStatement();
+                             ResultSet rows = statement.executeQuery("SELECT COUNT(*) FROM todos")) {
+                            rows.next();
+                            return rows.getLong(1);
+                        }
+                    });
+                    return ServerResponse.ok().body(String.valueOf(count));
+                })
+                .build();
+    }
+
+    private record Result(double throughput, double p50Millis, double p99Millis, int peakThreads, int poolSize,
+                          int errors) {
+
+        @Override
+        public String toString() {
+            return String.format("%.0f req/s, p50 %.1f ms, p99 %.1f ms, peak threads %d, connection pool %d, errors %d",
+                    throughput, p50Millis, p99Millis, peakThreads, poolSize, errors);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package site.auberginewly.todolist.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import site.auberginewly.todolist.repository.RecordingStatementInspector;
+import site.auberginewly.todolist.security.AuthenticatedUser;
+import site.auberginewly.todolist.security.JwtTokenProvider;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 条件请求（ETag）接口测试
+ * 经过完整的 MVC 和安全过滤器链，记录每次请求发出的 SQL，检查 304 响应不查询待办事项表
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "site.auberginewly.todolist.repository.RecordingStatementInspector")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TodoControllerEtagTest {
+
+    private static final long USER_ID = 8_101L;
+
+    /**
+     * 匹配读取 todos 表的语句；todo_stats 等其他表不匹配
+     */
+    private static final Pattern TODOS_TABLE = Pattern.compile("(?i)\\btodos\\b");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Test
+    void getTodos_ShouldReturnEtagAndAnswerMatchingRevalidationWithoutQueryingTodos() throws Exception {
+        // Given
+        createTodo("条件请求测试");
+        String etag = mockMvc.perform(get("/todos").header(HttpHeaders.AUTHORIZATION, bearer()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When
+        RecordingStatementInspector.clear();
+        mockMvc.perform(get("/todos").header(HttpHeaders.AUTHORIZATION, bearer())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                // Then: 只读取了数据版本
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(content().string(""));
+        List<String> statements = RecordingStatementInspector.statements();
+        assertFalse(statements.isEmpty(), "data version should be read");
+        assertTrue(statements.stream().noneMatch(sql -> TODOS_TABLE.matcher(sql).find()),
+                "304 should not query todos: " + statements);
+    }
+
+    @Test
+    void getTodos_AfterWrite_ShouldChangeEtag() throws Exception {
+        // Given
+        long todoId = createTodo("写入后 ETag 变化");
+        String before = mockMvc.perform(get("/todos").header(HttpHeaders.AUTHORIZATION, bearer()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When
+        mockMvc.perform(post("/todos/{id}/toggle", todoId).header(HttpHeaders.AUTHORIZATION, bearer()))
+                .andExpect(status().isOk());
+
+        // Then: 旧 ETag 不再命中，返回新内容和新 ETag
+        String after = mockMvc.perform(get("/todos").header(HttpHeaders.AUTHORIZATION, bearer())
+                        .header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(after);
+        assertNotEquals(before, after);
+    }
+
+    @Test
+    void getOverdueTodos_EtagShouldIncludeDate() throws Exception {
+        // Given
+        createTodo("已过期条件请求测试");
+
+        // When
+        String etag = mockMvc.perform(get("/todos/overdue").header(HttpHeaders.AUTHORIZATION, bearer()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String listEtag = mockMvc.perform(get("/todos").header(HttpHeaders.AUTHORIZATION, bearer()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Then: 数据不变、日期变化后已过期列表也会变化，ETag 带上日期；同一天内可以命中 304
+        assertNotNull(etag);
+        assertTrue(etag.contains(LocalDate.now().toString()), etag);
+        assertFalse(listEtag.contains(LocalDate.now().toString()), listEtag);
+        mockMvc.perform(get("/todos/overdue").header(HttpHeaders.AUTHORIZATION, bearer())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    private long createTodo(String title) throws Exception {
+        String body = mockMvc.perform(post("/todos").header(HttpHeaders.AUTHORIZATION, bearer())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"" + title + "\",\"dueDate\":\"" + LocalDate.now().minusDays(1) + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return ((Number) JsonPath.read(body, "$.data.id")).longValue();
+    }
+
+    private String bearer() {
+        return "Bearer " + jwtTokenProvider.generateToken(AuthenticatedUser.of(USER_ID, "etag-test", List.of("USER")));
+    }
+}
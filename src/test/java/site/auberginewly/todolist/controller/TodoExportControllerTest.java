@@ -0,0 +1,174 @@
+package site.auberginewly.todolist.controller;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import site.auberginewly.todolist.security.AuthenticatedUser;
+import site.auberginewly.todolist.security.JwtTokenProvider;
+import site.auberginewly.todolist.service.TodoExportService;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 导出接口测试
+ * 经过完整的 MVC 异步处理流程，检查响应体在哪个线程上写出，以及写出期间是否占用连接和持久化上下文
+ */
+@SpringBootTest(properties = "app.todos.export.page-size=10")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TodoExportControllerTest {
+
+    private static final long USER_ID = 8_001L;
+    private static final int ROWS = 200;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private HikariDataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoSpyBean
+    private TodoExportService todoExportService;
+
+    @Test
+    void export_ShouldRunOnVirtualThreadOfApplicationTaskExecutor() throws Exception {
+        // Given
+        AtomicReference<Thread> exportThread = new AtomicReference<>();
+        doAnswer(invocation -> {
+            exportThread.set(Thread.currentThread());
+            return invocation.callRealMethod();
+        }).when(todoExportService).export(any(), any(), any());
+
+        // When
+        MvcResult result = mockMvc.perform(get("/todos/export").header(HttpHeaders.AUTHORIZATION, bearer()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+        // Then: 使用 Spring Boot 的 applicationTaskExecutor（虚拟线程），而不是回退到 SimpleAsyncTaskExecutor 的平台线程
+        assertTrue(applicationContext.containsBean("applicationTaskExecutor"));
+        assertNotNull(exportThread.get());
+        assertTrue(exportThread.get().isVirtual(), "export ran on " + exportThread.get());
+    }
+
+    @Test
+    void export_MidStream_ShouldHoldNoConnectionOrPersistenceContext() throws Exception {
+        // Given: 20 页数据，输出超过 BufferedWriter 的缓冲区，写出发生在两页查询之间
+        insertTodos();
+        Probe probe = new Probe();
+        doAnswer(invocation -> {
+            if (invocation.getArgument(2) instanceof ProbeOutputStream) {
+                return invocation.callRealMethod();
+            }
+            todoExportService.export(invocation.getArgument(0), invocation.getArgument(1),
+                    new ProbeOutputStream(invocation.getArgument(2), probe));
+            return null;
+        }).when(todoExportService).export(any(), any(), any());
+
+        // When
+        MvcResult result = mockMvc.perform(get("/todos/export").header(HttpHeaders.AUTHORIZATION, bearer()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult completed = mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk()).andReturn();
+
+        // Then: 首次写出时没有占用连接，线程上也没有绑定请求的 EntityManager（Open Session in View 已关闭）
+        assertEquals(ROWS, completed.getResponse().getContentAsString().lines().count());
+        assertTrue(probe.measured, "output should be written while pages remain");
+        assertEquals(0, probe.activeConnections);
+        assertFalse(probe.entityManagerBound);
+    }
+
+    private void insertTodos() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new Object[]{70_000_000L + i, "导出测试 " + i, "描述 " + "x".repeat(200), USER_ID, now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO todos (id, title, description, completed, priority_rank, user_id, " +
+                "created_at, updated_at, version, change_seq) VALUES (?, ?, ?, FALSE, 2, ?, ?, ?, 0, 0)", rows);
+    }
+
+    private String bearer() {
+        return "Bearer " + jwtTokenProvider.generateToken(AuthenticatedUser.of(USER_ID, "export-test", List.of("USER")));
+    }
+
+    /**
+     * 第一次写出时记录的状态
+     */
+    private static final class Probe {
+        volatile boolean measured;
+        volatile int activeConnections = -1;
+        volatile boolean entityManagerBound;
+    }
+
+    /**
+     * 在第一次写出时记录正在使用的连接数和线程上是否绑定了 EntityManager
+     */
+    private final class ProbeOutputStream extends FilterOutputStream {
+
+        private final Probe probe;
+
+        ProbeOutputStream(OutputStream out, Probe probe) {
+            super(out);
+            this.probe = probe;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            measure();
+            out.write(bytes, offset, length);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            measure();
+            out.write(b);
+        }
+
+        private void measure() {
+            if (!probe.measured) {
+                probe.activeConnections = dataSource.getHikariPoolMXBean().getActiveConnections();
+                probe.entityManagerBound = TransactionSynchronizationManager.hasResource(entityManagerFactory);
+                probe.measured = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package site.auberginewly.todolist.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import site.auberginewly.todolist.entity.Todo;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 仓库查询索引使用测试（H2，表结构来自 Flyway 迁移）
+ * 逐个调用各仓库接口中声明的查询方法，记录 Hibernate 实际发出的 SQL 并执行 EXPLAIN，
+ * 断言执行计划中没有全表扫描；仓库新增查询方法而未在这里覆盖时测试失败
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "site.auberginewly.todolist.repository.RecordingStatementInspector")
+@ActiveProfiles("test")
+@Transactional
+class RepositoryIndexUsageTest {
+
+    private static final Long USER_ID = 1L;
+    private static final LocalDateTime NOW = LocalDateTime.now();
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final List<Long> IDS = List.of(1L, 2L);
+    private static final PageRequest PAGE = PageRequest.of(0, 20, Sort.by("createdAt", "id"));
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TodoStatsRepository todoStatsRepository;
+
+    @Autowired
+    private TodoTrigramRepository todoTrigramRepository;
+
+    @Autowired
+    private TodoTombstoneRepository todoTombstoneRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void todoRepository_EveryQueryShouldUseAnIndex() {
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("findByIdAndUserId", () -> todoRepository.findByIdAndUserId(1L, USER_ID));
+        queries.put("findStateByIdAndUserId", () -> todoRepository.findStateByIdAndUserId(1L, USER_ID));
+        queries.put("findByUserIdAndIdIn", () -> todoRepository.findByUserIdAndIdIn(USER_ID, IDS));
+        queries.put("deleteByIdAndUserId", () -> todoRepository.deleteByIdAndUserId(1L, USER_ID));
+        queries.put("existsByIdAndUserId", () -> todoRepository.existsByIdAndUserId(1L, USER_ID));
+        queries.put("toggleCompleted", () -> todoRepository.toggleCompleted(1L, USER_ID, NOW, 1L));
+        queries.put("toggleCompletedIfVersion", () -> todoRepository.toggleCompletedIfVersion(1L, USER_ID, 0L, NOW, 1L));
+        queries.put("findByUserId", () -> {
+            todoRepository.findByUserId(USER_ID);
+            todoRepository.findByUserId(USER_ID, PAGE);
+        });
+        queries.put("findChangesAfter", () -> todoRepository.findChangesAfter(USER_ID, 5L, 0L, 10L, Limit.of(21)));
+        queries.put("findExportPageByCreatedAt", () -> todoRepository.findExportPageByCreatedAt(USER_ID, Limit.of(500)));
+        queries.put("findExportPageByCreatedAtAfter",
+                () -> todoRepository.findExportPageByCreatedAtAfter(USER_ID, NOW, 1L, Limit.of(500)));
+        queries.put("findFirstPageByCreatedAt", () -> todoRepository.findFirstPageByCreatedAt(USER_ID, Limit.of(21)));
+        queries.put("findPageByCreatedAtAfter", () -> todoRepository.findPageByCreatedAtAfter(USER_ID, NOW, 1L, Limit.of(21)));
+        queries.put("findFirstPageByDueDate", () -> todoRepository.findFirstPageByDueDate(USER_ID, Limit.of(21)));
+        queries.put("findPageByDueDateAfter", () -> todoRepository.findPageByDueDateAfter(USER_ID, TODAY, 1L, Limit.of(21)));
+        queries.put("findPageWithoutDueDateAfter", () -> todoRepository.findPageWithoutDueDateAfter(USER_ID, 0L, Limit.of(21)));
+        queries.put("findFirstPageByPriorityAndDueDate",
+                () -> todoRepository.findFirstPageByPriorityAndDueDate(USER_ID, Todo.Priority.HIGH, Limit.of(21)));
+        queries.put("findPageByPriorityAndDueDateAfter", () -> todoRepository.findPageByPriorityAndDueDateAfter(
+                USER_ID, Todo.Priority.HIGH, TODAY, 1L, Limit.of(21)));
+        queries.put("findPageByPriorityWithoutDueDateAfter", () -> todoRepository.findPageByPriorityWithoutDueDateAfter(
+                USER_ID, Todo.Priority.HIGH, 0L, Limit.of(21)));
+        queries.put("findByUserIdAndCompleted", () -> {
+            todoRepository.findByUserIdAndCompleted(USER_ID, true);
+            todoRepository.findByUserIdAndCompleted(USER_ID, true, PAGE);
+        });
+        queries.put("findSliceByUserId", () -> {
+            todoRepository.findSliceByUserId(USER_ID, PAGE);
+            todoRepository.findSliceByUserId(USER_ID, PageRequest.of(0, 20, Sort.by("priority", "dueDate", "id")));
+        });
+        queries.put("findSliceByUserIdAndCompleted", () -> todoRepository.findSliceByUserIdAndCompleted(USER_ID, false, PAGE));
+        queries.put("searchIdsByTrigrams", () -> todoRepository.searchIdsByTrigrams(
+                USER_ID, Set.of("abc", "bcd"), 2, "%abcd%", Limit.of(10)));
+        queries.put("searchIdsByTrigramPrefix",
+                () -> todoRepository.searchIdsByTrigramPrefix(USER_ID, "ab%", "%ab%", Limit.of(10)));
+        queries.put("findUnindexedAfter", () -> todoRepository.findUnindexedAfter(0L, Limit.of(500)));
+        queries.put("findSummariesByUserIdAndIdIn", () -> todoRepository.findSummariesByUserIdAndIdIn(USER_ID, IDS));
+        queries.put("findByUserIdAndTitleContainingIgnoreCase", () -> {
+            todoRepository.findByUserIdAndTitleContainingIgnoreCase(USER_ID, "a");
+            todoRepository.findByUserIdAndTitleContainingIgnoreCase(USER_ID, "a", PAGE);
+        });
+        queries.put("findByUserIdAndPriority", () -> todoRepository.findByUserIdAndPriority(USER_ID, Todo.Priority.HIGH));
+        queries.put("findByUserIdAndDueDate", () -> todoRepository.findByUserIdAndDueDate(USER_ID, TODAY));
+        queries.put("findOverdueTodos", () -> todoRepository.findOverdueTodos(USER_ID, TODAY));
+        queries.put("findOverdueTodoSummaries", () -> todoRepository.findOverdueTodoSummaries(USER_ID, TODAY));
+        queries.put("countByUserIdAndCompletedFalseAndDueDateBefore",
+                () -> todoRepository.countByUserIdAndCompletedFalseAndDueDateBefore(USER_ID, TODAY));
+        queries.put("countByPriorityAndCompleted", () -> todoRepository.countByPriorityAndCompleted(USER_ID));
+        queries.put("countByUserId", () -> todoRepository.countByUserId(USER_ID));
+        queries.put("countByUserIdAndCompletedTrue", () -> todoRepository.countByUserIdAndCompletedTrue(USER_ID));
+        queries.put("countByUserIdAndCompletedFalse", () -> todoRepository.countByUserIdAndCompletedFalse(USER_ID));
+
+        assertQueriesUseIndexes(TodoRepository.class, queries);
+    }
+
+    @Test
+    void todoFilterRepository_EveryShapeShouldUseAnIndex() {
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("findByFilter", () -> {
+            todoRepository.findByFilter(new TodoFilter(USER_ID, null, Set.of(), null, null, null, null), PAGE);
+            todoRepository.findByFilter(new TodoFilter(USER_ID, false, Set.of(Todo.Priority.HIGH, Todo.Priority.LOW),
+                    TODAY, TODAY.plusDays(7), null, IDS), PageRequest.of(0, 20, Sort.by("priority", "dueDate", "id")));
+            todoRepository.findByFilter(new TodoFilter(USER_ID, null, Set.of(), null, null, TODAY, null),
+                    PageRequest.of(1, 20, Sort.by(Sort.Direction.DESC, "title", "id")));
+        });
+        assertQueriesUseIndexes(TodoFilterRepository.class, queries);
+    }
+
+    @Test
+    void otherRepositories_EveryQueryShouldUseAnIndex() {
+        Map<String, Runnable> statsQueries = new LinkedHashMap<>();
+        statsQueries.put("applyDelta", () -> todoStatsRepository.applyDelta(USER_ID, 1, 0, 1, 0, 0));
+        statsQueries.put("incrementDataVersion", () -> todoStatsRepository.incrementDataVersion(USER_ID));
+        statsQueries.put("findDataVersion", () -> todoStatsRepository.findDataVersion(USER_ID));
+        statsQueries.put("findForUpdate", () -> todoStatsRepository.findForUpdate(USER_ID));
+        statsQueries.put("findUserIdsAfter", () -> todoStatsRepository.findUserIdsAfter(0L, Limit.of(500)));
+        assertQueriesUseIndexes(TodoStatsRepository.class, statsQueries);
+
+        Map<String, Runnable> trigramQueries = new LinkedHashMap<>();
+        trigramQueries.put("deleteByTodoIdIn", () -> todoTrigramRepository.deleteByTodoIdIn(IDS));
+        assertQueriesUseIndexes(TodoTrigramRepository.class, trigramQueries);
+
+        Map<String, Runnable> tombstoneQueries = new LinkedHashMap<>();
+        tombstoneQueries.put("findChangesAfter",
+                () -> todoTombstoneRepository.findChangesAfter(USER_ID, 5L, 0L, 10L, Limit.of(21)));
+        tombstoneQueries.put("deleteDeletedBefore", () -> todoTombstoneRepository.deleteDeletedBefore(NOW));
+        assertQueriesUseIndexes(TodoTombstoneRepository.class, tombstoneQueries);
+
+        Map<String, Runnable> userQueries = new LinkedHashMap<>();
+        userQueries.put("findByUsername", () -> userRepository.findByUsername("alice"));
+        userQueries.put("existsByUsername", () -> userRepository.existsByUsername("alice"));
+        userQueries.put("updatePassword", () -> userRepository.updatePassword(1L, "hash", NOW));
+        userQueries.put("updatePasswordIfUnchanged", () -> userRepository.updatePasswordIfUnchanged(1L, "old", "new"));
+        assertQueriesUseIndexes(UserRepository.class, userQueries);
+
+        Map<String, Runnable> refreshTokenQueries = new LinkedHashMap<>();
+        refreshTokenQueries.put("findByTokenHash", () -> refreshTokenRepository.findByTokenHash("hash"));
+        refreshTokenQueries.put("revokeIfActive", () -> refreshTokenRepository.revokeIfActive(1L, NOW));
+        refreshTokenQueries.put("revokeAllByUserId", () -> refreshTokenRepository.revokeAllByUserId(USER_ID, NOW));
+        refreshTokenQueries.put("deleteExpired", () -> refreshTokenRepository.deleteExpired(NOW));
+        assertQueriesUseIndexes(RefreshTokenRepository.class, refreshTokenQueries);
+
+        Map<String, Runnable> revokedTokenQueries = new LinkedHashMap<>();
+        revokedTokenQueries.put("findActiveJtis", () -> revokedTokenRepository.findActiveJtis(NOW));
+        revokedTokenQueries.put("findJtisRevokedSince", () -> revokedTokenRepository.findJtisRevokedSince(NOW, NOW));
+        revokedTokenQueries.put("deleteExpired", () -> revokedTokenRepository.deleteExpired(NOW));
+        assertQueriesUseIndexes(RevokedTokenRepository.class, revokedTokenQueries);
+    }
+
+    private void assertQueriesUseIndexes(Class<?> repository, Map<String, Runnable> queries) {
+        Set<String> declared = Arrays.stream(repository.getDeclaredMethods())
+                .filter(method -> !method.isDefault() && !Modifier.isStatic(method.getModifiers()))
+                .map(Method::getName)
+                .collect(Collectors.toSet());
+        assertEquals(declared, queries.keySet(), repository.getSimpleName() + " 中的查询方法需要全部覆盖");
+
+        List<String> scans = new ArrayList<>();
+        queries.forEach((name, query) -> {
+            RecordingStatementInspector.clear();
+            query.run();
+            List<String> statements = RecordingStatementInspector.statements();
+            assertFalse(statements.isEmpty(), name + " 没有发出 SQL");
+            for (String sql : statements) {
+                String plan = explain(sql);
+                if (plan.contains("tableScan")) {
+                    scans.add(name + ":\n" + plan);
+                }
+            }
+        });
+        assertTrue(scans.isEmpty(), "以下查询使用了全表扫描:\n" + String.join("\n\n", scans));
+    }
+
+    /**
+     * 执行计划在预编译时生成，参数只需占位
+     */
+    private String explain(String sql) {
+        int parameters = (int) sql.chars().filter(c -> c == '?').count();
+        return jdbcTemplate.query("EXPLAIN " + sql, ps -> {
+            for (int i = 1; i <= parameters; i++) {
+                ps.setNull(i, Types.NULL);
+            }
+        }, rs -> {
+            StringBuilder plan = new StringBuilder();
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+            return plan.toString();
+        });
+    }
+}
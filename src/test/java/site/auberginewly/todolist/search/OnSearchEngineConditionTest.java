@@ -0,0 +1,50 @@
+package site.auberginewly.todolist.search;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * OnSearchEngineCondition 单元测试
+ */
+class OnSearchEngineConditionTest {
+
+    @Test
+    void resolve_AutoOnPostgres_ShouldChoosePostgres() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.url", "jdbc:postgresql://localhost:5432/todolist");
+
+        assertEquals("postgres", OnSearchEngineCondition.resolve(environment));
+        environment.setProperty("app.todos.search.engine", "auto");
+        assertEquals("postgres", OnSearchEngineCondition.resolve(environment));
+    }
+
+    @Test
+    void resolve_AutoOnOtherDatabases_ShouldChooseTrigram() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.todos.search.engine", "auto")
+                .withProperty("spring.datasource.url", "jdbc:mysql://localhost:3306/todolist");
+        assertEquals("trigram", OnSearchEngineCondition.resolve(environment));
+
+        environment.setProperty("spring.datasource.url", "jdbc:h2:mem:todolist");
+        assertEquals("trigram", OnSearchEngineCondition.resolve(environment));
+    }
+
+    @Test
+    void resolve_ExplicitEngine_ShouldOverrideDatasource() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.todos.search.engine", "trigram")
+                .withProperty("spring.datasource.url", "jdbc:postgresql://localhost:5432/todolist");
+
+        assertEquals("trigram", OnSearchEngineCondition.resolve(environment));
+    }
+
+    @Test
+    void resolve_UnknownEngine_ShouldThrowException() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.todos.search.engine", "lucene");
+
+        assertThrows(IllegalArgumentException.class, () -> OnSearchEngineCondition.resolve(environment));
+    }
+}
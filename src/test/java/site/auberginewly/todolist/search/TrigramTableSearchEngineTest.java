@@ -0,0 +1,198 @@
+package site.auberginewly.todolist.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import site.auberginewly.todolist.entity.Todo;
+import site.auberginewly.todolist.entity.TodoTrigram;
+import site.auberginewly.todolist.event.TodoChange;
+import site.auberginewly.todolist.event.TodoChangedEvent;
+import site.auberginewly.todolist.repository.TodoRepository;
+import site.auberginewly.todolist.repository.TodoTrigramRepository;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * TrigramTableSearchEngine 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class TrigramTableSearchEngineTest {
+
+    @Mock
+    private TodoTrigramRepository todoTrigramRepository;
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private TrigramTableSearchEngine searchEngine;
+
+    private final Long userId = 1L;
+
+    @Test
+    void index_ShouldLowercaseAndPadEachField() {
+        Set<String> trigrams = Trigrams.index("ABcd", "会议");
+
+        assertTrue(trigrams.contains("abc"));
+        assertTrue(trigrams.contains("bcd"));
+        // 末尾填充使短子串也能按前缀命中
+        assertTrue(trigrams.contains("d" + Trigrams.PADDING));
+        assertTrue(trigrams.contains("会议\u0001"));
+        // 两个字段分别切分
+        assertFalse(trigrams.contains("d会议"));
+    }
+
+    @Test
+    void search_ShouldMatchCandidatesContainingAllTrigramsInOneQuery() {
+        // Given
+        when(todoRepository.searchIdsByTrigrams(eq(userId), eq(Set.of("rep", "epo", "por")), eq(3L), eq("%repor%"),
+                any(Limit.class))).thenReturn(List.of(4L));
+
+        // When
+        List<Long> result = searchEngine.search(userId, "RePor", 50);
+
+        // Then: 候选不预先截断，LIKE 校验和 limit 在同一条查询中完成
+        assertEquals(List.of(4L), result);
+        verify(todoRepository).searchIdsByTrigrams(eq(userId), anyCollection(), eq(3L), anyString(), eq(Limit.of(50)));
+        verify(todoRepository, never()).searchIdsByTrigramPrefix(anyLong(), anyString(), anyString(), any(Limit.class));
+    }
+
+    @Test
+    void search_ShortTerm_ShouldUseTrigramPrefix() {
+        // Given
+        when(todoRepository.searchIdsByTrigramPrefix(eq(userId), eq("a\\_%"), eq("%a\\_%"), any(Limit.class)))
+                .thenReturn(List.of());
+
+        // When
+        List<Long> result = searchEngine.search(userId, "a_", 50);
+
+        // Then
+        assertTrue(result.isEmpty());
+        verify(todoRepository, never()).searchIdsByTrigrams(anyLong(), anyCollection(), anyLong(), anyString(),
+                any(Limit.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void backfill_ShouldIndexUnindexedTodosInBatches() {
+        // Given
+        ReflectionTestUtils.setField(searchEngine, "backfillBatchSize", 2);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(todoRepository.findUnindexedAfter(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(text(1L, "abc"), text(3L, "xyz")));
+        when(todoRepository.findUnindexedAfter(eq(3L), any(Limit.class))).thenReturn(List.of(text(7L, "old")));
+        when(todoRepository.findUnindexedAfter(eq(7L), any(Limit.class))).thenReturn(List.of());
+
+        // When
+        long indexed = searchEngine.backfill();
+
+        // Then
+        assertEquals(3, indexed);
+        ArgumentCaptor<List<TodoTrigram>> captor = ArgumentCaptor.forClass(List.class);
+        verify(todoTrigramRepository, times(2)).saveAll(captor.capture());
+        assertTrue(captor.getAllValues().get(0).contains(new TodoTrigram(userId, "abc", 1L)));
+        assertTrue(captor.getAllValues().get(0).contains(new TodoTrigram(userId, "xyz", 3L)));
+        assertTrue(captor.getAllValues().get(1).contains(new TodoTrigram(userId, "old", 7L)));
+    }
+
+    @Test
+    void backfill_ConcurrentlyIndexedBatch_ShouldRereadAndContinue() {
+        // Given: 第一次写入与并发写入冲突，重新读取后该待办事项已不在结果中
+        ReflectionTestUtils.setField(searchEngine, "backfillBatchSize", 2);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(todoRepository.findUnindexedAfter(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(text(1L, "abc"), text(2L, "def")))
+                .thenReturn(List.of(text(2L, "def")))
+                .thenReturn(List.of());
+        when(todoRepository.findUnindexedAfter(eq(2L), any(Limit.class))).thenReturn(List.of());
+        when(todoTrigramRepository.saveAll(anyList()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"))
+                .thenReturn(List.of());
+
+        // When
+        long indexed = searchEngine.backfill();
+
+        // Then
+        assertEquals(1, indexed);
+        verify(todoTrigramRepository, times(2)).saveAll(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onTodoChanged_ShouldReindexChangedTextAndDropDeleted() {
+        // Given
+        Todo updated = todo(2L, "abc");
+        TodoChange toggled = TodoChange.toggled(todo(3L, "xyz"));
+
+        // When
+        searchEngine.onTodoChanged(new TodoChangedEvent(userId, List.of(
+                TodoChange.created(todo(1L, "new")),
+                TodoChange.updated(updated, Todo.Priority.MEDIUM, true),
+                toggled,
+                TodoChange.deleted(4L, Todo.Priority.LOW, false))));
+
+        // Then
+        verify(todoTrigramRepository).deleteByTodoIdIn(List.of(2L, 4L));
+        ArgumentCaptor<List<TodoTrigram>> captor = ArgumentCaptor.forClass(List.class);
+        verify(todoTrigramRepository).saveAll(captor.capture());
+        List<TodoTrigram> rows = captor.getValue();
+        assertTrue(rows.contains(new TodoTrigram(userId, "new", 1L)));
+        assertTrue(rows.contains(new TodoTrigram(userId, "abc", 2L)));
+        assertTrue(rows.stream().noneMatch(row -> row.getTodoId() == 3L || row.getTodoId() == 4L));
+    }
+
+    private TodoRepository.TextView text(Long id, String title) {
+        return new TodoRepository.TextView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+
+            @Override
+            public String getDescription() {
+                return null;
+            }
+        };
+    }
+
+    private Todo todo(Long id, String title) {
+        Todo todo = new Todo();
+        todo.setId(id);
+        todo.setTitle(title);
+        todo.setCompleted(false);
+        todo.setPriority(Todo.Priority.MEDIUM);
+        todo.setUserId(userId);
+        return todo;
+    }
+}
@@ -0,0 +1,119 @@
+package site.auberginewly.todolist.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import site.auberginewly.todolist.exception.ServiceUnavailableException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BoundedPasswordEncoder 单元测试
+ */
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (encoder != null) {
+            encoder.destroy();
+        }
+    }
+
+    @Test
+    void encode_ShouldDelegateAndRecordMetrics() {
+        // Given
+        encoder = new BoundedPasswordEncoder(new PrefixEncoder(null, null), 2, 4, Duration.ofSeconds(5), meterRegistry);
+
+        // When
+        String encoded = encoder.encode("secret");
+
+        // Then
+        assertEquals("hashed:secret", encoded);
+        assertTrue(encoder.matches("secret", encoded));
+        assertEquals(2, meterRegistry.get("password.hash.time").timer().count());
+        assertEquals(2, meterRegistry.get("password.hash.queue.wait").timer().count());
+    }
+
+    @Test
+    void encode_QueueFull_ShouldRejectFast() throws Exception {
+        // Given: 1 个线程被占用，队列容量 1 也被占满
+        encoder = new BoundedPasswordEncoder(new PrefixEncoder(started, release), 1, 1, Duration.ofSeconds(5), meterRegistry);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+        waitForQueueSize(1);
+
+        // When & Then
+        assertThrows(ServiceUnavailableException.class, () -> encoder.encode("third"));
+        assertEquals(1.0, meterRegistry.get("password.hash.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("hashed:first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hashed:second", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void encode_WaitTimeout_ShouldThrowServiceUnavailable() throws Exception {
+        // Given
+        encoder = new BoundedPasswordEncoder(new PrefixEncoder(started, release), 1, 1, Duration.ofMillis(50), meterRegistry);
+
+        // When & Then
+        assertThrows(ServiceUnavailableException.class, () -> encoder.encode("slow"));
+    }
+
+    private void waitForQueueSize(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.get("password.hash.queue.size").gauge().value() < expected) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("task was not queued in time");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * 测试用编码器，可选择阻塞直到被释放
+     */
+    private static final class PrefixEncoder implements PasswordEncoder {
+
+        private final CountDownLatch started;
+        private final CountDownLatch release;
+
+        PrefixEncoder(CountDownLatch started, CountDownLatch release) {
+            this.started = started;
+            this.release = release;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            if (started != null) {
+                started.countDown();
+            }
+            if (release != null) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return "hashed:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
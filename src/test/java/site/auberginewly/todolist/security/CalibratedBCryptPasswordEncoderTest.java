@@ -0,0 +1,52 @@
+package site.auberginewly.todolist.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CalibratedBCryptPasswordEncoder 单元测试
+ */
+class CalibratedBCryptPasswordEncoderTest {
+
+    @Test
+    void upgradeEncoding_LowerCost_ShouldReturnTrue() {
+        CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(5);
+
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password")));
+    }
+
+    @Test
+    void upgradeEncoding_HigherCost_ShouldReturnFalse() {
+        CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(5);
+
+        assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("password")));
+    }
+
+    @Test
+    void upgradeEncoding_SameCost_ShouldReturnFalse() {
+        CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(5);
+
+        assertFalse(encoder.upgradeEncoding(encoder.encode("password")));
+        assertFalse(encoder.upgradeEncoding("not-a-bcrypt-hash"));
+        assertFalse(encoder.upgradeEncoding(null));
+    }
+
+    @Test
+    void calibrate_TinyTarget_ShouldStayAtMinimum() {
+        CalibratedBCryptPasswordEncoder encoder = CalibratedBCryptPasswordEncoder.calibrate(Duration.ofNanos(1), 4, 12);
+
+        assertEquals(4, encoder.getStrength());
+        assertTrue(encoder.matches("password", encoder.encode("password")));
+    }
+
+    @Test
+    void calibrate_ShouldNotExceedMaximum() {
+        CalibratedBCryptPasswordEncoder encoder = CalibratedBCryptPasswordEncoder.calibrate(Duration.ofHours(1), 4, 6);
+
+        assertEquals(6, encoder.getStrength());
+    }
+}
@@ -0,0 +1,110 @@
+package site.auberginewly.todolist.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JwtTokenProvider 单元测试
+ */
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "test-jwt-secret-key-for-testing-purposes-only";
+
+    private JwtTokenProvider tokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = newProvider(SECRET, 3600000);
+    }
+
+    @Test
+    void parseAndValidate_ValidToken_ShouldReturnClaims() {
+        // Given
+        String token = tokenProvider.generateToken(userFor("testuser"));
+
+        // When
+        TokenValidationResult result = tokenProvider.parseAndValidate(token);
+
+        // Then
+        assertTrue(result.isValid());
+        assertNull(result.getFailure());
+        assertEquals("testuser", result.getClaims().getSubject());
+    }
+
+    @Test
+    void toAuthenticatedUser_ValidToken_ShouldCarryUserIdAndRoles() {
+        // Given
+        String token = tokenProvider.generateToken(userFor("testuser"));
+        TokenValidationResult result = tokenProvider.parseAndValidate(token);
+
+        // When
+        AuthenticatedUser user = tokenProvider.toAuthenticatedUser(result.getClaims());
+
+        // Then
+        assertNotNull(user);
+        assertEquals(42L, user.getId());
+        assertEquals("testuser", user.getName());
+        assertEquals(List.of("ROLE_USER"), user.getRoles());
+    }
+
+    @Test
+    void parseAndValidate_EmptyToken_ShouldReturnEmpty() {
+        TokenValidationResult result = tokenProvider.parseAndValidate("");
+
+        assertFalse(result.isValid());
+        assertEquals(TokenValidationResult.Failure.EMPTY, result.getFailure());
+    }
+
+    @Test
+    void parseAndValidate_MalformedToken_ShouldReturnMalformed() {
+        TokenValidationResult result = tokenProvider.parseAndValidate("not-a-jwt");
+
+        assertFalse(result.isValid());
+        assertEquals(TokenValidationResult.Failure.MALFORMED, result.getFailure());
+    }
+
+    @Test
+    void parseAndValidate_ExpiredToken_ShouldReturnExpired() {
+        // Given
+        JwtTokenProvider expiredProvider = newProvider(SECRET, -1000);
+        String token = expiredProvider.generateToken(userFor("testuser"));
+
+        // When
+        TokenValidationResult result = tokenProvider.parseAndValidate(token);
+
+        // Then
+        assertFalse(result.isValid());
+        assertEquals(TokenValidationResult.Failure.EXPIRED, result.getFailure());
+    }
+
+    @Test
+    void parseAndValidate_ForeignSignature_ShouldReturnInvalidSignature() {
+        // Given
+        JwtTokenProvider otherProvider = newProvider("another-jwt-secret-key-that-is-long-enough-for-hmac", 3600000);
+        String token = otherProvider.generateToken(userFor("testuser"));
+
+        // When
+        TokenValidationResult result = tokenProvider.parseAndValidate(token);
+
+        // Then
+        assertFalse(result.isValid());
+        assertEquals(TokenValidationResult.Failure.INVALID_SIGNATURE, result.getFailure());
+    }
+
+    private static JwtTokenProvider newProvider(String secret, int expirationMs) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", secret);
+        ReflectionTestUtils.setField(provider, "jwtExpirationMs", expirationMs);
+        provider.init();
+        return provider;
+    }
+
+    private static AuthenticatedUser userFor(String username) {
+        return AuthenticatedUser.of(42L, username, List.of("ROLE_USER"));
+    }
+}
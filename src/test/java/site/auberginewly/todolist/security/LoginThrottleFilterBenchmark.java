@@ -0,0 +1,68 @@
+package site.auberginewly.todolist.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 登录限流过滤器微基准测试
+ * 对比放行请求经过过滤器与直接进入下游的耗时，运行方式：./gradlew benchmark
+ */
+@Tag("benchmark")
+class LoginThrottleFilterBenchmark {
+
+    private static final int WARMUP = 50_000;
+    private static final int ITERATIONS = 200_000;
+    private static final byte[] BODY = "{\"username\":\"user\",\"password\":\"password123\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void allowedRequests_ShouldAddNegligibleLatency() throws Exception {
+        // 容量足够大，保证所有请求都被放行
+        LoginThrottleFilter filter = new LoginThrottleFilter(new ObjectMapper(), new SimpleMeterRegistry(),
+                Integer.MAX_VALUE / 2, Duration.ofNanos(1), Integer.MAX_VALUE / 2, Duration.ofNanos(1), 100_000, 16);
+        FilterChain chain = (request, response) -> request.getInputStream().readAllBytes();
+
+        run(filter, chain, WARMUP, true);
+        run(filter, chain, WARMUP, false);
+
+        long baseline = run(filter, chain, ITERATIONS, false);
+        long filtered = run(filter, chain, ITERATIONS, true);
+
+        double baselineNs = (double) baseline / ITERATIONS;
+        double filteredNs = (double) filtered / ITERATIONS;
+        System.out.printf("login throttle: baseline %.0f ns/op, filtered %.0f ns/op, overhead %.0f ns/op%n",
+                baselineNs, filteredNs, filteredNs - baselineNs);
+
+        // 过滤器开销应在微秒级，相比一次 BCrypt（约 100ms）可以忽略
+        assertTrue(filteredNs - baselineNs < 50_000, "throttle overhead should stay below 50µs per request");
+    }
+
+    private static long run(LoginThrottleFilter filter, FilterChain chain, int iterations, boolean throughFilter)
+            throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+            request.setServletPath(LoginThrottleFilter.LOGIN_PATH);
+            request.setRemoteAddr("10.0." + (i & 0xff) + "." + ((i >> 8) & 0xff));
+            request.setContent(BODY);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            if (throughFilter) {
+                filter.doFilter(request, response, chain);
+                assertEquals(200, response.getStatus());
+            } else {
+                chain.doFilter(request, response);
+            }
+        }
+        return System.nanoTime() - start;
+    }
+}
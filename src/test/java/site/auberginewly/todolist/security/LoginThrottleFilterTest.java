@@ -0,0 +1,98 @@
+package site.auberginewly.todolist.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LoginThrottleFilter 单元测试
+ */
+class LoginThrottleFilterTest {
+
+    private static final byte[] BODY = "{\"username\":\"Alice\",\"password\":\"password123\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final LoginThrottleFilter filter = new LoginThrottleFilter(new ObjectMapper(), new SimpleMeterRegistry(),
+            2, Duration.ofMinutes(1), 100, Duration.ofMinutes(1), 1_000, 4);
+
+    @Test
+    void doFilter_AsyncReadOfCachedBody_ShouldNotifyListener() throws Exception {
+        // Given
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        List<String> events = new ArrayList<>();
+
+        // When: 下游以非阻塞方式读取被缓存的请求体
+        filter.doFilter(loginRequest("10.0.0.1"), new MockHttpServletResponse(), (request, response) -> {
+            ServletInputStream in = request.getInputStream();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    events.add("data");
+                    byte[] buffer = new byte[16];
+                    while (in.isReady() && !in.isFinished()) {
+                        int n = in.read(buffer);
+                        if (n > 0) {
+                            received.write(buffer, 0, n);
+                        }
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    events.add("done");
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    events.add("error");
+                }
+            });
+        });
+
+        // Then
+        assertEquals(List.of("data", "done"), events);
+        assertArrayEquals(BODY, received.toByteArray());
+    }
+
+    @Test
+    void doFilter_IpBucketExhausted_ShouldRejectOnlyThatRemoteAddress() throws Exception {
+        // Given: 每个 IP 突发 2 次
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(loginRequest("10.0.0.2"), response, (request, res) -> { });
+            assertEquals(200, response.getStatus());
+        }
+
+        // When
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(loginRequest("10.0.0.2"), rejected, (request, res) -> fail("should be throttled"));
+        MockHttpServletResponse other = new MockHttpServletResponse();
+        filter.doFilter(loginRequest("10.0.0.3"), other, (request, res) -> { });
+
+        // Then: 限流键是 getRemoteAddr()，其他地址不受影响
+        assertEquals(429, rejected.getStatus());
+        assertEquals(200, other.getStatus());
+    }
+
+    private static MockHttpServletRequest loginRequest(String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setServletPath(LoginThrottleFilter.LOGIN_PATH);
+        request.setRemoteAddr(remoteAddr);
+        request.setContentType("application/json");
+        request.setContent(BODY);
+        return request;
+    }
+}
@@ -0,0 +1,72 @@
+package site.auberginewly.todolist.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import site.auberginewly.todolist.repository.RevokedTokenRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * RevokedTokenRegistry 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class RevokedTokenRegistryTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private RevokedTokenRegistry revokedTokenRegistry;
+
+    @BeforeEach
+    void setUp() {
+        revokedTokenRegistry = new RevokedTokenRegistry(revokedTokenRepository, 1000, 0.001);
+    }
+
+    @Test
+    void sync_TokenRevokedOnAnotherInstance_ShouldBeRejectedAfterSync() {
+        // Given: 启动时没有吊销记录
+        when(revokedTokenRepository.findActiveJtis(any())).thenReturn(List.of());
+        revokedTokenRegistry.rebuild();
+        assertFalse(revokedTokenRegistry.isRevoked("other-node-jti"));
+
+        // When: 另一个实例吊销了令牌
+        when(revokedTokenRepository.findJtisRevokedSince(any(), any())).thenReturn(List.of("other-node-jti"));
+        when(revokedTokenRepository.existsById("other-node-jti")).thenReturn(true);
+        revokedTokenRegistry.sync();
+
+        // Then
+        assertTrue(revokedTokenRegistry.isRevoked("other-node-jti"));
+    }
+
+    @Test
+    void sync_ShouldReadFromLastSyncMinusOverlap() {
+        // Given
+        when(revokedTokenRepository.findActiveJtis(any())).thenReturn(List.of());
+        LocalDateTime before = LocalDateTime.now();
+        revokedTokenRegistry.rebuild();
+
+        // When
+        revokedTokenRegistry.sync();
+
+        // Then: 从重建时间往前多读一分钟，覆盖时钟偏差和提交延迟
+        verify(revokedTokenRepository).findJtisRevokedSince(
+                argThat(since -> !since.isAfter(before.minusSeconds(59)) && since.isAfter(before.minusMinutes(2))), any());
+    }
+
+    @Test
+    void sync_BeforeFirstRebuild_ShouldNotQuery() {
+        // When
+        revokedTokenRegistry.sync();
+
+        // Then
+        verify(revokedTokenRepository, never()).findJtisRevokedSince(any(), any());
+    }
+}
@@ -0,0 +1,45 @@
+package site.auberginewly.todolist.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TokenBloomFilter 单元测试
+ */
+class TokenBloomFilterTest {
+
+    @Test
+    void mightContain_AddedValues_ShouldAlwaysReturnTrue() {
+        TokenBloomFilter filter = new TokenBloomFilter(1000, 0.001);
+        String[] values = new String[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = UUID.randomUUID().toString();
+            filter.add(values[i]);
+        }
+
+        for (String value : values) {
+            assertTrue(filter.mightContain(value));
+        }
+    }
+
+    @Test
+    void mightContain_UnknownValues_ShouldRespectFalsePositiveRate() {
+        TokenBloomFilter filter = new TokenBloomFilter(10_000, 0.001);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(UUID.randomUUID().toString());
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+
+        // 期望约 100 次，留出足够余量避免偶发失败
+        assertTrue(falsePositives < 500, "false positives: " + falsePositives);
+    }
+}
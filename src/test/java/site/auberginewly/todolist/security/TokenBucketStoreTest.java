@@ -0,0 +1,96 @@
+package site.auberginewly.todolist.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TokenBucketStore 单元测试
+ */
+class TokenBucketStoreTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tryAcquire_BurstWithinCapacity_ShouldAllow() {
+        TokenBucketStore store = new TokenBucketStore(3, Duration.ofSeconds(1), 100, 4);
+        long now = 1_000 * SECOND;
+
+        assertEquals(0L, store.tryAcquire("a", now));
+        assertEquals(0L, store.tryAcquire("a", now));
+        assertEquals(0L, store.tryAcquire("a", now));
+        assertTrue(store.tryAcquire("a", now) > 0);
+        // 其他键不受影响
+        assertEquals(0L, store.tryAcquire("b", now));
+    }
+
+    @Test
+    void tryAcquire_AfterRefillPeriod_ShouldAllowAgain() {
+        TokenBucketStore store = new TokenBucketStore(1, Duration.ofSeconds(1), 100, 4);
+        long now = 1_000 * SECOND;
+
+        assertEquals(0L, store.tryAcquire("a", now));
+        long wait = store.tryAcquire("a", now);
+        assertEquals(SECOND, wait);
+        assertEquals(0L, store.tryAcquire("a", now + wait));
+    }
+
+    @Test
+    void evictIdle_ShouldRemoveRefilledBuckets() {
+        TokenBucketStore store = new TokenBucketStore(2, Duration.ofSeconds(1), 100, 4);
+        long now = 1_000 * SECOND;
+        store.tryAcquire("a", now);
+        store.tryAcquire("b", now);
+
+        assertEquals(0, store.evictIdle(now));
+        assertEquals(2, store.evictIdle(now + SECOND));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void tryAcquire_TableFull_ShouldStayBoundedAndRejectNewKeys() {
+        TokenBucketStore store = new TokenBucketStore(1, Duration.ofMinutes(1), 4, 1);
+        long now = 1_000 * SECOND;
+        for (int i = 0; i < 4; i++) {
+            assertEquals(0L, store.tryAcquire("key-" + i, now));
+        }
+
+        // 已有的 4 个键都在限流中，新键被拒绝而不是放行
+        for (int i = 4; i < 100; i++) {
+            assertTrue(store.tryAcquire("key-" + i, now) > 0);
+        }
+        assertEquals(4, store.size());
+        assertEquals(96, store.overflowCount());
+    }
+
+    @Test
+    void tryAcquire_TableFull_ShouldNotResetThrottledKey() {
+        TokenBucketStore store = new TokenBucketStore(1, Duration.ofMinutes(1), 4, 1);
+        long now = 1_000 * SECOND;
+        store.tryAcquire("victim", now);
+        assertTrue(store.tryAcquire("victim", now) > 0);
+
+        // 大量新键不能把被限流的键挤出表
+        for (int i = 0; i < 100; i++) {
+            store.tryAcquire("key-" + i, now + SECOND);
+        }
+        assertTrue(store.tryAcquire("victim", now + SECOND) > 0);
+    }
+
+    @Test
+    void tryAcquire_TableFull_ShouldReplaceOldestIdleKey() {
+        TokenBucketStore store = new TokenBucketStore(1, Duration.ofSeconds(1), 4, 1);
+        long now = 1_000 * SECOND;
+        for (int i = 0; i < 4; i++) {
+            store.tryAcquire("key-" + i, now);
+        }
+
+        // 补充间隔过后最早的键已闲置，新键取代它
+        assertEquals(0L, store.tryAcquire("fresh", now + SECOND));
+        assertEquals(4, store.size());
+        assertEquals(0, store.overflowCount());
+    }
+}
@@ -7,9 +7,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import site.auberginewly.todolist.cache.CachedUser;
+import site.auberginewly.todolist.cache.UserCache;
 import site.auberginewly.todolist.dto.ChangePasswordRequest;
 import site.auberginewly.todolist.dto.LoginRequest;
 import site.auberginewly.todolist.dto.RegisterRequest;
+import site.auberginewly.todolist.dto.UserResponse;
 import site.auberginewly.todolist.entity.User;
 import site.auberginewly.todolist.repository.UserRepository;
 
@@ -19,7 +22,9 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -34,6 +39,12 @@ class AuthServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private PasswordUpgradeService passwordUpgradeService;
+
     @Mock
     private Principal principal;
 
@@ -41,6 +52,7 @@ class AuthServiceTest {
     private AuthService authService;
 
     private User testUser;
+    private CachedUser cachedUser;
     private RegisterRequest registerRequest;
     private LoginRequest loginRequest;
     private ChangePasswordRequest changePasswordRequest;
@@ -53,6 +65,7 @@ class AuthServiceTest {
         testUser.setPassword("encodedPassword");
         testUser.setCreatedAt(LocalDateTime.now());
         testUser.setUpdatedAt(LocalDateTime.now());
+        cachedUser = CachedUser.fromUser(testUser);
 
         registerRequest = new RegisterRequest();
         registerRequest.setUsername("newuser");
@@ -83,6 +96,7 @@ class AuthServiceTest {
         verify(userRepository).existsByUsername("newuser");
         verify(passwordEncoder).encode("password123");
         verify(userRepository).save(any(User.class));
+        verify(userCache).evict("testuser");
     }
 
     @Test
@@ -150,6 +164,34 @@ class AuthServiceTest {
         verify(passwordEncoder).matches("password123", "encodedPassword");
     }
 
+    @Test
+    void login_OutdatedHashCost_ShouldScheduleRehash() {
+        // Given
+        when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("encodedPassword")).thenReturn(true);
+
+        // When
+        authService.login(loginRequest);
+
+        // Then
+        verify(passwordUpgradeService).upgrade(1L, "testuser", "encodedPassword", "password123");
+    }
+
+    @Test
+    void login_CurrentHashCost_ShouldNotRehash() {
+        // Given
+        when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("encodedPassword")).thenReturn(false);
+
+        // When
+        authService.login(loginRequest);
+
+        // Then
+        verify(passwordUpgradeService, never()).upgrade(anyLong(), anyString(), anyString(), anyString());
+    }
+
     @Test
     void login_UserNotFound_ShouldThrowException() {
         // Given
@@ -181,63 +223,68 @@ class AuthServiceTest {
     void changePassword_ValidRequest_ShouldUpdatePassword() {
         // Given
         when(principal.getName()).thenReturn("testuser");
-        when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(testUser));
+        when(userCache.get(anyString())).thenReturn(Optional.of(cachedUser));
         when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
         when(passwordEncoder.encode(anyString())).thenReturn("newEncodedPassword");
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(userRepository.updatePassword(anyLong(), anyString(), any(LocalDateTime.class))).thenReturn(1);
 
         // When
         authService.changePassword(changePasswordRequest, principal);
 
         // Then
-        verify(userRepository).findByUsername("testuser");
+        verify(userCache).get("testuser");
         verify(passwordEncoder).matches("oldPassword", "encodedPassword");
         verify(passwordEncoder).encode("newPassword123");
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).updatePassword(eq(1L), eq("newEncodedPassword"), any(LocalDateTime.class));
+        verify(userCache).evict("testuser");
+        verify(userRepository, never()).findByUsername(anyString());
     }
 
     @Test
     void changePassword_WrongOldPassword_ShouldThrowException() {
         // Given
         when(principal.getName()).thenReturn("testuser");
-        when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(testUser));
+        when(userCache.get(anyString())).thenReturn(Optional.of(cachedUser));
         when(passwordEncoder.matches(anyString(), anyString())).thenReturn(false);
 
         // When & Then
         assertThrows(org.springframework.security.authentication.BadCredentialsException.class, () -> {
             authService.changePassword(changePasswordRequest, principal);
         });
-        verify(userRepository).findByUsername("testuser");
+        verify(userCache).get("testuser");
         verify(passwordEncoder).matches("oldPassword", "encodedPassword");
         verify(passwordEncoder, never()).encode(anyString());
+        verify(userCache, never()).evict(anyString());
     }
 
     @Test
     void getCurrentUser_ValidPrincipal_ShouldReturnUser() {
         // Given
         when(principal.getName()).thenReturn("testuser");
-        when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(testUser));
+        when(userCache.get(anyString())).thenReturn(Optional.of(cachedUser));
 
         // When
-        User result = authService.getCurrentUser(principal);
+        UserResponse result = authService.getCurrentUser(principal);
 
         // Then
         assertNotNull(result);
+        assertEquals(1L, result.getId());
         assertEquals("testuser", result.getUsername());
-        verify(userRepository).findByUsername("testuser");
+        verify(userCache).get("testuser");
+        verify(userRepository, never()).findByUsername(anyString());
     }
 
     @Test
     void getCurrentUser_UserNotFound_ShouldThrowException() {
         // Given
         when(principal.getName()).thenReturn("testuser");
-        when(userRepository.findByUsername(anyString())).thenReturn(Optional.empty());
+        when(userCache.get(anyString())).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(IllegalArgumentException.class, () -> {
             authService.getCurrentUser(principal);
         });
-        verify(userRepository).findByUsername("testuser");
+        verify(userCache).get("testuser");
     }
 
     @Test
@@ -0,0 +1,111 @@
+package site.auberginewly.todolist.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import site.auberginewly.todolist.entity.RefreshToken;
+import site.auberginewly.todolist.exception.UnauthorizedException;
+import site.auberginewly.todolist.repository.RefreshTokenRepository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * RefreshTokenService 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    private RefreshToken storedToken;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(refreshTokenService, "refreshExpirationMs", 3600000L);
+
+        storedToken = new RefreshToken();
+        storedToken.setId(10L);
+        storedToken.setUserId(1L);
+        storedToken.setTokenHash("hash");
+        storedToken.setExpiresAt(LocalDateTime.now().plusDays(1));
+    }
+
+    @Test
+    void issue_ShouldStoreOnlyHash() {
+        // When
+        String rawToken = refreshTokenService.issue(1L);
+
+        // Then
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        assertNotNull(rawToken);
+        assertEquals(1L, captor.getValue().getUserId());
+        assertEquals(64, captor.getValue().getTokenHash().length());
+        assertNotEquals(rawToken, captor.getValue().getTokenHash());
+    }
+
+    @Test
+    void rotate_ActiveToken_ShouldRevokeOldAndIssueNew() {
+        // Given
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(storedToken));
+        when(refreshTokenRepository.revokeIfActive(eq(10L), any(LocalDateTime.class))).thenReturn(1);
+
+        // When
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate("raw-token");
+
+        // Then
+        assertEquals(1L, rotation.getUserId());
+        assertNotNull(rotation.getRefreshToken());
+        verify(refreshTokenRepository).save(any(RefreshToken.class));
+        verify(refreshTokenRepository, never()).revokeAllByUserId(anyLong(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void rotate_ReusedToken_ShouldRevokeAllSessions() {
+        // Given
+        storedToken.setRevokedAt(LocalDateTime.now().minusMinutes(1));
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(storedToken));
+
+        // When & Then
+        assertThrows(UnauthorizedException.class, () -> refreshTokenService.rotate("raw-token"));
+        verify(refreshTokenRepository).revokeAllByUserId(eq(1L), any(LocalDateTime.class));
+        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+    }
+
+    @Test
+    void rotate_ExpiredToken_ShouldThrowException() {
+        // Given
+        storedToken.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(storedToken));
+
+        // When & Then
+        assertThrows(UnauthorizedException.class, () -> refreshTokenService.rotate("raw-token"));
+        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+    }
+
+    @Test
+    void rotate_UnknownToken_ShouldThrowException() {
+        // Given
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(UnauthorizedException.class, () -> refreshTokenService.rotate("raw-token"));
+    }
+}
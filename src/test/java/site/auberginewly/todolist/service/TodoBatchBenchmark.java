@@ -0,0 +1,77 @@
+package site.auberginewly.todolist.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import site.auberginewly.todolist.dto.TodoBatchOperation;
+import site.auberginewly.todolist.dto.TodoBatchResult;
+import site.auberginewly.todolist.dto.TodoRequest;
+import site.auberginewly.todolist.repository.TodoRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 批量操作基准测试（H2）
+ * 对比 N 次单条创建（每次一个事务）与一次包含 N 个创建的批量操作，运行方式：./gradlew benchmark
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Tag("benchmark")
+class TodoBatchBenchmark {
+
+    private static final int BATCH_SIZE = 500;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Test
+    void batchCreate_ShouldBeFasterThanSingleCalls() {
+        // 预热
+        singleCalls(1L, BATCH_SIZE);
+        batchCall(1L, BATCH_SIZE);
+
+        long single = 0;
+        long batch = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            singleCalls(2L, BATCH_SIZE);
+            single += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            batchCall(3L, BATCH_SIZE);
+            batch += System.nanoTime() - start;
+        }
+
+        double singleMs = single / 1_000_000.0 / ROUNDS;
+        double batchMs = batch / 1_000_000.0 / ROUNDS;
+        System.out.printf("todo create x%d: single calls %.1f ms, one batch %.1f ms, speedup %.1fx%n",
+                BATCH_SIZE, singleMs, batchMs, singleMs / batchMs);
+
+        assertEquals(todoRepository.countByUserId(2L), todoRepository.countByUserId(3L));
+        assertTrue(batch < single, "one batch should be faster than N single calls");
+    }
+
+    private void singleCalls(Long userId, int count) {
+        for (int i = 0; i < count; i++) {
+            todoService.createTodo(new TodoRequest("single " + i, null, null, null, null), userId);
+        }
+    }
+
+    private void batchCall(Long userId, int count) {
+        List<TodoBatchOperation> operations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            operations.add(new TodoBatchOperation(TodoBatchOperation.Type.CREATE, null, null, "batch " + i, null, null, null));
+        }
+        List<TodoBatchResult> results = todoService.applyBatch(operations, userId);
+        assertEquals(count, results.size());
+    }
+}
@@ -0,0 +1,128 @@
+package site.auberginewly.todolist.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.OutputStream;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 分页导出基准测试（H2）
+ * 分别导出少量和大量待办事项，在导出进行到一半时测量存活的堆内存，两者应基本相同；
+ * 同时检查写出期间没有占用数据库连接，运行方式：./gradlew benchmark
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:exportbench;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+@Tag("benchmark")
+class TodoExportBenchmark {
+
+    private static final long SMALL_USER = 9_001L;
+    private static final long LARGE_USER = 9_002L;
+    private static final int SMALL = 1_000;
+    private static final int LARGE = 200_000;
+
+    @Autowired
+    private TodoExportService todoExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private HikariDataSource dataSource;
+
+    @Test
+    void export_HeapShouldNotGrowWithRowCount() throws Exception {
+        insert(SMALL_USER, SMALL, 50_000_000L);
+        insert(LARGE_USER, LARGE, 60_000_000L);
+
+        long small = retainedHeapDuringExport(SMALL_USER, SMALL);
+        long start = System.nanoTime();
+        long large = retainedHeapDuringExport(LARGE_USER, LARGE);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        System.out.printf("export ndjson: x%d retained %.1f MB, x%d retained %.1f MB (%.0f rows/s)%n",
+                SMALL, small / 1_048_576.0, LARGE, large / 1_048_576.0, LARGE / seconds);
+        assertTrue(large - small < 16L * 1_048_576, "retained heap should not grow with the number of rows");
+    }
+
+    private long retainedHeapDuringExport(long userId, int rows) throws Exception {
+        long baseline = usedHeap();
+        MeasuringOutputStream out = new MeasuringOutputStream(rows / 2, dataSource);
+        todoExportService.export(userId, TodoFileFormat.NDJSON, out);
+        assertEquals(rows, out.lines);
+        assertEquals(0, out.activeConnections, "export should not hold a connection while writing");
+        return out.measured - baseline;
+    }
+
+    private void insert(long userId, int rows, long firstId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String sql = "INSERT INTO todos (id, title, description, completed, priority_rank, user_id, " +
+                "created_at, updated_at, version, change_seq) VALUES (?, ?, ?, FALSE, 2, ?, ?, ?, 0, 0)";
+        List<Object[]> batch = new ArrayList<>(1_000);
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[]{firstId + i, "导出测试 " + i, "描述 " + "x".repeat(200), userId, now, now});
+            if (batch.size() == 1_000) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * 丢弃输出，只统计行数，并在写到指定行时测量一次存活的堆内存和正在使用的连接数
+     */
+    private static final class MeasuringOutputStream extends OutputStream {
+
+        private final int measureAtLine;
+        private final HikariDataSource dataSource;
+        private int lines;
+        private long measured;
+        private int activeConnections = -1;
+
+        MeasuringOutputStream(int measureAtLine, HikariDataSource dataSource) {
+            this.measureAtLine = measureAtLine;
+            this.dataSource = dataSource;
+        }
+
+        @Override
+        public void write(int b) {
+            if (b == '\n' && ++lines == measureAtLine) {
+                activeConnections = dataSource.getHikariPoolMXBean().getActiveConnections();
+                try {
+                    measured = usedHeap();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                write(bytes[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package site.auberginewly.todolist.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import site.auberginewly.todolist.entity.Todo;
+import site.auberginewly.todolist.repository.TodoRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * TodoExportService 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class TodoExportServiceTest {
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private TodoExportService todoExportService;
+    private final Long userId = 1L;
+
+    @BeforeEach
+    void setUp() {
+        todoExportService = new TodoExportService(todoRepository, objectMapper);
+        ReflectionTestUtils.setField(todoExportService, "pageSize", 2);
+    }
+
+    @Test
+    void export_Ndjson_ShouldWriteOneObjectPerLineAcrossKeysetPages() throws Exception {
+        // Given: 每页 2 行，第二页不满时结束
+        Todo first = todo(1L, "买菜", null);
+        Todo second = todo(2L, "写周报", "完整的描述");
+        Todo third = todo(3L, "运动", null);
+        when(todoRepository.findExportPageByCreatedAt(userId, Limit.of(2))).thenReturn(List.of(first, second));
+        when(todoRepository.findExportPageByCreatedAtAfter(userId, second.getCreatedAt(), 2L, Limit.of(2)))
+                .thenReturn(List.of(third));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        todoExportService.export(userId, TodoFileFormat.NDJSON, out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        JsonNode node = objectMapper.readTree(lines[1]);
+        assertEquals(2L, node.get("id").asLong());
+        assertEquals("完整的描述", node.get("description").asText());
+        assertEquals(3L, objectMapper.readTree(lines[2]).get("id").asLong());
+        verify(todoRepository, times(1)).findExportPageByCreatedAtAfter(any(), any(), any(), any());
+    }
+
+    @Test
+    void export_FullLastPage_ShouldStopOnEmptyPage() throws Exception {
+        // Given
+        Todo first = todo(1L, "买菜", null);
+        Todo second = todo(2L, "写周报", null);
+        when(todoRepository.findExportPageByCreatedAt(userId, Limit.of(2))).thenReturn(List.of(first, second));
+        when(todoRepository.findExportPageByCreatedAtAfter(userId, second.getCreatedAt(), 2L, Limit.of(2)))
+                .thenReturn(List.of());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        todoExportService.export(userId, TodoFileFormat.NDJSON, out);
+
+        // Then
+        assertEquals(2, out.toString(StandardCharsets.UTF_8).split("\n").length);
+    }
+
+    @Test
+    void export_Csv_ShouldWriteHeaderAndEscapeFields() throws Exception {
+        // Given
+        Todo todo = todo(7L, "a, \"b\"", "第一行\n第二行");
+        when(todoRepository.findExportPageByCreatedAt(userId, Limit.of(2))).thenReturn(List.of(todo));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        todoExportService.export(userId, TodoFileFormat.CSV, out);
+
+        // Then
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertTrue(csv.startsWith(TodoExportService.CSV_HEADER + "\r\n"));
+        assertTrue(csv.contains("7,\"a, \"\"b\"\"\",\"第一行\n第二行\",false,HIGH,2024-01-31,"));
+    }
+
+    @Test
+    void formatFromParam_Unknown_ShouldThrowException() {
+        assertEquals(TodoFileFormat.NDJSON, TodoFileFormat.fromParam(null));
+        assertEquals(TodoFileFormat.CSV, TodoFileFormat.fromParam("CSV"));
+        assertThrows(IllegalArgumentException.class, () -> TodoFileFormat.fromParam("xml"));
+    }
+
+    private Todo todo(Long id, String title, String description) {
+        Todo todo = new Todo();
+        todo.setId(id);
+        todo.setTitle(title);
+        todo.setDescription(description);
+        todo.setCompleted(false);
+        todo.setPriority(Todo.Priority.HIGH);
+        todo.setDueDate(LocalDate.of(2024, 1, 31));
+        todo.setUserId(userId);
+        todo.setCreatedAt(LocalDateTime.of(2024, 1, 1, 9, 0));
+        todo.setUpdatedAt(LocalDateTime.of(2024, 1, 2, 9, 0));
+        todo.setVersion(0L);
+        return todo;
+    }
+}
@@ -0,0 +1,119 @@
+package site.auberginewly.todolist.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import site.auberginewly.todolist.dto.TodoImportResult;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 流式导入基准测试（H2）
+ * 边生成边读取 10 万行 NDJSON，请求体不会整体出现在内存中；导入一半时测量存活的堆内存，运行方式：./gradlew benchmark
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:importbench;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+@Tag("benchmark")
+class TodoImportBenchmark {
+
+    private static final long USER_ID = 9_101L;
+    private static final int ROWS = 100_000;
+
+    @Autowired
+    private TodoImportService todoImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void import_100kRows_ShouldFinishInSecondsWithBoundedHeap() throws Exception {
+        long baseline = usedHeap();
+        GeneratedNdjson body = new GeneratedNdjson(ROWS);
+
+        long start = System.nanoTime();
+        TodoImportResult result = todoImportService.importTodos(USER_ID, TodoFileFormat.NDJSON, body);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        System.out.printf("import ndjson: x%d in %.2f s (%.0f rows/s), retained heap at half-way %.1f MB%n",
+                ROWS, seconds, ROWS / seconds, (body.measured - baseline) / 1_048_576.0);
+        assertEquals(ROWS, result.getAccepted());
+        assertEquals(0, result.getRejected());
+        assertEquals(ROWS, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM todos WHERE user_id = ?", Long.class, USER_ID));
+        assertEquals(ROWS, jdbcTemplate.queryForObject(
+                "SELECT total FROM todo_stats WHERE user_id = ?", Long.class, USER_ID));
+        assertTrue(body.measured - baseline < 32L * 1_048_576, "retained heap should not grow with the number of rows");
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * 按需生成 NDJSON 行的输入流，并在读到一半时测量一次存活的堆内存
+     */
+    private static final class GeneratedNdjson extends InputStream {
+
+        private final int rows;
+        private int row;
+        private byte[] line = new byte[0];
+        private int position;
+        private long measured;
+
+        GeneratedNdjson(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int read() {
+            if (position == line.length && !nextLine()) {
+                return -1;
+            }
+            return line[position++] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (position == line.length && !nextLine()) {
+                return -1;
+            }
+            int count = Math.min(length, line.length - position);
+            System.arraycopy(line, position, buffer, offset, count);
+            position += count;
+            return count;
+        }
+
+        private boolean nextLine() {
+            if (row == rows) {
+                return false;
+            }
+            if (row == rows / 2) {
+                try {
+                    measured = usedHeap();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            String priority = row % 3 == 0 ? "HIGH" : row % 3 == 1 ? "MEDIUM" : "LOW";
+            line = ("{\"title\":\"导入测试 " + row + "\",\"description\":\"描述 " + "x".repeat(200) +
+                    "\",\"priority\":\"" + priority + "\",\"dueDate\":\"2030-01-01\"}\n").getBytes(StandardCharsets.UTF_8);
+            position = 0;
+            row++;
+            return true;
+        }
+    }
+}
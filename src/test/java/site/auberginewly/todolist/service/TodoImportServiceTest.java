@@ -0,0 +1,255 @@
+package site.auberginewly.todolist.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import site.auberginewly.todolist.dto.TodoImportResult;
+import site.auberginewly.todolist.entity.Todo;
+import site.auberginewly.todolist.event.TodoChangedEvent;
+import site.auberginewly.todolist.repository.TodoRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * TodoImportService 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class TodoImportServiceTest {
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    @Mock
+    private TodoStatsService todoStatsService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TodoImportService todoImportService;
+    private final List<Todo> saved = new ArrayList<>();
+    private final Long userId = 1L;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        AtomicLong ids = new AtomicLong();
+        lenient().when(todoRepository.save(any(Todo.class))).thenAnswer(invocation -> {
+            Todo todo = invocation.getArgument(0);
+            todo.setId(ids.incrementAndGet());
+            saved.add(todo);
+            return todo;
+        });
+        todoImportService = new TodoImportService(todoRepository, todoStatsService, eventPublisher, entityManager,
+                new ObjectMapper().findAndRegisterModules(), transactionManager);
+        ReflectionTestUtils.setField(todoImportService, "batchSize", 2);
+        ReflectionTestUtils.setField(todoImportService, "maxRows", 100L);
+        ReflectionTestUtils.setField(todoImportService, "maxErrors", 10);
+    }
+
+    @Test
+    void importTodos_Ndjson_ShouldSaveInBatchesAndClearContextAfterEach() throws Exception {
+        // Given
+        when(todoStatsService.nextChangeSeq(userId)).thenReturn(7L, 8L);
+        String body = """
+                {"title":"  买菜  ","priority":"HIGH","dueDate":"2030-01-02"}
+                {"title":"写周报","completed":true,"unknown":1}
+                {"title":"运动"}
+                """;
+
+        // When
+        TodoImportResult result = todoImportService.importTodos(userId, TodoFileFormat.NDJSON, stream(body));
+
+        // Then: 两批（2 + 1），每批一个变更序号、一次 flush/clear、一个事件
+        assertEquals(3, result.getAccepted());
+        assertEquals(0, result.getRejected());
+        assertEquals(3, saved.size());
+        assertEquals("买菜", saved.get(0).getTitle());
+        assertEquals(Todo.Priority.HIGH, saved.get(0).getPriority());
+        assertEquals(LocalDate.of(2030, 1, 2), saved.get(0).getDueDate());
+        assertTrue(saved.get(1).getCompleted());
+        assertEquals(Todo.Priority.MEDIUM, saved.get(2).getPriority());
+        assertEquals(7L, saved.get(1).getChangeSeq());
+        assertEquals(8L, saved.get(2).getChangeSeq());
+        assertTrue(saved.stream().allMatch(todo -> userId.equals(todo.getUserId())));
+        verify(todoRepository, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+        ArgumentCaptor<TodoChangedEvent> events = ArgumentCaptor.forClass(TodoChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertEquals(2, events.getAllValues().get(0).getChanges().size());
+        assertEquals(1, events.getAllValues().get(1).getChanges().size());
+    }
+
+    @Test
+    void importTodos_ShouldRejectInvalidRowsAndContinue() throws Exception {
+        // Given
+        when(todoStatsService.nextChangeSeq(userId)).thenReturn(1L);
+        String body = """
+                {"title":"  "}
+                {"title":"优先级","priority":"URGENT"}
+                {"title":"日期","dueDate":"明天"}
+                {"title":["数组"]}
+                {"title":"有效"}
+                """;
+
+        // When
+        TodoImportResult result = todoImportService.importTodos(userId, TodoFileFormat.NDJSON, stream(body));
+
+        // Then
+        assertEquals(1, result.getAccepted());
+        assertEquals(4, result.getRejected());
+        assertEquals(List.of(1L, 2L, 3L, 4L), result.getErrors().stream().map(TodoImportResult.LineError::getLine).toList());
+        assertEquals("标题不能为空", result.getErrors().get(0).getMessage());
+        assertEquals("无效的优先级: URGENT", result.getErrors().get(1).getMessage());
+        assertEquals("无效的截止日期: 明天", result.getErrors().get(2).getMessage());
+        assertEquals("有效", saved.get(0).getTitle());
+    }
+
+    @Test
+    void importTodos_MalformedJson_ShouldKeepEarlierRowsAndStop() throws Exception {
+        // Given
+        when(todoStatsService.nextChangeSeq(userId)).thenReturn(1L);
+        String body = "{\"title\":\"第一行\"}\n{\"title\":\n";
+
+        // When
+        TodoImportResult result = todoImportService.importTodos(userId, TodoFileFormat.NDJSON, stream(body));
+
+        // Then
+        assertEquals(1, result.getAccepted());
+        assertEquals(1, result.getRejected());
+        assertEquals(2L, result.getErrors().get(0).getLine());
+        assertTrue(result.getErrors().get(0).getMessage().startsWith("文件格式错误"));
+    }
+
+    @Test
+    void importTodos_Csv_ShouldMapColumnsByHeader() throws Exception {
+        // Given
+        when(todoStatsService.nextChangeSeq(userId)).thenReturn(1L);
+        String body = "priority,title,description,dueDate,completed,id\r\n" +
+                "LOW,\"带,逗号\",\"多行\r\n描述\",,false,99\r\n" +
+                ",只有标题,,,,\r\n";
+
+        // When
+        TodoImportResult result = todoImportService.importTodos(userId, TodoFileFormat.CSV, stream(body));
+
+        // Then: 导出文件中的 id 等列被忽略，空单元格视为未填写
+        assertEquals(2, result.getAccepted());
+        assertEquals("带,逗号", saved.get(0).getTitle());
+        assertEquals("多行\r\n描述", saved.get(0).getDescription());
+        assertEquals(Todo.Priority.LOW, saved.get(0).getPriority());
+        assertEquals(1L, saved.get(0).getId());
+        assertEquals("只有标题", saved.get(1).getTitle());
+        assertNull(saved.get(1).getDescription());
+        assertEquals(Todo.Priority.MEDIUM, saved.get(1).getPriority());
+        assertFalse(saved.get(1).getCompleted());
+    }
+
+    @Test
+    void importTodos_TitleTooLong_ShouldRejectRowAndKeepOthers() throws Exception {
+        // Given
+        when(todoStatsService.nextChangeSeq(userId)).thenReturn(1L);
+        String body = "{\"title\":\"" + "长".repeat(TodoService.TITLE_MAX_LENGTH + 1) + "\"}\n" +
+                "{\"title\":\"" + "长".repeat(TodoService.TITLE_MAX_LENGTH) + "\"}\n";
+
+        // When
+        TodoImportResult result = todoImportService.importTodos(userId, TodoFileFormat.NDJSON, stream(body));
+
+        // Then
+        assertEquals(1, result.getAccepted());
+        assertEquals(1, result.getRejected());
+        assertEquals(1L, result.getErrors().get(0).getLine());
+        assertEquals("标题不能超过 255 个字符", result.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    void importTodos_Ndjson_ShouldReportPhysicalLinesIncludingBlankLines() throws Exception {
+        // Given
+        when(todoStatsService.nextChangeSeq(userId)).thenReturn(1L);
+        String body = "{\"title\":\"有效\"}\n\n{\"title\":\"\"}\n";
+
+        // When
+        TodoImportResult result = todoImportService.importTodos(userId, TodoFileFormat.NDJSON, stream(body));
+
+        // Then
+        assertEquals(1, result.getAccepted());
+        assertEquals(3L, result.getErrors().get(0).getLine());
+    }
+
+    @Test
+    void importTodos_Csv_ShouldReportPhysicalLinesIncludingHeaderAndMultilineCells() throws Exception {
+        // Given
+        when(todoStatsService.nextChangeSeq(userId)).thenReturn(1L);
+        String body = "title,description\r\n" +
+                "有效,\"第一行\r\n第二行\n第三行\"\r\n" +
+                ",空标题\r\n" +
+                "\"\",\r\n";
+
+        // When
+        TodoImportResult result = todoImportService.importTodos(userId, TodoFileFormat.CSV, stream(body));
+
+        // Then: 表头是第 1 行，第一条记录占第 2~4 行
+        assertEquals(1, result.getAccepted());
+        assertEquals(List.of(5L, 6L), result.getErrors().stream().map(TodoImportResult.LineError::getLine).toList());
+    }
+
+    @Test
+    void importTodos_ShouldStopAtMaxRowsAndCapErrors() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(todoImportService, "maxRows", 3L);
+        ReflectionTestUtils.setField(todoImportService, "maxErrors", 2);
+        String body = "{\"title\":\"\"}\n".repeat(5);
+
+        // When
+        TodoImportResult result = todoImportService.importTodos(userId, TodoFileFormat.NDJSON, stream(body));
+
+        // Then: 前 3 行校验失败，第 4 行超出上限，之后不再读取
+        assertEquals(0, result.getAccepted());
+        assertEquals(4, result.getRejected());
+        assertEquals(2, result.getErrors().size());
+        verify(todoRepository, never()).save(any());
+        verify(todoStatsService, never()).nextChangeSeq(any());
+    }
+
+    @Test
+    void importTodos_NullUserId_ShouldThrowException() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> todoImportService.importTodos(null, TodoFileFormat.NDJSON, stream("")));
+    }
+
+    @Test
+    void fromContentType_ShouldAcceptOnlySupportedTypes() {
+        assertEquals(TodoFileFormat.NDJSON, TodoFileFormat.fromContentType("application/x-ndjson"));
+        assertEquals(TodoFileFormat.CSV, TodoFileFormat.fromContentType("text/csv; charset=UTF-8"));
+        assertThrows(IllegalArgumentException.class, () -> TodoFileFormat.fromContentType("application/json"));
+        assertThrows(IllegalArgumentException.class, () -> TodoFileFormat.fromContentType(null));
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
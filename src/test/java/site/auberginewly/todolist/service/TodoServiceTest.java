@@ -3,22 +3,60 @@ package site.auberginewly.todolist.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+import site.auberginewly.todolist.cache.TodoReadCache;
+import site.auberginewly.todolist.dto.CursorPage;
+import site.auberginewly.todolist.dto.TodoBatchOperation;
+import site.auberginewly.todolist.dto.TodoBatchResult;
+import site.auberginewly.todolist.dto.TodoChangesResponse;
+import site.auberginewly.todolist.dto.TodoFilterRequest;
 import site.auberginewly.todolist.dto.TodoRequest;
+import site.auberginewly.todolist.dto.TodoResponse;
 import site.auberginewly.todolist.entity.Todo;
+import site.auberginewly.todolist.entity.TodoStats;
+import site.auberginewly.todolist.entity.TodoTombstone;
+import site.auberginewly.todolist.event.TodoChange;
+import site.auberginewly.todolist.event.TodoChangedEvent;
+import site.auberginewly.todolist.repository.TodoRepository.StateView;
+import site.auberginewly.todolist.exception.BadRequestException;
+import site.auberginewly.todolist.exception.ConflictException;
+import site.auberginewly.todolist.exception.SyncExpiredException;
+import site.auberginewly.todolist.repository.TodoFilter;
 import site.auberginewly.todolist.repository.TodoRepository;
+import site.auberginewly.todolist.repository.TodoTombstoneRepository;
+import site.auberginewly.todolist.search.TodoSearchEngine;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -30,6 +68,21 @@ class TodoServiceTest {
     @Mock
     private TodoRepository todoRepository;
 
+    @Mock
+    private TodoStatsService todoStatsService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TodoSearchEngine todoSearchEngine;
+
+    @Mock
+    private TodoReadCache todoReadCache;
+
+    @Mock
+    private TodoTombstoneRepository todoTombstoneRepository;
+
     @InjectMocks
     private TodoService todoService;
 
@@ -39,6 +92,10 @@ class TodoServiceTest {
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(todoService, "maxBatchSize", 10);
+        ReflectionTestUtils.setField(todoService, "maxSearchResults", 100);
+        ReflectionTestUtils.setField(todoService, "tombstoneRetention", Duration.ofDays(30));
+
         testTodo = new Todo();
         testTodo.setId(1L);
         testTodo.setTitle("测试待办事项");
@@ -47,6 +104,7 @@ class TodoServiceTest {
         testTodo.setPriority(Todo.Priority.MEDIUM);
         testTodo.setDueDate(LocalDate.now().plusDays(7));
         testTodo.setUserId(userId);
+        testTodo.setVersion(3L);
         testTodo.setCreatedAt(LocalDateTime.now());
         testTodo.setUpdatedAt(LocalDateTime.now());
 
@@ -70,6 +128,14 @@ class TodoServiceTest {
         assertEquals("测试待办事项", result.getTitle());
         assertEquals(userId, result.getUserId());
         verify(todoRepository).save(any(Todo.class));
+
+        // 创建事件携带新待办事项的优先级和完成状态，用于更新统计
+        ArgumentCaptor<TodoChangedEvent> captor = ArgumentCaptor.forClass(TodoChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        TodoChange change = captor.getValue().getChanges().get(0);
+        assertEquals(TodoChange.Type.CREATED, change.getType());
+        assertFalse(change.hasBefore());
+        assertEquals(Todo.Priority.MEDIUM, change.getPriorityAfter());
     }
 
     @Test
@@ -93,6 +159,23 @@ class TodoServiceTest {
         verify(todoRepository, never()).save(any(Todo.class));
     }
 
+    @Test
+    void createTodo_TitleTooLong_ShouldThrowException() {
+        // Given: 按字符计数，255 个汉字可以写入，256 个不行
+        todoRequest.setTitle("长".repeat(TodoService.TITLE_MAX_LENGTH + 1));
+
+        // When & Then
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> {
+            todoService.createTodo(todoRequest, userId);
+        });
+        assertEquals("标题不能超过 255 个字符", ex.getMessage());
+        verify(todoRepository, never()).save(any(Todo.class));
+
+        todoRequest.setTitle(" " + "长".repeat(TodoService.TITLE_MAX_LENGTH) + " ");
+        when(todoRepository.save(any(Todo.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        assertEquals(TodoService.TITLE_MAX_LENGTH, todoService.createTodo(todoRequest, userId).getTitle().length());
+    }
+
     @Test
     void createTodo_NullUserId_ShouldThrowException() {
         // When & Then
@@ -127,10 +210,234 @@ class TodoServiceTest {
         verify(todoRepository, never()).findByUserId(anyLong());
     }
 
+    @Test
+    void getTodoPage_MoreRows_ShouldReturnCursorForNextPage() {
+        // Given
+        TodoResponse first = TodoResponse.fromTodo(testTodo);
+        TodoResponse second = todoWith(2L, testTodo.getCreatedAt().plusSeconds(1), null);
+        TodoResponse third = todoWith(3L, testTodo.getCreatedAt().plusSeconds(2), null);
+        when(todoRepository.findFirstPageByCreatedAt(userId, Limit.of(3)))
+                .thenReturn(Arrays.asList(first, second, third));
+
+        // When
+        CursorPage<TodoResponse> page = todoService.getTodoPage(userId, 4L, null, null, 2);
+
+        // Then
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.isHasMore());
+        assertNotNull(page.getNextCursor());
+
+        // 使用游标获取下一页，应从第二条记录之后开始读取
+        when(todoRepository.findPageByCreatedAtAfter(userId, second.getCreatedAt(), 2L, Limit.of(3)))
+                .thenReturn(Arrays.asList(third));
+        CursorPage<TodoResponse> next = todoService.getTodoPage(userId, 4L, "created", page.getNextCursor(), 2);
+        assertEquals(1, next.getItems().size());
+        assertFalse(next.isHasMore());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void getTodoPage_SortByDueDate_ShouldContinueWithTodosWithoutDueDate() {
+        // Given
+        TodoResponse first = TodoResponse.fromTodo(testTodo);
+        TodoResponse noDueDate = todoWith(2L, testTodo.getCreatedAt(), null);
+        when(todoRepository.findFirstPageByDueDate(userId, Limit.of(3))).thenReturn(Arrays.asList(first));
+        when(todoRepository.findPageWithoutDueDateAfter(userId, 0L, Limit.of(2))).thenReturn(Arrays.asList(noDueDate));
+
+        // When
+        CursorPage<TodoResponse> page = todoService.getTodoPage(userId, 4L, "dueDate", null, 2);
+
+        // Then
+        assertEquals(Arrays.asList(first, noDueDate), page.getItems());
+        assertFalse(page.isHasMore());
+    }
+
+    @Test
+    void getTodoPage_SortByPriority_ShouldWalkRanksAndResumeWithinRank() {
+        // Given：高优先级为空，中优先级有一条带截止日期和两条不带截止日期的记录
+        TodoResponse dated = todoWith(2L, testTodo.getCreatedAt(), LocalDate.now());
+        TodoResponse undatedA = todoWith(3L, testTodo.getCreatedAt(), null);
+        TodoResponse undatedB = todoWith(4L, testTodo.getCreatedAt(), null);
+        when(todoRepository.findFirstPageByPriorityAndDueDate(userId, Todo.Priority.HIGH, Limit.of(3))).thenReturn(List.of());
+        when(todoRepository.findPageByPriorityWithoutDueDateAfter(userId, Todo.Priority.HIGH, 0L, Limit.of(3)))
+                .thenReturn(List.of());
+        when(todoRepository.findFirstPageByPriorityAndDueDate(userId, Todo.Priority.MEDIUM, Limit.of(3)))
+                .thenReturn(Arrays.asList(dated));
+        when(todoRepository.findPageByPriorityWithoutDueDateAfter(userId, Todo.Priority.MEDIUM, 0L, Limit.of(2)))
+                .thenReturn(Arrays.asList(undatedA, undatedB));
+
+        // When
+        CursorPage<TodoResponse> page = todoService.getTodoPage(userId, 4L, "priority", null, 2);
+
+        // Then
+        assertEquals(Arrays.asList(dated, undatedA), page.getItems());
+        assertTrue(page.isHasMore());
+
+        // 下一页从中优先级无截止日期部分的游标位置继续，之后进入低优先级
+        when(todoRepository.findPageByPriorityWithoutDueDateAfter(userId, Todo.Priority.MEDIUM, 3L, Limit.of(3)))
+                .thenReturn(Arrays.asList(undatedB));
+        when(todoRepository.findFirstPageByPriorityAndDueDate(userId, Todo.Priority.LOW, Limit.of(2))).thenReturn(List.of());
+        when(todoRepository.findPageByPriorityWithoutDueDateAfter(userId, Todo.Priority.LOW, 0L, Limit.of(2)))
+                .thenReturn(List.of());
+        CursorPage<TodoResponse> next = todoService.getTodoPage(userId, 4L, "priority", page.getNextCursor(), 2);
+        assertEquals(Arrays.asList(undatedB), next.getItems());
+        assertFalse(next.isHasMore());
+        verify(todoRepository, never()).findPageByPriorityAndDueDateAfter(any(), any(), any(), anyLong(), any());
+    }
+
+    @Test
+    void getTodoPage_DefaultFirstPage_ShouldGoThroughReadCache() {
+        // Given
+        CursorPage<TodoResponse> cached = new CursorPage<>(List.of(TodoResponse.fromTodo(testTodo)), null, false);
+        when(todoReadCache.getFirstPage(eq(userId), eq(4L), eq("CREATED"), any())).thenReturn(cached);
+
+        // When
+        CursorPage<TodoResponse> page = todoService.getTodoPage(userId, 4L, null, null, null);
+
+        // Then
+        assertSame(cached, page);
+        verify(todoRepository, never()).findFirstPageByCreatedAt(anyLong(), any(Limit.class));
+        // 使用调用方传入的版本，不再查询数据版本
+        verify(todoStatsService, never()).getDataVersion(anyLong());
+    }
+
+    @Test
+    void getTodoPage_InvalidCursor_ShouldThrowBadRequest() {
+        // When & Then
+        assertThrows(BadRequestException.class, () -> {
+            todoService.getTodoPage(userId, 4L, null, "not-a-cursor", 20);
+        });
+    }
+
+    @Test
+    void getTodoPage_LimitTooLarge_ShouldThrowException() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> {
+            todoService.getTodoPage(userId, 4L, null, null, 1000);
+        });
+    }
+
+    @Test
+    void getTodoSlice_ShouldUseSliceQueryWithoutCount() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 20);
+        when(todoRepository.findSliceByUserIdAndCompleted(userId, false, pageable))
+                .thenReturn(new SliceImpl<>(Arrays.asList(TodoResponse.fromTodo(testTodo)), pageable, true));
+
+        // When
+        Slice<TodoResponse> result = todoService.getTodoSlice(userId, "incomplete", null, pageable);
+
+        // Then
+        assertEquals(1, result.getContent().size());
+        assertTrue(result.hasNext());
+        verify(todoRepository, never()).findByUserIdAndCompleted(anyLong(), any(), any(Pageable.class));
+        verify(todoRepository, never()).countByUserIdAndCompletedFalse(anyLong());
+    }
+
+    @Test
+    void getTodoSlice_Search_ShouldPageRankedIdsFromSearchEngine() {
+        // Given
+        Pageable pageable = PageRequest.of(1, 2);
+        when(todoSearchEngine.search(userId, "报告", 100)).thenReturn(Arrays.asList(9L, 7L, 5L, 3L, 1L));
+        when(todoRepository.findSummariesByUserIdAndIdIn(userId, Arrays.asList(5L, 3L))).thenReturn(Arrays.asList(
+                todoWith(3L, testTodo.getCreatedAt(), null), todoWith(5L, testTodo.getCreatedAt(), null)));
+
+        // When
+        Slice<TodoResponse> result = todoService.getTodoSlice(userId, "all", " 报告 ", pageable);
+
+        // Then
+        assertEquals(Arrays.asList(5L, 3L), result.getContent().stream().map(TodoResponse::getId).toList());
+        assertTrue(result.hasNext());
+        verify(todoRepository, never()).findSliceByUserId(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void getTodosByUserId_Search_ShouldReturnMatchCountAsTotal() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10);
+        when(todoSearchEngine.search(userId, "测试", 100)).thenReturn(List.of(1L));
+        when(todoRepository.findByUserIdAndIdIn(userId, List.of(1L))).thenReturn(List.of(testTodo));
+
+        // When
+        Page<Todo> result = todoService.getTodosByUserId(userId, "all", "测试", pageable);
+
+        // Then
+        assertEquals(1, result.getTotalElements());
+        assertEquals(testTodo, result.getContent().get(0));
+    }
+
+    @Test
+    void getTodosByFilter_ShouldCombineConditionsIntoOneQuery() {
+        // Given
+        TodoFilterRequest request = new TodoFilterRequest();
+        request.setStatus("incomplete");
+        request.setPriority(Arrays.asList("high", "LOW"));
+        request.setDueTo(LocalDate.now().plusDays(7));
+        request.setQ("报告");
+        request.setSort("priority");
+        request.setDirection("desc");
+        when(todoSearchEngine.search(userId, "报告", 100)).thenReturn(List.of(1L, 2L));
+        when(todoRepository.findByFilter(any(TodoFilter.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(TodoResponse.fromTodo(testTodo))));
+
+        // When
+        Slice<TodoResponse> result = todoService.getTodosByFilter(userId, request);
+
+        // Then
+        assertEquals(1, result.getContent().size());
+        ArgumentCaptor<TodoFilter> filter = ArgumentCaptor.forClass(TodoFilter.class);
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(todoRepository).findByFilter(filter.capture(), pageable.capture());
+        assertEquals(false, filter.getValue().getCompleted());
+        assertEquals(EnumSet.of(Todo.Priority.HIGH, Todo.Priority.LOW), filter.getValue().getPriorities());
+        assertEquals(List.of(1L, 2L), filter.getValue().getIds());
+        assertNull(filter.getValue().getOverdueBefore());
+        assertEquals(Sort.by(Sort.Direction.DESC, "priority", "dueDate", "id"), pageable.getValue().getSort());
+    }
+
+    @Test
+    void getTodosByFilter_SortNotInWhitelist_ShouldThrowException() {
+        // Given
+        TodoFilterRequest request = new TodoFilterRequest();
+        request.setSort("userId");
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> todoService.getTodosByFilter(userId, request));
+        verify(todoRepository, never()).findByFilter(any(), any());
+    }
+
+    @Test
+    void getTodosByFilter_NoSearchHits_ShouldSkipQuery() {
+        // Given
+        TodoFilterRequest request = new TodoFilterRequest();
+        request.setQ("不存在");
+        when(todoSearchEngine.search(userId, "不存在", 100)).thenReturn(List.of());
+
+        // When
+        Slice<TodoResponse> result = todoService.getTodosByFilter(userId, request);
+
+        // Then
+        assertTrue(result.getContent().isEmpty());
+        verify(todoRepository, never()).findByFilter(any(), any());
+    }
+
+    @Test
+    void getTodoTotal_ShouldReadStatsCounters() {
+        // Given
+        when(todoStatsService.getCounts(userId)).thenReturn(new TodoStats(userId, 10L, 4L, 3L, 5L, 2L, 0L));
+
+        // When & Then
+        assertEquals(10L, todoService.getTodoTotal(userId, "all", null));
+        assertEquals(4L, todoService.getTodoTotal(userId, "completed", null));
+        assertEquals(6L, todoService.getTodoTotal(userId, "incomplete", null));
+        assertNull(todoService.getTodoTotal(userId, "all", "关键词"));
+        verify(todoRepository, never()).countByUserId(anyLong());
+    }
+
     @Test
     void getTodo_ValidIdAndUserId_ShouldReturnTodo() {
         // Given
-        when(todoRepository.findById(anyLong())).thenReturn(Optional.of(testTodo));
+        when(todoRepository.findByIdAndUserId(anyLong(), anyLong())).thenReturn(Optional.of(testTodo));
 
         // When
         Todo result = todoService.getTodo(1L, userId);
@@ -139,46 +446,100 @@ class TodoServiceTest {
         assertNotNull(result);
         assertEquals("测试待办事项", result.getTitle());
         assertEquals(userId, result.getUserId());
-        verify(todoRepository).findById(1L);
+        verify(todoRepository).findByIdAndUserId(1L, userId);
     }
 
     @Test
     void getTodo_TodoNotFound_ShouldThrowException() {
         // Given
-        when(todoRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(todoRepository.findByIdAndUserId(anyLong(), anyLong())).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(IllegalArgumentException.class, () -> {
             todoService.getTodo(1L, userId);
         });
-        verify(todoRepository).findById(1L);
+        verify(todoRepository).findByIdAndUserId(1L, userId);
     }
 
     @Test
     void getTodo_WrongUserId_ShouldThrowException() {
         // Given
-        when(todoRepository.findById(anyLong())).thenReturn(Optional.of(testTodo));
+        when(todoRepository.findByIdAndUserId(1L, 999L)).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(IllegalArgumentException.class, () -> {
             todoService.getTodo(1L, 999L); // 不同的用户ID
         });
-        verify(todoRepository).findById(1L);
+        verify(todoRepository).findByIdAndUserId(1L, 999L);
+        verify(todoRepository, never()).findById(anyLong());
     }
 
     @Test
     void updateTodo_ValidRequest_ShouldUpdateTodo() {
         // Given
-        when(todoRepository.findById(anyLong())).thenReturn(Optional.of(testTodo));
-        when(todoRepository.save(any(Todo.class))).thenReturn(testTodo);
+        when(todoRepository.findByIdAndUserId(anyLong(), anyLong())).thenReturn(Optional.of(testTodo));
 
         // When
         Todo result = todoService.updateTodo(1L, todoRequest, userId);
 
         // Then
         assertNotNull(result);
-        verify(todoRepository).findById(1L);
-        verify(todoRepository).save(any(Todo.class));
+        assertEquals("新待办事项", result.getTitle());
+        assertEquals(Todo.Priority.HIGH, result.getPriority());
+        verify(todoRepository).findByIdAndUserId(1L, userId);
+        verify(todoRepository, never()).save(any(Todo.class));
+    }
+
+    @Test
+    void updateTodo_PartialRequest_ShouldOnlyChangeGivenFields() {
+        // Given
+        TodoRequest partial = new TodoRequest();
+        partial.setTitle("只改标题");
+        when(todoRepository.findByIdAndUserId(anyLong(), anyLong())).thenReturn(Optional.of(testTodo));
+
+        // When
+        Todo result = todoService.updateTodo(1L, partial, userId);
+
+        // Then
+        assertEquals("只改标题", result.getTitle());
+        assertEquals("这是一个测试待办事项", result.getDescription());
+        assertEquals(Todo.Priority.MEDIUM, result.getPriority());
+
+        // 标题变化时事件携带新文本，用于更新搜索索引
+        ArgumentCaptor<TodoChangedEvent> captor = ArgumentCaptor.forClass(TodoChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        TodoChange change = captor.getValue().getChanges().get(0);
+        assertTrue(change.isTextChanged());
+        assertEquals("只改标题", change.getTitle());
+    }
+
+    @Test
+    void updateTodo_StaleVersion_ShouldThrowConflict() {
+        // Given
+        todoRequest.setVersion(2L);
+        when(todoRepository.findByIdAndUserId(anyLong(), anyLong())).thenReturn(Optional.of(testTodo));
+
+        // When & Then
+        assertThrows(ConflictException.class, () -> {
+            todoService.updateTodo(1L, todoRequest, userId);
+        });
+        assertEquals("测试待办事项", testTodo.getTitle());
+    }
+
+    @Test
+    void updateTodo_TitleTooLong_ShouldLeaveTodoUnchanged() {
+        // Given
+        todoRequest.setTitle("长".repeat(TodoService.TITLE_MAX_LENGTH + 1));
+        when(todoRepository.findByIdAndUserId(anyLong(), anyLong())).thenReturn(Optional.of(testTodo));
+
+        // When & Then: 校验失败时其他字段也不会被修改
+        assertThrows(IllegalArgumentException.class, () -> {
+            todoService.updateTodo(1L, todoRequest, userId);
+        });
+        assertEquals("测试待办事项", testTodo.getTitle());
+        assertEquals("这是一个测试待办事项", testTodo.getDescription());
+        assertEquals(Todo.Priority.MEDIUM, testTodo.getPriority());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -187,74 +548,365 @@ class TodoServiceTest {
         assertThrows(IllegalArgumentException.class, () -> {
             todoService.updateTodo(1L, null, userId);
         });
-        verify(todoRepository, never()).findById(anyLong());
+        verify(todoRepository, never()).findByIdAndUserId(anyLong(), anyLong());
     }
 
     @Test
     void deleteTodo_ValidIdAndUserId_ShouldDeleteTodo() {
         // Given
-        when(todoRepository.findById(anyLong())).thenReturn(Optional.of(testTodo));
-        doNothing().when(todoRepository).deleteById(anyLong());
+        StateView state = mock(StateView.class);
+        when(state.getPriority()).thenReturn(Todo.Priority.HIGH);
+        when(state.getCompleted()).thenReturn(true);
+        when(todoRepository.findStateByIdAndUserId(1L, userId)).thenReturn(Optional.of(state));
+        when(todoRepository.deleteByIdAndUserId(anyLong(), anyLong())).thenReturn(1);
+
+        when(todoStatsService.nextChangeSeq(userId)).thenReturn(9L);
 
         // When
         todoService.deleteTodo(1L, userId);
 
         // Then
-        verify(todoRepository).findById(1L);
-        verify(todoRepository).deleteById(1L);
+        verify(todoRepository).deleteByIdAndUserId(1L, userId);
+        ArgumentCaptor<TodoTombstone> tombstone = ArgumentCaptor.forClass(TodoTombstone.class);
+        verify(todoTombstoneRepository).save(tombstone.capture());
+        assertEquals(1L, tombstone.getValue().getTodoId());
+        assertEquals(9L, tombstone.getValue().getChangeSeq());
+        ArgumentCaptor<TodoChangedEvent> captor = ArgumentCaptor.forClass(TodoChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        TodoChange change = captor.getValue().getChanges().get(0);
+        assertEquals(TodoChange.Type.DELETED, change.getType());
+        assertEquals(Todo.Priority.HIGH, change.getPriorityBefore());
+        assertTrue(change.getCompletedBefore());
+        assertFalse(change.hasAfter());
+        verify(todoRepository, never()).findById(anyLong());
+        verify(todoRepository, never()).deleteById(anyLong());
     }
 
     @Test
     void deleteTodo_TodoNotFound_ShouldThrowException() {
         // Given
-        when(todoRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(todoRepository.findStateByIdAndUserId(anyLong(), anyLong())).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(IllegalArgumentException.class, () -> {
             todoService.deleteTodo(1L, userId);
         });
-        verify(todoRepository).findById(1L);
-        verify(todoRepository, never()).deleteById(anyLong());
+        verify(todoRepository, never()).deleteByIdAndUserId(anyLong(), anyLong());
+        verify(eventPublisher, never()).publishEvent(any());
+        verify(todoTombstoneRepository, never()).save(any(TodoTombstone.class));
+    }
+
+    @Test
+    void deleteTodo_ToggleCommittedWhileWaitingForLock_ShouldPublishCommittedState() {
+        // Given: 删除等待统计行锁期间，另一个请求切换了完成状态并提交
+        boolean[] completed = {false};
+        when(todoStatsService.nextChangeSeq(userId)).thenAnswer(invocation -> {
+            completed[0] = true;
+            return 9L;
+        });
+        // 模拟数据库：返回读取时刻已提交的状态
+        when(todoRepository.findStateByIdAndUserId(1L, userId)).thenAnswer(invocation -> {
+            boolean completedNow = completed[0];
+            return Optional.of(new StateView() {
+                @Override
+                public Todo.Priority getPriority() {
+                    return Todo.Priority.HIGH;
+                }
+
+                @Override
+                public Boolean getCompleted() {
+                    return completedNow;
+                }
+            });
+        });
+        when(todoRepository.deleteByIdAndUserId(1L, userId)).thenReturn(1);
+
+        // When
+        todoService.deleteTodo(1L, userId);
+
+        // Then: 先取锁再读状态，删除事件扣减的是切换后的完成状态
+        InOrder inOrder = inOrder(todoStatsService, todoRepository);
+        inOrder.verify(todoStatsService).nextChangeSeq(userId);
+        inOrder.verify(todoRepository).findStateByIdAndUserId(1L, userId);
+        inOrder.verify(todoRepository).deleteByIdAndUserId(1L, userId);
+        ArgumentCaptor<TodoChangedEvent> captor = ArgumentCaptor.forClass(TodoChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertTrue(captor.getValue().getChanges().get(0).getCompletedBefore());
+    }
+
+    @Test
+    void getChanges_ShouldMergeUpsertsAndTombstonesBySequence() {
+        // Given: 位置 (5, 0) 之后，上限序号为当前数据版本 8
+        Todo updated = new Todo();
+        updated.setId(3L);
+        updated.setTitle("已更新");
+        updated.setCompleted(false);
+        updated.setPriority(Todo.Priority.LOW);
+        updated.setUserId(userId);
+        updated.setVersion(1L);
+        updated.setChangeSeq(8L);
+        testTodo.setChangeSeq(6L);
+        when(todoStatsService.getDataVersion(userId)).thenReturn(8L);
+        when(todoRepository.findChangesAfter(userId, 5L, 0L, 8L, Limit.of(3)))
+                .thenReturn(Arrays.asList(testTodo, updated));
+        when(todoTombstoneRepository.findChangesAfter(userId, 5L, 0L, 8L, Limit.of(3)))
+                .thenReturn(List.of(new TodoTombstone(2L, userId, 7L, LocalDateTime.now())));
+
+        long syncedAt = Instant.now().minus(Duration.ofDays(1)).getEpochSecond();
+
+        // When
+        TodoChangesResponse page = todoService.getChanges(userId, new TodoChangeToken(5L, 0L, syncedAt).encode(), 2);
+
+        // Then: 按序号取前两条 (6, 1)、(7, 2)，(8, 3) 留到下一页；还没追上全部变更，同步时间不变
+        assertEquals(List.of(1L), page.getUpserted().stream().map(TodoResponse::getId).toList());
+        assertEquals(List.of(2L), page.getDeleted());
+        assertTrue(page.isHasMore());
+        TodoChangeToken next = TodoChangeToken.decode(page.getNextToken());
+        assertEquals(7L, next.getChangeSeq());
+        assertEquals(2L, next.getId());
+        assertEquals(syncedAt, next.getSyncedAt());
+    }
+
+    @Test
+    void getChanges_NoChanges_ShouldKeepPositionAndAdvanceSyncTime() {
+        // Given
+        long syncedAt = Instant.now().minus(Duration.ofDays(29)).getEpochSecond();
+        String since = new TodoChangeToken(4L, 10L, syncedAt).encode();
+        when(todoStatsService.getDataVersion(userId)).thenReturn(4L);
+        when(todoRepository.findChangesAfter(userId, 4L, 10L, 4L, Limit.of(21))).thenReturn(List.of());
+        when(todoTombstoneRepository.findChangesAfter(userId, 4L, 10L, 4L, Limit.of(21))).thenReturn(List.of());
+
+        // When
+        TodoChangesResponse page = todoService.getChanges(userId, since, null);
+
+        // Then
+        assertTrue(page.getUpserted().isEmpty());
+        assertTrue(page.getDeleted().isEmpty());
+        assertFalse(page.isHasMore());
+        TodoChangeToken next = TodoChangeToken.decode(page.getNextToken());
+        assertEquals(4L, next.getChangeSeq());
+        assertEquals(10L, next.getId());
+        assertTrue(next.getSyncedAt() >= Instant.now().minusSeconds(60).getEpochSecond());
+    }
+
+    @Test
+    void getChanges_FromStart_ShouldNotReadTombstones() {
+        // Given
+        when(todoStatsService.getDataVersion(userId)).thenReturn(3L);
+        when(todoRepository.findChangesAfter(userId, 0L, 0L, 3L, Limit.of(21))).thenReturn(List.of(testTodo));
+
+        // When
+        TodoChangesResponse page = todoService.getChanges(userId, null, null);
+
+        // Then: 客户端没有旧数据，删除记录对它没有意义
+        assertEquals(1, page.getUpserted().size());
+        assertTrue(page.getDeleted().isEmpty());
+        verify(todoTombstoneRepository, never())
+                .findChangesAfter(anyLong(), anyLong(), anyLong(), anyLong(), any(Limit.class));
+    }
+
+    @Test
+    void getChanges_TokenOlderThanRetention_ShouldRequireFullResync() {
+        // Given: 上次追上全部变更是在 31 天前，之后的删除记录可能已被清理
+        long syncedAt = Instant.now().minus(Duration.ofDays(31)).getEpochSecond();
+        String since = new TodoChangeToken(4L, 10L, syncedAt).encode();
+        // 早期版本不带同步时间的位置同样按过期处理
+        String legacy = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("4|10".getBytes(StandardCharsets.UTF_8));
+
+        // When & Then
+        assertThrows(SyncExpiredException.class, () -> todoService.getChanges(userId, since, null));
+        assertThrows(SyncExpiredException.class, () -> todoService.getChanges(userId, legacy, null));
+        verify(todoRepository, never()).findChangesAfter(anyLong(), anyLong(), anyLong(), anyLong(), any(Limit.class));
+        verify(todoTombstoneRepository, never())
+                .findChangesAfter(anyLong(), anyLong(), anyLong(), anyLong(), any(Limit.class));
+    }
+
+    @Test
+    void purgeTombstones_ShouldDeleteOnlyBeyondRetentionAndGrace() {
+        // When
+        todoService.purgeTombstones();
+
+        // Then: 截止时间早于保留期限，同步时间仍在期限内的位置需要的删除记录不会被清理
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(todoTombstoneRepository).deleteDeletedBefore(cutoff.capture());
+        assertTrue(cutoff.getValue().isBefore(LocalDateTime.now().minusDays(30)));
+    }
+
+    @Test
+    void getChanges_InvalidToken_ShouldThrowBadRequest() {
+        assertThrows(BadRequestException.class, () -> todoService.getChanges(userId, "not-a-token", null));
+        verify(todoRepository, never()).findChangesAfter(anyLong(), anyLong(), anyLong(), anyLong(), any(Limit.class));
     }
 
     @Test
     void toggleTodo_ValidIdAndUserId_ShouldToggleCompleted() {
         // Given
-        when(todoRepository.findById(anyLong())).thenReturn(Optional.of(testTodo));
-        when(todoRepository.save(any(Todo.class))).thenReturn(testTodo);
+        when(todoStatsService.nextChangeSeq(userId)).thenReturn(7L);
+        when(todoRepository.toggleCompleted(anyLong(), anyLong(), any(LocalDateTime.class), anyLong())).thenReturn(1);
+        when(todoRepository.findByIdAndUserId(anyLong(), anyLong())).thenReturn(Optional.of(testTodo));
 
         // When
         Todo result = todoService.toggleTodo(1L, userId);
 
         // Then
         assertNotNull(result);
-        verify(todoRepository).findById(1L);
-        verify(todoRepository).save(any(Todo.class));
+        verify(todoRepository).toggleCompleted(eq(1L), eq(userId), any(LocalDateTime.class), eq(7L));
+        verify(todoRepository).findByIdAndUserId(1L, userId);
+        verify(todoRepository, never()).save(any(Todo.class));
+    }
+
+    @Test
+    void toggleTodo_TodoNotFound_ShouldThrowException() {
+        // Given
+        when(todoRepository.toggleCompleted(anyLong(), anyLong(), any(LocalDateTime.class), anyLong())).thenReturn(0);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> {
+            todoService.toggleTodo(1L, userId);
+        });
+        verify(todoRepository, never()).findByIdAndUserId(anyLong(), anyLong());
+    }
+
+    @Test
+    void toggleTodo_StaleVersion_ShouldThrowConflict() {
+        // Given
+        when(todoRepository.toggleCompletedIfVersion(anyLong(), anyLong(), anyLong(), any(LocalDateTime.class), anyLong()))
+                .thenReturn(0);
+        when(todoRepository.existsByIdAndUserId(1L, userId)).thenReturn(true);
+
+        // When & Then
+        assertThrows(ConflictException.class, () -> {
+            todoService.toggleTodo(1L, userId, 2L);
+        });
+        verify(todoRepository, never()).toggleCompleted(anyLong(), anyLong(), any(LocalDateTime.class), anyLong());
+    }
+
+    @Test
+    void applyBatch_MixedOperations_ShouldLoadOnceAndReportPerItem() {
+        // Given
+        Todo other = new Todo();
+        other.setId(2L);
+        other.setTitle("待删除");
+        other.setCompleted(false);
+        other.setUserId(userId);
+        other.setVersion(0L);
+        when(todoRepository.findByUserIdAndIdIn(eq(userId), anyCollection())).thenReturn(Arrays.asList(testTodo, other));
+        when(todoRepository.save(any(Todo.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<TodoBatchOperation> operations = Arrays.asList(
+                new TodoBatchOperation(TodoBatchOperation.Type.CREATE, null, null, "批量新建", null, "LOW", null),
+                new TodoBatchOperation(TodoBatchOperation.Type.TOGGLE, 1L, null, null, null, null, null),
+                new TodoBatchOperation(TodoBatchOperation.Type.DELETE, 2L, null, null, null, null, null),
+                new TodoBatchOperation(TodoBatchOperation.Type.UPDATE, 99L, null, "不存在", null, null, null),
+                new TodoBatchOperation(TodoBatchOperation.Type.UPDATE, 1L, 2L, "版本过期", null, null, null),
+                new TodoBatchOperation(TodoBatchOperation.Type.CREATE, null, null, " ", null, null, null)
+        );
+
+        // When
+        List<TodoBatchResult> results = todoService.applyBatch(operations, userId);
+
+        // Then
+        assertEquals(6, results.size());
+        assertEquals(200, results.get(0).getStatus());
+        assertEquals(Todo.Priority.LOW, results.get(0).getTodo().getPriority());
+        assertEquals(200, results.get(1).getStatus());
+        assertTrue(testTodo.getCompleted());
+        assertEquals(200, results.get(2).getStatus());
+        assertEquals(404, results.get(3).getStatus());
+        assertEquals(409, results.get(4).getStatus());
+        assertEquals("测试待办事项", testTodo.getTitle());
+        assertEquals(400, results.get(5).getStatus());
+
+        verify(todoRepository, times(1)).findByUserIdAndIdIn(eq(userId), anyCollection());
+        verify(todoRepository).delete(other);
+        verify(todoRepository).flush();
+    }
+
+    @Test
+    void applyBatch_UpdateWithInvalidPriority_ShouldLeaveTodoUnchanged() {
+        // Given
+        when(todoRepository.findByUserIdAndIdIn(eq(userId), anyCollection())).thenReturn(List.of(testTodo));
+        List<TodoBatchOperation> operations = List.of(
+                new TodoBatchOperation(TodoBatchOperation.Type.UPDATE, 1L, null, "新标题", "新描述", "URGENT", null));
+
+        // When
+        List<TodoBatchResult> results = todoService.applyBatch(operations, userId);
+
+        // Then: 校验失败时实体未被修改，flush 不会写入任何字段，也不产生变更事件
+        assertEquals(400, results.get(0).getStatus());
+        assertEquals("测试待办事项", testTodo.getTitle());
+        assertEquals("这是一个测试待办事项", testTodo.getDescription());
+        assertEquals(Todo.Priority.MEDIUM, testTodo.getPriority());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void applyBatch_TitleTooLong_ShouldRejectOnlyThatOperation() {
+        // Given
+        String tooLong = "长".repeat(TodoService.TITLE_MAX_LENGTH + 1);
+        when(todoRepository.findByUserIdAndIdIn(eq(userId), anyCollection())).thenReturn(List.of(testTodo));
+        when(todoRepository.save(any(Todo.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        List<TodoBatchOperation> operations = List.of(
+                new TodoBatchOperation(TodoBatchOperation.Type.CREATE, null, null, tooLong, null, null, null),
+                new TodoBatchOperation(TodoBatchOperation.Type.UPDATE, 1L, null, tooLong, null, null, null),
+                new TodoBatchOperation(TodoBatchOperation.Type.CREATE, null, null, "正常标题", null, null, null));
+
+        // When
+        List<TodoBatchResult> results = todoService.applyBatch(operations, userId);
+
+        // Then
+        assertEquals(400, results.get(0).getStatus());
+        assertEquals(400, results.get(1).getStatus());
+        assertEquals(200, results.get(2).getStatus());
+        assertEquals("测试待办事项", testTodo.getTitle());
+        verify(todoRepository, times(1)).save(any(Todo.class));
+    }
+
+    @Test
+    void applyBatch_TooManyOperations_ShouldThrowException() {
+        // Given
+        List<TodoBatchOperation> operations = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            operations.add(new TodoBatchOperation(TodoBatchOperation.Type.CREATE, null, null, "t" + i, null, null, null));
+        }
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> {
+            todoService.applyBatch(operations, userId);
+        });
+        verify(todoRepository, never()).save(any(Todo.class));
     }
 
     @Test
     void getOverdueTodos_ValidUserId_ShouldReturnOverdueTodos() {
         // Given
-        List<Todo> overdueTodos = Arrays.asList(testTodo);
-        when(todoRepository.findOverdueTodos(anyLong(), any(LocalDate.class)))
+        List<TodoResponse> overdueTodos = Arrays.asList(TodoResponse.fromTodo(testTodo));
+        when(todoRepository.findOverdueTodoSummaries(anyLong(), any(LocalDate.class)))
                 .thenReturn(overdueTodos);
+        LocalDate today = LocalDate.now();
+        when(todoReadCache.getOverdue(eq(userId), eq(4L), eq(today), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<List<TodoResponse>>>getArgument(3).get());
 
         // When
-        List<Todo> result = todoService.getOverdueTodos(userId);
+        List<TodoResponse> result = todoService.getOverdueTodos(userId, 4L, today);
 
         // Then
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(todoRepository).findOverdueTodos(anyLong(), any(LocalDate.class));
+        assertEquals("MEDIUM", result.get(0).getPriority());
+        verify(todoRepository).findOverdueTodoSummaries(userId, today);
+        verify(todoRepository, never()).findOverdueTodos(anyLong(), any(LocalDate.class));
+        verify(todoStatsService, never()).getDataVersion(anyLong());
     }
 
     @Test
     void getOverdueTodos_NullUserId_ShouldThrowException() {
         // When & Then
         assertThrows(IllegalArgumentException.class, () -> {
-            todoService.getOverdueTodos(null);
+            todoService.getOverdueTodos(null, 0L, LocalDate.now());
         });
-        verify(todoRepository, never()).findOverdueTodos(anyLong(), any(LocalDate.class));
+        verify(todoRepository, never()).findOverdueTodoSummaries(anyLong(), any(LocalDate.class));
     }
 
     @Test
@@ -295,4 +947,15 @@ class TodoServiceTest {
         assertEquals(2L, result);
         verify(todoRepository).countByUserIdAndCompletedFalse(userId);
     }
-} 
\ No newline at end of file
+
+    private TodoResponse todoWith(Long id, LocalDateTime createdAt, LocalDate dueDate) {
+        Todo todo = new Todo();
+        todo.setId(id);
+        todo.setTitle("待办事项" + id);
+        todo.setCompleted(false);
+        todo.setUserId(userId);
+        todo.setCreatedAt(createdAt);
+        todo.setDueDate(dueDate);
+        return TodoResponse.fromTodo(todo);
+    }
+}
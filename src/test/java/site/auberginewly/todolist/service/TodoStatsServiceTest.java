@@ -0,0 +1,182 @@
+package site.auberginewly.todolist.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import site.auberginewly.todolist.dto.TodoStatsResponse;
+import site.auberginewly.todolist.entity.Todo;
+import site.auberginewly.todolist.entity.TodoStats;
+import site.auberginewly.todolist.event.TodoChange;
+import site.auberginewly.todolist.event.TodoChangedEvent;
+import site.auberginewly.todolist.repository.TodoRepository;
+import site.auberginewly.todolist.repository.TodoStatsRepository;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * TodoStatsService 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class TodoStatsServiceTest {
+
+    @Mock
+    private TodoStatsRepository todoStatsRepository;
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TodoStatsService todoStatsService;
+    private final Long userId = 1L;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        todoStatsService = new TodoStatsService(todoStatsRepository, todoRepository, transactionManager);
+    }
+
+    @Test
+    void onTodoChanged_ShouldApplyNetDeltaInOneUpdate() {
+        // Given
+        Todo created = todo(10L, Todo.Priority.HIGH, false);
+        Todo toggled = todo(11L, Todo.Priority.LOW, true);
+        Todo updated = todo(12L, Todo.Priority.MEDIUM, false);
+        List<TodoChange> changes = Arrays.asList(
+                TodoChange.created(created),
+                TodoChange.toggled(toggled),
+                TodoChange.updated(updated, Todo.Priority.HIGH, false),
+                TodoChange.deleted(13L, Todo.Priority.LOW, true)
+        );
+        when(todoStatsRepository.applyDelta(anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong())).thenReturn(1);
+
+        // When
+        todoStatsService.onTodoChanged(new TodoChangedEvent(userId, changes));
+
+        // Then: total +1-1=0, completed +1-1=0, high +1-1=0, medium +1, low -1
+        verify(todoStatsRepository).applyDelta(userId, 0L, 0L, 0L, 1L, -1L);
+    }
+
+    @Test
+    void onTodoChanged_NoEffectiveChange_ShouldSkipUpdate() {
+        // Given
+        Todo updated = todo(12L, Todo.Priority.MEDIUM, false);
+
+        // When
+        todoStatsService.onTodoChanged(new TodoChangedEvent(userId, List.of(TodoChange.updated(updated, Todo.Priority.MEDIUM, false))));
+
+        // Then
+        verifyNoInteractions(todoStatsRepository);
+    }
+
+    @Test
+    void nextChangeSeq_ShouldIncrementAndReadVersion() {
+        // Given
+        when(todoStatsRepository.incrementDataVersion(userId)).thenReturn(1);
+        when(todoStatsRepository.findDataVersion(userId)).thenReturn(Optional.of(42L));
+
+        // When & Then
+        assertEquals(42L, todoStatsService.nextChangeSeq(userId));
+        verify(todoStatsRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void nextChangeSeq_MissingRow_ShouldInitializeThenIncrement() {
+        // Given
+        when(todoStatsRepository.incrementDataVersion(userId)).thenReturn(0, 1);
+        when(todoStatsRepository.existsById(userId)).thenReturn(false);
+        when(todoRepository.countByPriorityAndCompleted(userId)).thenReturn(List.of());
+        when(todoStatsRepository.findDataVersion(userId)).thenReturn(Optional.of(1L));
+
+        // When & Then
+        assertEquals(1L, todoStatsService.nextChangeSeq(userId));
+        verify(todoStatsRepository).saveAndFlush(new TodoStats(userId, 0L, 0L, 0L, 0L, 0L, 0L));
+        verify(todoStatsRepository, times(2)).incrementDataVersion(userId);
+    }
+
+    @Test
+    void getDataVersion_MissingRow_ShouldReturnZero() {
+        // Given
+        when(todoStatsRepository.findDataVersion(userId)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertEquals(0L, todoStatsService.getDataVersion(userId));
+        verify(todoStatsRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void onTodoChanged_MissingRow_ShouldInitializeFromCommittedDataThenApply() {
+        // Given
+        when(todoStatsRepository.applyDelta(anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong())).thenReturn(0, 1);
+        when(todoStatsRepository.existsById(userId)).thenReturn(false);
+        when(todoRepository.countByPriorityAndCompleted(userId))
+                .thenReturn(List.<Object[]>of(new Object[]{Todo.Priority.HIGH, true, 2L}));
+
+        // When
+        todoStatsService.onTodoChanged(new TodoChangedEvent(userId,
+                List.of(TodoChange.created(todo(10L, Todo.Priority.LOW, false)))));
+
+        // Then
+        verify(todoStatsRepository).saveAndFlush(new TodoStats(userId, 2L, 2L, 2L, 0L, 0L, 0L));
+        verify(todoStatsRepository, times(2)).applyDelta(userId, 1L, 0L, 0L, 0L, 1L);
+    }
+
+    @Test
+    void getStats_ShouldReadCountersAndOverdueOnly() {
+        // Given
+        when(todoStatsRepository.findById(userId)).thenReturn(Optional.of(new TodoStats(userId, 10L, 4L, 3L, 5L, 2L, 0L)));
+        when(todoRepository.countByUserIdAndCompletedFalseAndDueDateBefore(eq(userId), any(LocalDate.class))).thenReturn(1L);
+
+        // When
+        TodoStatsResponse stats = todoStatsService.getStats(userId);
+
+        // Then
+        assertEquals(10L, stats.getTotal());
+        assertEquals(4L, stats.getCompleted());
+        assertEquals(6L, stats.getIncomplete());
+        assertEquals(1L, stats.getOverdue());
+        assertEquals(3L, stats.getByPriority().get("HIGH"));
+        verify(todoRepository, never()).countByUserId(anyLong());
+        verify(todoRepository, never()).countByPriorityAndCompleted(anyLong());
+    }
+
+    @Test
+    void reconcile_Drift_ShouldOverwriteWithRecount() {
+        // Given
+        TodoStats stored = new TodoStats(userId, 7L, 1L, 7L, 0L, 0L, 0L);
+        when(todoStatsRepository.findForUpdate(userId)).thenReturn(Optional.of(stored));
+        when(todoRepository.countByPriorityAndCompleted(userId)).thenReturn(Arrays.asList(
+                new Object[]{Todo.Priority.HIGH, false, 3L},
+                new Object[]{Todo.Priority.LOW, true, 2L}));
+
+        // When
+        boolean corrected = todoStatsService.reconcile(userId);
+
+        // Then
+        assertTrue(corrected);
+        assertEquals(new TodoStats(userId, 5L, 2L, 3L, 0L, 2L, 0L), stored);
+    }
+
+    private Todo todo(Long id, Todo.Priority priority, boolean completed) {
+        Todo todo = new Todo();
+        todo.setId(id);
+        todo.setUserId(userId);
+        todo.setPriority(priority);
+        todo.setCompleted(completed);
+        return todo;
+    }
+}
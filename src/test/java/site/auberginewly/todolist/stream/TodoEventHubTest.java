@@ -0,0 +1,195 @@
+package site.auberginewly.todolist.stream;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import site.auberginewly.todolist.entity.Todo;
+import site.auberginewly.todolist.event.TodoChange;
+import site.auberginewly.todolist.event.TodoChangedEvent;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TodoEventHub 单元测试
+ */
+class TodoEventHubTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TodoEventHub todoEventHub;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        todoEventHub = new TodoEventHub(meterRegistry, 8, Duration.ofMinutes(1), Duration.ofMillis(100));
+    }
+
+    @AfterEach
+    void tearDown() {
+        todoEventHub.destroy();
+    }
+
+    @Test
+    void onTodoChanged_ShouldDeliverOnlyToThatUsersSubscribers() {
+        // Given
+        RecordingEmitter first = new RecordingEmitter();
+        RecordingEmitter second = new RecordingEmitter();
+        RecordingEmitter other = new RecordingEmitter();
+        todoEventHub.register(1L, first);
+        todoEventHub.register(1L, second);
+        todoEventHub.register(2L, other);
+
+        // When
+        todoEventHub.onTodoChanged(new TodoChangedEvent(1L, List.of(
+                TodoChange.created(todo(10L)), TodoChange.deleted(11L, Todo.Priority.LOW, false))));
+
+        // Then
+        awaitUntil(() -> first.events.size() == 2 && second.events.size() == 2);
+        assertEquals(List.of("created", "deleted"), first.events);
+        assertEquals(List.of("created", "deleted"), second.events);
+        assertTrue(other.events.isEmpty());
+    }
+
+    @Test
+    void onTodoChanged_SlowSubscriber_ShouldCoalesceIntoResync() throws InterruptedException {
+        // Given: 第一次写入阻塞，模拟不读取数据的客户端
+        RecordingEmitter slow = new RecordingEmitter();
+        slow.gate = new CountDownLatch(1);
+        todoEventHub.register(1L, slow);
+
+        // When
+        todoEventHub.onTodoChanged(new TodoChangedEvent(1L, List.of(TodoChange.created(todo(0L)))));
+        assertTrue(slow.blocked.await(5, TimeUnit.SECONDS));
+        for (long i = 1; i < 100; i++) {
+            todoEventHub.onTodoChanged(new TodoChangedEvent(1L, List.of(TodoChange.created(todo(i)))));
+        }
+        slow.gate.countDown();
+
+        // Then: 阻塞中的一条 + 一个 resync，其余事件被合并，缓冲区从未超过上限
+        awaitUntil(() -> slow.events.contains(TodoSubscriber.RESYNC));
+        Thread.sleep(50);
+        assertEquals("created", slow.events.get(0));
+        assertEquals(TodoSubscriber.RESYNC, slow.events.get(1));
+        assertEquals(2, slow.events.size());
+        assertEquals(1.0, meterRegistry.get("todos.stream.overflows").counter().count());
+    }
+
+    @Test
+    void heartbeat_BrokenConnection_ShouldUnregister() {
+        // Given
+        RecordingEmitter broken = new RecordingEmitter();
+        broken.fail = true;
+        todoEventHub.register(1L, broken);
+        assertEquals(1, todoEventHub.getSubscriberCount());
+
+        // When
+        todoEventHub.heartbeat();
+
+        // Then
+        awaitUntil(() -> todoEventHub.getSubscriberCount() == 0);
+        assertEquals(0.0, meterRegistry.get("todos.stream.subscribers").gauge().value());
+    }
+
+    @Test
+    void onTodoChanged_ShouldDispatchOnVirtualThread() {
+        // Given
+        RecordingEmitter emitter = new RecordingEmitter();
+        todoEventHub.register(1L, emitter);
+
+        // When
+        todoEventHub.onTodoChanged(new TodoChangedEvent(1L, List.of(TodoChange.created(todo(10L)))));
+
+        // Then
+        awaitUntil(() -> emitter.events.size() == 1);
+        assertTrue(emitter.senderThread.isVirtual());
+        assertTrue(emitter.senderThread.getName().startsWith("todo-stream-"));
+    }
+
+    @Test
+    void heartbeat_StalledWrite_ShouldDropSubscriberWithoutBlockingOthers() throws InterruptedException {
+        // Given: 一个连接的写入一直阻塞
+        RecordingEmitter stalled = new RecordingEmitter();
+        stalled.gate = new CountDownLatch(1);
+        RecordingEmitter healthy = new RecordingEmitter();
+        todoEventHub.register(1L, stalled);
+        todoEventHub.register(1L, healthy);
+        todoEventHub.onTodoChanged(new TodoChangedEvent(1L, List.of(TodoChange.created(todo(1L)))));
+        assertTrue(stalled.blocked.await(5, TimeUnit.SECONDS));
+
+        try {
+            // When: 超过写入超时后的心跳
+            Thread.sleep(200);
+            todoEventHub.heartbeat();
+
+            // Then: 阻塞的连接被移除，其他连接照常收到事件
+            assertEquals(1, todoEventHub.getSubscriberCount());
+            assertEquals(1.0, meterRegistry.get("todos.stream.stalled").counter().count());
+            todoEventHub.onTodoChanged(new TodoChangedEvent(1L, List.of(TodoChange.created(todo(2L)))));
+            awaitUntil(() -> healthy.events.size() == 2);
+        } finally {
+            stalled.gate.countDown();
+        }
+    }
+
+    private static Todo todo(Long id) {
+        Todo todo = new Todo();
+        todo.setId(id);
+        todo.setTitle("todo " + id);
+        todo.setCompleted(false);
+        todo.setPriority(Todo.Priority.MEDIUM);
+        return todo;
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 5s");
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * 记录发送的事件名称，不写入真实连接
+     */
+    static class RecordingEmitter extends SseEmitter {
+
+        final List<String> events = new CopyOnWriteArrayList<>();
+        final CountDownLatch blocked = new CountDownLatch(1);
+        volatile CountDownLatch gate;
+        volatile boolean fail;
+        volatile Thread senderThread;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            senderThread = Thread.currentThread();
+            if (fail) {
+                throw new IOException("connection reset");
+            }
+            CountDownLatch latch = gate;
+            if (latch != null) {
+                gate = null;
+                blocked.countDown();
+                try {
+                    latch.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(ex);
+                }
+            }
+            String text = builder.build().iterator().next().getData().toString();
+            if (text.startsWith(":")) {
+                return; // 心跳
+            }
+            events.add(text.substring("event:".length(), text.indexOf('\n')));
+        }
+    }
+}
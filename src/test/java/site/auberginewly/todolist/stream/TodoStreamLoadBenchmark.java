@@ -0,0 +1,202 @@
+package site.auberginewly.todolist.stream;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import site.auberginewly.todolist.dto.TodoRequest;
+import site.auberginewly.todolist.entity.Todo;
+import site.auberginewly.todolist.event.TodoChange;
+import site.auberginewly.todolist.event.TodoChangedEvent;
+import site.auberginewly.todolist.security.AuthenticatedUser;
+import site.auberginewly.todolist.security.JwtTokenProvider;
+import site.auberginewly.todolist.service.TodoService;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 推送流压测，运行方式：./gradlew benchmark
+ * 1. 进程内：登记大量空闲订阅者，测量每个订阅者占用的堆内存和一次全量分发的耗时
+ * 2. 真实连接：通过 HTTP 建立大量 SSE 连接，确认连接数远超线程数，一次写入推送到所有连接
+ * 真实连接数可通过 -Dstream.connections 调整（受文件描述符上限限制）
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@Tag("benchmark")
+class TodoStreamLoadBenchmark {
+
+    private static final int IDLE_SUBSCRIBERS = 50_000;
+    private static final int CONNECTIONS = Integer.getInteger("stream.connections", 2_000);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TodoEventHub todoEventHub;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Test
+    void idleSubscribers_ShouldStayCheapAndFanOutQuickly() throws InterruptedException {
+        AtomicInteger delivered = new AtomicInteger();
+        List<TodoSubscriber> subscribers = new ArrayList<>(IDLE_SUBSCRIBERS);
+
+        long heapBefore = usedHeap();
+        for (long userId = 1; userId <= IDLE_SUBSCRIBERS; userId++) {
+            subscribers.add(todoEventHub.register(1_000_000L + userId, new CountingEmitter(delivered)));
+        }
+        long heapAfter = usedHeap();
+        System.out.printf("idle subscribers x%d: %.0f bytes each, threads %d%n", IDLE_SUBSCRIBERS,
+                (heapAfter - heapBefore) / (double) IDLE_SUBSCRIBERS,
+                ManagementFactory.getThreadMXBean().getThreadCount());
+
+        Todo todo = new Todo();
+        todo.setId(1L);
+        todo.setTitle("broadcast");
+        todo.setCompleted(false);
+        todo.setPriority(Todo.Priority.MEDIUM);
+        long start = System.nanoTime();
+        for (long userId = 1; userId <= IDLE_SUBSCRIBERS; userId++) {
+            todoEventHub.onTodoChanged(new TodoChangedEvent(1_000_000L + userId, List.of(TodoChange.created(todo))));
+        }
+        long publishedAt = System.nanoTime();
+        long deadline = publishedAt + TimeUnit.SECONDS.toNanos(30);
+        while (delivered.get() < IDLE_SUBSCRIBERS && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        long end = System.nanoTime();
+        System.out.printf("fan-out x%d: publish %.1f ms, delivered %d in %.1f ms%n", IDLE_SUBSCRIBERS,
+                (publishedAt - start) / 1_000_000.0, delivered.get(), (end - start) / 1_000_000.0);
+
+        subscribers.forEach(TodoSubscriber::close);
+        assertEquals(IDLE_SUBSCRIBERS, delivered.get());
+        assertTrue(heapAfter - heapBefore < IDLE_SUBSCRIBERS * 4_096L, "idle subscribers should stay small");
+    }
+
+    @Test
+    void realConnections_ShouldNotHoldAThreadEach() throws Exception {
+        long userId = 42L;
+        String token = jwtTokenProvider.generateToken(AuthenticatedUser.of(userId, "stream-bench", List.of("USER")));
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/todos/stream"))
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", "text/event-stream")
+                .build();
+
+        int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+        CountDownLatch connected = new CountDownLatch(CONNECTIONS);
+        CountDownLatch received = new CountDownLatch(CONNECTIONS);
+        AtomicLong lastReceivedAt = new AtomicLong();
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(CONNECTIONS);
+        for (int i = 0; i < CONNECTIONS; i++) {
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(
+                    new LineListener(connected, received, lastReceivedAt))));
+        }
+        assertTrue(connected.await(60, TimeUnit.SECONDS), "all connections should be established");
+        int threadsConnected = ManagementFactory.getThreadMXBean().getThreadCount();
+
+        TodoRequest todo = new TodoRequest();
+        todo.setTitle("pushed");
+        long start = System.nanoTime();
+        todoService.createTodo(todo, userId);
+        assertTrue(received.await(30, TimeUnit.SECONDS), "every connection should receive the event");
+        System.out.printf("sse connections x%d: threads %d -> %d, fan-out to all %.1f ms%n", CONNECTIONS,
+                threadsBefore, threadsConnected, (lastReceivedAt.get() - start) / 1_000_000.0);
+
+        responses.forEach(response -> response.cancel(true));
+        assertTrue(threadsConnected - threadsBefore < CONNECTIONS / 4, "connections must not hold a thread each");
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * 只计数的连接，模拟已建立但空闲的客户端
+     */
+    private static final class CountingEmitter extends SseEmitter {
+
+        private final AtomicInteger delivered;
+
+        CountingEmitter(AtomicInteger delivered) {
+            this.delivered = delivered;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            String text = builder.build().iterator().next().getData().toString();
+            if (text.startsWith("event:")) {
+                delivered.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 逐行读取 SSE 响应：第一行心跳表示连接已建立，event:created 表示收到推送
+     */
+    private static final class LineListener implements Flow.Subscriber<String> {
+
+        private final CountDownLatch connected;
+        private final CountDownLatch received;
+        private final AtomicLong lastReceivedAt;
+        private boolean seenHeartbeat;
+        private boolean seenEvent;
+
+        LineListener(CountDownLatch connected, CountDownLatch received, AtomicLong lastReceivedAt) {
+            this.connected = connected;
+            this.received = received;
+            this.lastReceivedAt = lastReceivedAt;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (!seenHeartbeat && line.startsWith(":")) {
+                seenHeartbeat = true;
+                connected.countDown();
+            } else if (!seenEvent && line.equals("event:created")) {
+                seenEvent = true;
+                lastReceivedAt.accumulateAndGet(System.nanoTime(), Math::max);
+                received.countDown();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}